@@ -5,7 +5,7 @@ import com.marketplace.common.dto.UserDetailsResponse;
 import com.marketplace.common.dto.ValidateCredentialsRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
@@ -18,10 +18,11 @@ import reactor.core.publisher.Mono;
 @RequiredArgsConstructor
 public class MemberServiceClient {
 
-    private final WebClient.Builder webClientBuilder;
+    private static final ParameterizedTypeReference<ApiResponse<UserDetailsResponse>> USER_DETAILS_RESPONSE =
+            new ParameterizedTypeReference<>() {
+            };
 
-    @Value("${services.member.url:http://localhost:8081}")
-    private String memberServiceUrl;
+    private final WebClient memberServiceWebClient;
 
     /**
      * Validate user credentials via Member Service.
@@ -29,36 +30,16 @@ public class MemberServiceClient {
     public Mono<UserDetailsResponse> validateCredentials(ValidateCredentialsRequest request) {
         log.info("Validating credentials for email: {}", request.getEmail());
 
-        return webClientBuilder.build()
+        return memberServiceWebClient
                 .post()
-                .uri(memberServiceUrl + "/api/member/validate-credentials")
+                .uri("/api/member/validate-credentials")
                 .bodyValue(request)
                 .retrieve()
-                .bodyToMono(ApiResponse.class)
-                .map(response -> {
-                    // Extract UserDetailsResponse from ApiResponse
-                    Object data = response.getData();
-                    if (data instanceof UserDetailsResponse) {
-                        return (UserDetailsResponse) data;
-                    }
-                    // Handle LinkedHashMap case (Jackson deserialization)
-                    return convertToUserDetailsResponse(data);
-                })
+                .bodyToMono(USER_DETAILS_RESPONSE)
+                .flatMap(response -> Mono.justOrEmpty(response.getData()))
+                .switchIfEmpty(Mono.error(
+                        new IllegalArgumentException("Member service returned no user details")))
                 .doOnSuccess(user -> log.info("Credentials validated successfully for email: {}", user.getEmail()))
                 .doOnError(error -> log.error("Credential validation failed: {}", error.getMessage()));
     }
-
-    @SuppressWarnings("unchecked")
-    private UserDetailsResponse convertToUserDetailsResponse(Object data) {
-        if (data instanceof java.util.Map) {
-            java.util.Map<String, Object> map = (java.util.Map<String, Object>) data;
-            return UserDetailsResponse.builder()
-                    .id(java.util.UUID.fromString((String) map.get("id")))
-                    .email((String) map.get("email"))
-                    .fullName((String) map.get("fullName"))
-                    .roles((java.util.List<String>) map.get("roles"))
-                    .build();
-        }
-        throw new IllegalArgumentException("Unable to convert response data to UserDetailsResponse");
-    }
 }
@@ -4,6 +4,10 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Configuration properties for API Gateway
  */
@@ -14,6 +18,9 @@ public class GatewayConfigProperties {
 
     private Routing routing = new Routing();
     private RateLimit rateLimit = new RateLimit();
+    private TokenCache tokenCache = new TokenCache();
+    private BlacklistFilter blacklistFilter = new BlacklistFilter();
+    private MemberClient memberClient = new MemberClient();
 
     @Data
     public static class Routing {
@@ -25,5 +32,70 @@ public class GatewayConfigProperties {
     public static class RateLimit {
         private boolean enabled = false;
         private int requestsPerMinute = 100;
+        // "redis" checks every request against Redis, "hybrid" answers from locally leased tokens
+        private String mode = "redis";
+        private Hybrid hybrid = new Hybrid();
+        // Per-route overrides keyed by gateway route id
+        private Map<String, Limit> routes = new HashMap<>();
+
+        /**
+         * Limit for a route, falling back to a bucket derived from requestsPerMinute
+         */
+        public Limit limitFor(String routeId) {
+            Limit limit = routeId != null ? routes.get(routeId) : null;
+            if (limit != null) {
+                return limit;
+            }
+            Limit defaultLimit = new Limit();
+            defaultLimit.setCapacity(requestsPerMinute);
+            defaultLimit.setRefillPerSecond(requestsPerMinute / 60.0);
+            return defaultLimit;
+        }
+    }
+
+    @Data
+    public static class Hybrid {
+        // How often hot buckets top up their lease; leased tokens expire after two intervals
+        private Duration syncInterval = Duration.ofMillis(100);
+        // Most tokens claimed from Redis per lease, capped at a tenth of the bucket capacity;
+        // leases are sized from each key's request rate up to this limit
+        private int leaseSize = 20;
+        // Local buckets unused for this long are dropped
+        private Duration idleTimeout = Duration.ofMinutes(1);
+    }
+
+    @Data
+    public static class Limit {
+        // Maximum burst size
+        private int capacity = 100;
+        // Sustained rate in tokens per second
+        private double refillPerSecond = 100 / 60.0;
+    }
+
+    @Data
+    public static class TokenCache {
+        private boolean enabled = true;
+        private long maximumSize = 10000;
+    }
+
+    @Data
+    public static class BlacklistFilter {
+        private boolean enabled = true;
+        private long expectedInsertions = 100000;
+        private double falsePositiveRate = 0.01;
+        private String channel = "blacklist:events";
+        private Duration rebuildInterval = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class MemberClient {
+        // Connection pool to member-service; connect/response timeouts come from Routing
+        private int maxConnections = 100;
+        private int pendingAcquireMaxCount = 500;
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+        // Close connections before the member service's keep-alive timeout does
+        private Duration maxIdleTime = Duration.ofSeconds(15);
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+        private Duration evictionInterval = Duration.ofSeconds(30);
     }
 }
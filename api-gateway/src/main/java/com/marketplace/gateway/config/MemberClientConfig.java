@@ -0,0 +1,57 @@
+package com.marketplace.gateway.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the WebClient used to call Member Service.
+ * <p>
+ * The client keeps its own pool of kept-alive connections, so logins reuse warm connections
+ * instead of paying connection setup on every call. Pool metrics are published under
+ * {@code reactor.netty.connection.provider.*} with {@code name=member-service}.
+ */
+@Configuration
+public class MemberClientConfig {
+
+    private static final String POOL_NAME = "member-service";
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider memberServiceConnectionProvider(GatewayConfigProperties properties) {
+        GatewayConfigProperties.MemberClient pool = properties.getMemberClient();
+        return ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictionInterval())
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClient memberServiceWebClient(WebClient.Builder webClientBuilder,
+                                            ConnectionProvider memberServiceConnectionProvider,
+                                            GatewayConfigProperties properties,
+                                            @Value("${services.member.url:http://localhost:8081}") String memberServiceUrl) {
+        GatewayConfigProperties.Routing routing = properties.getRouting();
+        HttpClient httpClient = HttpClient.create(memberServiceConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, routing.getConnectionTimeout())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(Duration.ofMillis(routing.getResponseTimeout()))
+                .keepAlive(true);
+
+        return webClientBuilder.clone()
+                .baseUrl(memberServiceUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
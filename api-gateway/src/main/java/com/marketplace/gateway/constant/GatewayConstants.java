@@ -57,4 +57,14 @@ public final class GatewayConstants {
         private Headers() {
         }
     }
+
+    /**
+     * Redis key prefixes.
+     */
+    public static final class Redis {
+        public static final String BLACKLIST_PREFIX = "blacklist:token:";
+
+        private Redis() {
+        }
+    }
 }
@@ -0,0 +1,21 @@
+package com.marketplace.gateway.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a rate limit check for one request.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateLimitDecision {
+
+    private boolean allowed;
+    private long limit;
+    private long remaining;
+    private long resetMillis;
+}
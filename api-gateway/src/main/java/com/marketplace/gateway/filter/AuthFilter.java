@@ -1,8 +1,9 @@
 package com.marketplace.gateway.filter;
 
-import com.marketplace.common.util.JwtUtil;
+import com.marketplace.common.dto.JwtClaims;
 import com.marketplace.gateway.util.CookieUtil;
 import com.marketplace.gateway.service.TokenBlacklistService;
+import com.marketplace.gateway.service.VerifiedTokenCache;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
@@ -22,12 +23,13 @@ import reactor.core.publisher.Mono;
 @Component
 public class AuthFilter implements GlobalFilter, Ordered {
 
-    private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache verifiedTokenCache;
     private final CookieUtil cookieUtil;
     private final TokenBlacklistService tokenBlacklistService;
 
-    public AuthFilter(JwtUtil jwtUtil, CookieUtil cookieUtil, TokenBlacklistService tokenBlacklistService) {
-        this.jwtUtil = jwtUtil;
+    public AuthFilter(VerifiedTokenCache verifiedTokenCache, CookieUtil cookieUtil,
+                      TokenBlacklistService tokenBlacklistService) {
+        this.verifiedTokenCache = verifiedTokenCache;
         this.cookieUtil = cookieUtil;
         this.tokenBlacklistService = tokenBlacklistService;
     }
@@ -59,16 +61,13 @@ public class AuthFilter implements GlobalFilter, Ordered {
                     }
 
                     try {
-                        jwtUtil.validateToken(token);
-
-                        // Extract user info and inject headers
-                        java.util.UUID userId = jwtUtil.extractUserId(token);
-                        String email = jwtUtil.extractEmail(token);
+                        // Verified claims come from the local cache; only a miss pays for HMAC and JSON decoding
+                        JwtClaims claims = verifiedTokenCache.getOrVerify(token);
 
                         org.springframework.http.server.reactive.ServerHttpRequest request = exchange.getRequest()
                                 .mutate()
-                                .header("X-User-Id", userId.toString())
-                                .header("X-User-Email", email)
+                                .header("X-User-Id", claims.getUserId().toString())
+                                .header("X-User-Email", claims.getEmail())
                                 .build();
 
                         return chain.filter(exchange.mutate().request(request).build());
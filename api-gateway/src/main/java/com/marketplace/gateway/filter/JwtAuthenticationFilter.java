@@ -1,8 +1,9 @@
 package com.marketplace.gateway.filter;
 
-import com.marketplace.common.util.JwtUtil;
+import com.marketplace.common.dto.JwtClaims;
 import com.marketplace.gateway.constant.GatewayConstants;
 import com.marketplace.gateway.exception.InvalidTokenException;
+import com.marketplace.gateway.service.VerifiedTokenCache;
 import com.marketplace.gateway.util.CookieUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
@@ -23,12 +24,12 @@ import java.util.UUID;
 @Component
 public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAuthenticationFilter.Config> {
 
-    private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache verifiedTokenCache;
     private final CookieUtil cookieUtil;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, CookieUtil cookieUtil) {
+    public JwtAuthenticationFilter(VerifiedTokenCache verifiedTokenCache, CookieUtil cookieUtil) {
         super(Config.class);
-        this.jwtUtil = jwtUtil;
+        this.verifiedTokenCache = verifiedTokenCache;
         this.cookieUtil = cookieUtil;
     }
 
@@ -45,14 +46,10 @@ public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAut
             }
 
             try {
-                if (!jwtUtil.validateToken(token)) {
-                    log.warn("Invalid JWT token");
-                    throw InvalidTokenException.malformed();
-                }
-
-                // Extract user information from token
-                UUID userId = jwtUtil.extractUserId(token);
-                String email = jwtUtil.extractEmail(token);
+                // Verified claims come from the local cache; only a miss re-verifies the token
+                JwtClaims claims = verifiedTokenCache.getOrVerify(token);
+                UUID userId = claims.getUserId();
+                String email = claims.getEmail();
 
                 log.debug("Authenticated user: {} (ID: {})", email, userId);
 
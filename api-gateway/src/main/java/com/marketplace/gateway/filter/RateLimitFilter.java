@@ -1,11 +1,17 @@
 package com.marketplace.gateway.filter;
 
+import com.marketplace.gateway.config.GatewayConfigProperties;
+import com.marketplace.gateway.service.RateLimiter;
+import com.marketplace.gateway.service.VerifiedTokenCache;
+import com.marketplace.gateway.util.CookieUtil;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
 import org.springframework.core.Ordered;
-import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
@@ -13,71 +19,68 @@ import reactor.core.publisher.Mono;
 
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
-import java.time.Duration;
 import java.util.Optional;
+import java.util.UUID;
 
 /**
- * Rate limiting filter using Redis to prevent API abuse.
- * Implements a sliding window rate limiter per IP address.
+ * Rate limiting filter using a Redis token bucket to prevent API abuse.
+ * <p>
+ * Each request is charged against a bucket keyed by gateway route and client, where the
+ * client is the user id from a valid JWT or, for anonymous requests, the client IP.
  * <p>
  * Configuration properties:
- * - ratelimit.requests-per-minute: Max requests per minute (default: 100)
- * - ratelimit.enabled: Enable/disable rate limiting (default: true)
+ * - gateway.rate-limit.enabled: Enable/disable rate limiting
+ * - gateway.rate-limit.requests-per-minute: Default bucket capacity, refilled over one minute
+ * - gateway.rate-limit.routes.[route-id].capacity / refill-per-second: Per-route overrides
+ * - gateway.rate-limit.mode: redis (every request checks Redis) or hybrid (locally leased tokens)
  */
 @Slf4j
 @Component
 public class RateLimitFilter implements GlobalFilter, Ordered {
 
-    private final ReactiveRedisTemplate<String, String> redisTemplate;
-
-    @Value("${ratelimit.requests-per-minute:100}")
-    private int requestsPerMinute;
-
-    @Value("${ratelimit.enabled:true}")
-    private boolean enabled;
+    private final RateLimiter rateLimiter;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final CookieUtil cookieUtil;
+    private final GatewayConfigProperties.RateLimit config;
 
     private static final String RATE_LIMIT_KEY_PREFIX = "rate_limit:";
-
-    public RateLimitFilter(ReactiveRedisTemplate<String, String> redisTemplate) {
-        this.redisTemplate = redisTemplate;
+    private static final String DEFAULT_ROUTE = "default";
+
+    public RateLimitFilter(RateLimiter rateLimiter, VerifiedTokenCache verifiedTokenCache,
+                           CookieUtil cookieUtil, GatewayConfigProperties properties) {
+        this.rateLimiter = rateLimiter;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.cookieUtil = cookieUtil;
+        this.config = properties.getRateLimit();
     }
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-        if (!enabled) {
+        if (!config.isEnabled()) {
             return chain.filter(exchange);
         }
 
-        String clientIp = getClientIp(exchange);
-        String key = RATE_LIMIT_KEY_PREFIX + clientIp;
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : DEFAULT_ROUTE;
+        String clientKey = getClientKey(exchange);
+        String key = RATE_LIMIT_KEY_PREFIX + routeId + ":" + clientKey;
+        GatewayConfigProperties.Limit limit = config.limitFor(routeId);
 
-        return redisTemplate.opsForValue().increment(key)
-                .flatMap(count -> {
-                    if (count == 1) {
-                        // First request, set expiry
-                        return redisTemplate.expire(key, Duration.ofMinutes(1))
-                                .thenReturn(count);
-                    }
-                    return Mono.just(count);
-                })
-                .flatMap(count -> {
-                    if (count > requestsPerMinute) {
-                        log.warn("Rate limit exceeded for IP: {} (count: {})", clientIp, count);
+        return rateLimiter.tryAcquire(key, limit)
+                .flatMap(decision -> {
+                    HttpHeaders headers = exchange.getResponse().getHeaders();
+                    headers.add("X-Rate-Limit-Limit", String.valueOf(decision.getLimit()));
+                    headers.add("X-Rate-Limit-Remaining", String.valueOf(decision.getRemaining()));
+
+                    if (!decision.isAllowed()) {
+                        log.warn("Rate limit exceeded for {} on route {}", clientKey, routeId);
 
                         exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
-                        exchange.getResponse().getHeaders().add("X-Rate-Limit-Limit",
-                                String.valueOf(requestsPerMinute));
-                        exchange.getResponse().getHeaders().add("X-Rate-Limit-Remaining", "0");
-                        exchange.getResponse().getHeaders().add("Retry-After", "60");
+                        headers.add("Retry-After", String.valueOf(Math.max(1, (decision.getResetMillis() + 999) / 1000)));
 
                         return exchange.getResponse().setComplete();
                     }
 
-                    // Add rate limit headers for transparency
-                    long remaining = Math.max(0, requestsPerMinute - count);
-                    exchange.getResponse().getHeaders().add("X-Rate-Limit-Limit", String.valueOf(requestsPerMinute));
-                    exchange.getResponse().getHeaders().add("X-Rate-Limit-Remaining", String.valueOf(remaining));
-
                     return chain.filter(exchange);
                 })
                 .onErrorResume(e -> {
@@ -87,6 +90,42 @@ public class RateLimitFilter implements GlobalFilter, Ordered {
                 });
     }
 
+    /**
+     * Identify the client by the user id in a valid JWT, falling back to the client IP.
+     */
+    private String getClientKey(ServerWebExchange exchange) {
+        String token = extractToken(exchange);
+        if (token != null) {
+            try {
+                UUID userId = verifiedTokenCache.getOrVerify(token).getUserId();
+                if (userId != null) {
+                    return "user:" + userId;
+                }
+            } catch (Exception e) {
+                // Invalid tokens are rejected later by the auth filters; limit them by IP here
+                log.debug("Rate limiting by IP, token not usable: {}", e.getMessage());
+            }
+        }
+        return "ip:" + getClientIp(exchange);
+    }
+
+    /**
+     * Extract JWT token from Cookie (priority) or Authorization header
+     */
+    private String extractToken(ServerWebExchange exchange) {
+        HttpCookie cookie = exchange.getRequest().getCookies().getFirst(cookieUtil.getAuthCookieName());
+        if (cookie != null && cookie.getValue() != null && !cookie.getValue().isEmpty()) {
+            return cookie.getValue();
+        }
+
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authHeader.substring(7);
+        }
+
+        return null;
+    }
+
     /**
      * Extract client IP address, considering proxy headers.
      */
@@ -0,0 +1,306 @@
+package com.marketplace.gateway.service;
+
+import com.marketplace.gateway.config.GatewayConfigProperties;
+import com.marketplace.gateway.dto.RateLimitDecision;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Rate limiter that answers most requests from tokens leased locally out of the shared
+ * Redis token bucket.
+ * <p>
+ * Each node claims a lease of tokens per client key with the same Lua script used by
+ * {@link RedisTokenBucketRateLimiter}, then spends it with a lock-free counter and no I/O.
+ * A request goes to Redis only when the local lease is empty. A background sync tops up
+ * hot keys every {@code sync-interval}; each top-up is its own script call, sent
+ * concurrently over the shared connection.
+ * <p>
+ * Leased tokens were already taken from the global bucket, so nodes never exceed the
+ * global quota together. Unspent tokens expire after two sync intervals, so a lease can't
+ * be hoarded and replayed as a burst later. To keep expired tokens from draining the
+ * bucket, a lease is sized from the key's observed request rate to what the key is
+ * expected to spend before it expires: a key seen less often than that claims one token
+ * per request and never prefetches, so it wastes nothing. A hot key leaves at most about
+ * one and a half leases unused when its traffic stops.
+ */
+@Slf4j
+@Service
+@Primary
+@ConditionalOnProperty(name = "gateway.rate-limit.mode", havingValue = "hybrid")
+public class HybridRateLimiter implements RateLimiter {
+
+    private static final String METRIC_PREFIX = "gateway.ratelimit";
+    private static final int MAX_REMOTE_ATTEMPTS = 3;
+
+    private final RedisTokenBucketRateLimiter redisRateLimiter;
+    private final GatewayConfigProperties.Hybrid config;
+    private final Clock clock;
+    private final Map<String, LocalBucket> buckets = new ConcurrentHashMap<>();
+
+    private final Counter localAllowed;
+    private final Counter remoteAllowed;
+    private final Counter rejected;
+    private final Counter leaseClaims;
+
+    private Disposable syncSchedule;
+
+    @Autowired
+    public HybridRateLimiter(RedisTokenBucketRateLimiter redisRateLimiter,
+                             GatewayConfigProperties properties,
+                             MeterRegistry meterRegistry) {
+        this(redisRateLimiter, properties, meterRegistry, Clock.systemUTC());
+    }
+
+    HybridRateLimiter(RedisTokenBucketRateLimiter redisRateLimiter,
+                      GatewayConfigProperties properties,
+                      MeterRegistry meterRegistry,
+                      Clock clock) {
+        this.redisRateLimiter = redisRateLimiter;
+        this.config = properties.getRateLimit().getHybrid();
+        this.clock = clock;
+
+        this.localAllowed = Counter.builder(METRIC_PREFIX + ".decisions")
+                .tag("path", "local").tag("result", "allowed")
+                .description("Requests allowed from a locally leased token")
+                .register(meterRegistry);
+        this.remoteAllowed = Counter.builder(METRIC_PREFIX + ".decisions")
+                .tag("path", "remote").tag("result", "allowed")
+                .description("Requests allowed after waiting for a Redis lease")
+                .register(meterRegistry);
+        this.rejected = Counter.builder(METRIC_PREFIX + ".decisions")
+                .tag("path", "remote").tag("result", "rejected")
+                .description("Requests rejected because the shared bucket was empty")
+                .register(meterRegistry);
+        this.leaseClaims = Counter.builder(METRIC_PREFIX + ".lease.claims")
+                .description("Lease claims sent to Redis")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".local.buckets", buckets, Map::size)
+                .description("Client keys with a local bucket on this node")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        syncSchedule = Flux.interval(config.getSyncInterval())
+                .concatMap(tick -> sync())
+                .subscribe();
+        log.info("Hybrid rate limiter started (sync interval {}, max lease size {})",
+                config.getSyncInterval(), config.getLeaseSize());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (syncSchedule != null) {
+            syncSchedule.dispose();
+        }
+    }
+
+    @Override
+    public Mono<RateLimitDecision> tryAcquire(String key, GatewayConfigProperties.Limit limit) {
+        long now = clock.millis();
+        LocalBucket bucket = buckets.computeIfAbsent(key, k -> new LocalBucket(limit));
+        bucket.lastUsed = now;
+        bucket.requestsSinceClaim.incrementAndGet();
+
+        if (bucket.tryTake(now)) {
+            localAllowed.increment();
+            if (bucket.isRunningLow()) {
+                // Top up ahead of need so the next requests stay local
+                claim(key, bucket).subscribe(granted -> { }, e -> { });
+            }
+            return Mono.just(bucket.decision(true));
+        }
+
+        return acquireRemote(key, bucket, MAX_REMOTE_ATTEMPTS);
+    }
+
+    /**
+     * Wait for a lease and take from it. Concurrent waiters share one claim, so when a lease
+     * runs out before every waiter got a token, claim again while Redis still had tokens.
+     */
+    private Mono<RateLimitDecision> acquireRemote(String key, LocalBucket bucket, int attemptsLeft) {
+        return claim(key, bucket)
+                .flatMap(granted -> {
+                    if (bucket.tryTake(clock.millis())) {
+                        remoteAllowed.increment();
+                        return Mono.just(bucket.decision(true));
+                    }
+                    if (granted > 0 && attemptsLeft > 1) {
+                        return acquireRemote(key, bucket, attemptsLeft - 1);
+                    }
+                    rejected.increment();
+                    return Mono.just(bucket.decision(false));
+                });
+    }
+
+    /**
+     * Top up every hot bucket running low and drop buckets that have gone idle.
+     */
+    Mono<Void> sync() {
+        long now = clock.millis();
+        long activeSince = now - config.getSyncInterval().toMillis();
+        long idleSince = now - config.getIdleTimeout().toMillis();
+
+        buckets.entrySet().removeIf(entry -> entry.getValue().lastUsed < idleSince);
+
+        return Flux.fromIterable(buckets.entrySet())
+                .filter(entry -> entry.getValue().lastUsed >= activeSince
+                        && entry.getValue().isRunningLow())
+                .flatMap(entry -> claim(entry.getKey(), entry.getValue())
+                        .onErrorResume(e -> {
+                            log.error("Rate limit lease sync failed for {}: {}", entry.getKey(), e.getMessage());
+                            return Mono.empty();
+                        }))
+                .then();
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    /**
+     * Claim a lease from Redis, sharing a single in-flight claim between concurrent callers.
+     */
+    private Mono<Long> claim(String key, LocalBucket bucket) {
+        Mono<Long> inFlight = bucket.inFlight.get();
+        if (inFlight != null) {
+            return inFlight;
+        }
+
+        // Sized only once this claim is installed, so callers that lose the race never touch the
+        // rate estimate and claims for a key update it one at a time
+        Mono<Long> claim = Mono.defer(() -> {
+                    long leaseSize = leaseSize(bucket, clock.millis());
+                    return redisRateLimiter.acquire(key, bucket.limit, leaseSize, true)
+                            .map(result -> {
+                                long now = clock.millis();
+                                bucket.grant(result, leaseSize, now, now + leaseTtlMillis());
+                                return result.get(0);
+                            });
+                })
+                .doOnSubscribe(s -> leaseClaims.increment())
+                .doFinally(signal -> bucket.inFlight.set(null))
+                .cache();
+
+        return bucket.inFlight.compareAndSet(null, claim) ? claim : claim(key, bucket);
+    }
+
+    /**
+     * Tokens the key is expected to spend before a new lease expires, between 1 and the
+     * configured maximum.
+     */
+    private long leaseSize(LocalBucket bucket, long now) {
+        long maxLeaseSize = Math.max(1, Math.min(config.getLeaseSize(), bucket.limit.getCapacity() / 10));
+        long expected = (long) Math.ceil(bucket.observeRate(now) * leaseTtlMillis());
+        return Math.max(1, Math.min(maxLeaseSize, expected));
+    }
+
+    private long leaseTtlMillis() {
+        return 2 * config.getSyncInterval().toMillis();
+    }
+
+    /**
+     * Locally leased tokens for one client key.
+     */
+    private static final class LocalBucket {
+
+        private final GatewayConfigProperties.Limit limit;
+        private final AtomicLong allowance = new AtomicLong();
+        private final AtomicReference<Mono<Long>> inFlight = new AtomicReference<>();
+        private final AtomicLong requestsSinceClaim = new AtomicLong();
+
+        // Smoothed request rate in requests per millisecond, sampled at each claim
+        private volatile double rate;
+        private volatile long lastClaimAt;
+        private volatile long leaseSize;
+
+        private volatile long leaseExpiresAt;
+        private volatile long remoteRemaining;
+        private volatile long resetMillis;
+        private volatile long lastUsed;
+
+        private LocalBucket(GatewayConfigProperties.Limit limit) {
+            this.limit = limit;
+        }
+
+        /**
+         * Fold the requests seen since the previous claim into the rate estimate. Only called
+         * by the single in-flight claim, so updates never interleave.
+         */
+        private double observeRate(long now) {
+            long requests = requestsSinceClaim.getAndSet(0);
+            long previousClaimAt = lastClaimAt;
+            lastClaimAt = now;
+            if (previousClaimAt == 0) {
+                return 0;
+            }
+            double sample = (double) requests / Math.max(1, now - previousClaimAt);
+            rate = rate == 0 ? sample : (rate + sample) / 2;
+            return rate;
+        }
+
+        /**
+         * Only multi-token leases are topped up ahead of need; prefetching a single-token
+         * lease would claim a token per request that mostly expires unspent.
+         */
+        private boolean isRunningLow() {
+            return leaseSize > 1 && allowance.get() <= leaseSize / 2;
+        }
+
+        private boolean tryTake(long now) {
+            if (now > leaseExpiresAt) {
+                return false;
+            }
+            long current;
+            do {
+                current = allowance.get();
+                if (current <= 0) {
+                    return false;
+                }
+            } while (!allowance.compareAndSet(current, current - 1));
+            return true;
+        }
+
+        private void grant(List<Long> result, long requested, long now, long expiresAt) {
+            long granted = result.get(0);
+            leaseSize = requested;
+            if (now > leaseExpiresAt) {
+                // Tokens left from an expired lease must not be spent
+                allowance.set(granted);
+            } else {
+                allowance.addAndGet(granted);
+            }
+            remoteRemaining = result.get(1);
+            resetMillis = result.get(2);
+            leaseExpiresAt = expiresAt;
+        }
+
+        private RateLimitDecision decision(boolean allowed) {
+            return RateLimitDecision.builder()
+                    .allowed(allowed)
+                    .limit(limit.getCapacity())
+                    .remaining(remoteRemaining + Math.max(0, allowance.get()))
+                    .resetMillis(allowed ? 0 : Math.max(resetMillis, 1))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.marketplace.gateway.service;
+
+import com.marketplace.gateway.config.GatewayConfigProperties;
+import com.marketplace.gateway.dto.RateLimitDecision;
+import reactor.core.publisher.Mono;
+
+/**
+ * Decides whether a request identified by a client key may proceed under a limit.
+ */
+public interface RateLimiter {
+
+    Mono<RateLimitDecision> tryAcquire(String key, GatewayConfigProperties.Limit limit);
+}
@@ -0,0 +1,61 @@
+package com.marketplace.gateway.service;
+
+import com.marketplace.gateway.config.GatewayConfigProperties;
+import com.marketplace.gateway.dto.RateLimitDecision;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Token bucket rate limiter backed by a Redis Lua script.
+ * <p>
+ * Refill, decision, decrement, remaining tokens and reset time come back from one
+ * {@code EVALSHA} (the template falls back to {@code EVAL} once if the script isn't loaded yet).
+ */
+@Slf4j
+@Service
+public class RedisTokenBucketRateLimiter implements RateLimiter {
+
+    private static final RedisScript<List> TOKEN_BUCKET_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/token_bucket.lua"), List.class);
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+
+    public RedisTokenBucketRateLimiter(ReactiveRedisTemplate<String, String> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public Mono<RateLimitDecision> tryAcquire(String key, GatewayConfigProperties.Limit limit) {
+        return acquire(key, limit, 1, false)
+                .map(result -> RateLimitDecision.builder()
+                        .allowed(result.get(0) > 0)
+                        .limit(limit.getCapacity())
+                        .remaining(result.get(1))
+                        .resetMillis(result.get(2))
+                        .build());
+    }
+
+    /**
+     * Take {@code tokens} from the bucket in one script call. With {@code partial}, as many
+     * whole tokens as are available are granted when the bucket holds fewer than requested.
+     *
+     * @return {@code [granted, remaining, resetMillis]}
+     */
+    @SuppressWarnings("unchecked")
+    Mono<List<Long>> acquire(String key, GatewayConfigProperties.Limit limit, long tokens, boolean partial) {
+        List<String> args = List.of(
+                String.valueOf(limit.getCapacity()),
+                String.valueOf(limit.getRefillPerSecond()),
+                String.valueOf(tokens),
+                partial ? "1" : "0");
+        return redisTemplate.execute(TOKEN_BUCKET_SCRIPT, List.of(key), args)
+                .next()
+                .map(result -> (List<Long>) result);
+    }
+}
@@ -0,0 +1,235 @@
+package com.marketplace.gateway.service;
+
+import com.marketplace.gateway.config.GatewayConfigProperties;
+import com.marketplace.gateway.constant.GatewayConstants;
+import com.marketplace.gateway.util.BloomFilter;
+import com.marketplace.gateway.util.TokenDigest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local Bloom filter of blacklisted token digests, kept in front of the Redis blacklist.
+ * <p>
+ * Seeded from the {@code blacklist:token:*} keyspace at startup and kept current through
+ * Redis pub/sub when any node blacklists a token. A negative answer is exact, so only
+ * filter hits need the authoritative Redis lookup. Until the first seed completes, or
+ * while the pub/sub subscription is down, every lookup reports a possible hit and falls
+ * through to Redis.
+ * <p>
+ * Bloom filters can't delete, so the filter is rebuilt from the keyspace on a fixed
+ * interval to drop tokens whose blacklist entries have expired.
+ */
+@Slf4j
+@Service
+public class TokenBlacklistBloomFilter {
+
+    private static final String METRIC_PREFIX = "gateway.blacklist.filter";
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final GatewayConfigProperties.BlacklistFilter config;
+
+    private final Counter negativeLookups;
+    private final Counter positiveLookups;
+    private final Counter falsePositives;
+
+    private volatile BloomFilter current;
+    // Receives events while a rebuild is in progress so they aren't lost on swap
+    private volatile BloomFilter pending;
+    private volatile boolean ready;
+    // Rebuilds requested and not yet served; non-zero while a rebuild is running
+    private final AtomicInteger rebuildRequests = new AtomicInteger();
+
+    private Disposable subscription;
+    private Disposable rebuildSchedule;
+
+    public TokenBlacklistBloomFilter(ReactiveRedisTemplate<String, String> redisTemplate,
+                                     GatewayConfigProperties properties,
+                                     MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.config = properties.getBlacklistFilter();
+        this.current = newFilter();
+
+        this.negativeLookups = Counter.builder(METRIC_PREFIX + ".lookups")
+                .tag("result", "negative")
+                .description("Blacklist lookups answered locally without Redis")
+                .register(meterRegistry);
+        this.positiveLookups = Counter.builder(METRIC_PREFIX + ".lookups")
+                .tag("result", "positive")
+                .description("Blacklist lookups that fell through to Redis")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder(METRIC_PREFIX + ".false.positives")
+                .description("Filter hits that Redis reported as not blacklisted")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".size", this, f -> f.current.insertions())
+                .description("Token digests currently held in the filter")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".bits", this, f -> f.current.bitSize())
+                .description("Size of the filter bit array")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".expected.fpp", this, f -> f.current.expectedFalsePositiveRate())
+                .description("False-positive probability implied by the current fill ratio")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".observed.fpp", this, TokenBlacklistBloomFilter::observedFalsePositiveRate)
+                .description("Share of non-blacklisted tokens that the filter reported as possible hits")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Subscribe to blacklist events and seed the filter once the application is ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!config.isEnabled()) {
+            log.info("Blacklist Bloom filter disabled, every lookup goes to Redis");
+            return;
+        }
+
+        // Seed only once the subscription is confirmed, so no event can fall between the scan and SUBSCRIBE
+        subscription = redisTemplate.listenToChannelLater(config.getChannel())
+                .flatMapMany(messages -> {
+                    rebuild().subscribe();
+                    return messages;
+                })
+                .doOnNext(message -> addLocal(HexFormat.of().parseHex(message.getMessage())))
+                .doOnError(e -> {
+                    // Events may be missed while disconnected, so stop trusting negatives until reseeded
+                    ready = false;
+                    log.error("Blacklist event subscription failed, falling back to Redis: {}", e.getMessage());
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+                .subscribe();
+
+        rebuildSchedule = Flux.interval(config.getRebuildInterval(), config.getRebuildInterval())
+                .concatMap(tick -> rebuild())
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+        if (rebuildSchedule != null) {
+            rebuildSchedule.dispose();
+        }
+    }
+
+    /**
+     * Check whether the token may be blacklisted; {@code false} means it definitely isn't
+     */
+    public boolean mightContain(String token) {
+        if (!config.isEnabled() || !ready) {
+            return true;
+        }
+        boolean hit = current.mightContain(TokenDigest.sha256(token));
+        (hit ? positiveLookups : negativeLookups).increment();
+        return hit;
+    }
+
+    /**
+     * Record a filter hit that the authoritative Redis check rejected
+     */
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    /**
+     * Add a newly blacklisted token locally and announce it to the other gateway nodes
+     */
+    public Mono<Void> add(String token) {
+        if (!config.isEnabled()) {
+            return Mono.empty();
+        }
+        byte[] digest = TokenDigest.sha256(token);
+        addLocal(digest);
+        return redisTemplate.convertAndSend(config.getChannel(), HexFormat.of().formatHex(digest))
+                .doOnError(e -> log.error("Error publishing blacklist event: {}", e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    /**
+     * Rebuild the filter from the blacklist keyspace and swap it in.
+     * <p>
+     * Rebuilds never overlap: a request made while one is running is folded into a single
+     * follow-up run, so there is only ever one pending filter to receive events.
+     */
+    Mono<Void> rebuild() {
+        return Mono.defer(() -> rebuildRequests.getAndIncrement() == 0 ? drainRebuilds(1) : Mono.empty());
+    }
+
+    private Mono<Void> drainRebuilds(int requests) {
+        return rebuildOnce(requests).then(Mono.defer(() -> {
+            int remaining = rebuildRequests.addAndGet(-requests);
+            return remaining == 0 ? Mono.<Void>empty() : drainRebuilds(remaining);
+        }));
+    }
+
+    private Mono<Void> rebuildOnce(int requests) {
+        BloomFilter next = newFilter();
+        pending = next;
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(GatewayConstants.Redis.BLACKLIST_PREFIX + "*")
+                .count(1000)
+                .build();
+
+        return redisTemplate.scan(options)
+                .doOnNext(key -> next.put(TokenDigest.sha256(key.substring(GatewayConstants.Redis.BLACKLIST_PREFIX.length()))))
+                .then(Mono.fromRunnable(() -> {
+                    current = next;
+                    pending = null;
+                    // A request that arrived during this run (e.g. a resubscription) may need the rerun to be complete
+                    if (rebuildRequests.get() == requests) {
+                        ready = true;
+                    }
+                    log.info("Blacklist Bloom filter rebuilt with {} tokens", next.insertions());
+                }))
+                .onErrorResume(e -> {
+                    pending = null;
+                    log.error("Error rebuilding blacklist Bloom filter, keeping previous state: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    boolean isReady() {
+        return ready;
+    }
+
+    private void addLocal(byte[] digest) {
+        // Pending first: if a swap lands in between, the pending filter is current by the write
+        // below. A rebuild starting after this read finds the token in its scan, because the
+        // blacklist key is set in Redis before the token is added or announced.
+        BloomFilter rebuilding = pending;
+        if (rebuilding != null) {
+            rebuilding.put(digest);
+        }
+        current.put(digest);
+    }
+
+    BloomFilter newFilter() {
+        return new BloomFilter(config.getExpectedInsertions(), config.getFalsePositiveRate());
+    }
+
+    private double observedFalsePositiveRate() {
+        // FP / (FP + TN): true negatives are the lookups the filter answered locally
+        double negatives = falsePositives.count() + negativeLookups.count();
+        return negatives == 0 ? 0 : falsePositives.count() / negatives;
+    }
+}
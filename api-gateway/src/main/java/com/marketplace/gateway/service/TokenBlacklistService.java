@@ -1,6 +1,8 @@
 package com.marketplace.gateway.service;
 
 import com.marketplace.common.util.JwtUtil;
+import com.marketplace.gateway.constant.GatewayConstants;
+import io.jsonwebtoken.ExpiredJwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
@@ -17,15 +19,19 @@ public class TokenBlacklistService {
 
     private final ReactiveRedisTemplate<String, String> redisTemplate;
     private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenBlacklistBloomFilter blacklistBloomFilter;
 
-    private static final String BLACKLIST_PREFIX = "blacklist:token:";
+    private static final String BLACKLIST_PREFIX = GatewayConstants.Redis.BLACKLIST_PREFIX;
 
     /**
      * Blacklists a token until its expiration.
      */
     public Mono<Boolean> blacklistToken(String token) {
+        // Drop locally cached claims first so logout takes effect on this node immediately
+        verifiedTokenCache.invalidate(token);
         try {
-            Date expiration = jwtUtil.extractExpiration(token);
+            Date expiration = jwtUtil.parseVerified(token).getExpiration();
             long ttlMillis = expiration.getTime() - System.currentTimeMillis();
 
             if (ttlMillis <= 0) {
@@ -36,8 +42,14 @@ public class TokenBlacklistService {
             String key = BLACKLIST_PREFIX + token;
             return redisTemplate.opsForValue()
                     .set(key, "blacklisted", Duration.ofMillis(ttlMillis))
+                    .flatMap(success -> success
+                            ? blacklistBloomFilter.add(token).thenReturn(true)
+                            : Mono.just(false))
                     .doOnSuccess(success -> log.debug("Token blacklisted successfully: {}", success))
                     .doOnError(e -> log.error("Error blacklisting token: {}", e.getMessage()));
+        } catch (ExpiredJwtException e) {
+            log.debug("Token already expired, no need to blacklist");
+            return Mono.just(true);
         } catch (Exception e) {
             log.error("Error calculating token expiration for blacklist: {}", e.getMessage());
             return Mono.just(false);
@@ -46,10 +58,19 @@ public class TokenBlacklistService {
 
     /**
      * Checks if a token is blacklisted.
+     * Only tokens the local Bloom filter can't rule out are checked against Redis.
      */
     public Mono<Boolean> isBlacklisted(String token) {
+        if (!blacklistBloomFilter.mightContain(token)) {
+            return Mono.just(false);
+        }
         String key = BLACKLIST_PREFIX + token;
-        return redisTemplate.hasKey(key);
+        return redisTemplate.hasKey(key)
+                .doOnNext(blacklisted -> {
+                    if (!blacklisted) {
+                        blacklistBloomFilter.recordFalsePositive();
+                    }
+                });
     }
 }
 
@@ -0,0 +1,90 @@
+package com.marketplace.gateway.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.marketplace.common.dto.JwtClaims;
+import com.marketplace.common.util.JwtUtil;
+import com.marketplace.gateway.config.GatewayConfigProperties;
+import com.marketplace.gateway.util.TokenDigest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded in-process cache of verified JWT claims keyed by the token digest.
+ * <p>
+ * Entries expire at the token's {@code exp} claim and are evicted by Caffeine's
+ * W-TinyLFU policy once the cache is full. Only successfully verified tokens are
+ * cached; malformed or expired tokens always go through {@link JwtUtil#parseVerified}.
+ */
+@Slf4j
+@Service
+public class VerifiedTokenCache {
+
+    static final String CACHE_NAME = "gateway.verified-tokens";
+
+    private final JwtUtil jwtUtil;
+    private final boolean enabled;
+    private final Cache<String, JwtClaims> cache;
+
+    public VerifiedTokenCache(JwtUtil jwtUtil, GatewayConfigProperties properties, MeterRegistry meterRegistry) {
+        this.jwtUtil = jwtUtil;
+        this.enabled = properties.getTokenCache().isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getTokenCache().getMaximumSize())
+                .expireAfter(new ExpireAtTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Return the verified claims for the token, verifying it only on a cache miss.
+     *
+     * @throws io.jsonwebtoken.ExpiredJwtException if the token has expired
+     * @throws io.jsonwebtoken.JwtException        if the token is malformed or the signature is invalid
+     */
+    public JwtClaims getOrVerify(String token) {
+        if (!enabled) {
+            return jwtUtil.parseVerified(token);
+        }
+        return cache.get(TokenDigest.hex(token), digest -> jwtUtil.parseVerified(token));
+    }
+
+    /**
+     * Drop the cached claims for the token so the next request re-verifies it
+     */
+    public void invalidate(String token) {
+        cache.invalidate(TokenDigest.hex(token));
+        log.debug("Verified token cache entry invalidated");
+    }
+
+    /**
+     * Expire each entry when the token itself expires
+     */
+    private static class ExpireAtTokenExpiry implements Expiry<String, JwtClaims> {
+
+        @Override
+        public long expireAfterCreate(String key, JwtClaims claims, long currentTime) {
+            if (claims.getExpiration() == null) {
+                return 0;
+            }
+            long ttlMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, ttlMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, JwtClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, JwtClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
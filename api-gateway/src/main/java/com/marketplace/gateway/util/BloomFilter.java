@@ -0,0 +1,107 @@
+package com.marketplace.gateway.util;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Bloom filter over SHA-256 token digests.
+ * <p>
+ * The digest is already uniformly distributed, so the two base hashes for double hashing
+ * are read straight from its first 16 bytes instead of re-hashing the input.
+ * Supports concurrent {@link #put} and {@link #mightContain}; elements can't be removed,
+ * so callers rebuild the filter periodically to drop expired entries.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitSize;
+    private final int numHashFunctions;
+    private final AtomicLong bitCount = new AtomicLong();
+    private final AtomicLong insertions = new AtomicLong();
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.max(1, (m + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitSize = (long) words * 64;
+        this.numHashFunctions = Math.max(1, (int) Math.round((double) bitSize / n * Math.log(2)));
+    }
+
+    /**
+     * Add a digest to the filter
+     */
+    public void put(byte[] digest) {
+        long h1 = hash1(digest);
+        long h2 = hash2(digest);
+        for (int i = 0; i < numHashFunctions; i++) {
+            if (setBit(index(h1, h2, i))) {
+                bitCount.incrementAndGet();
+            }
+        }
+        insertions.incrementAndGet();
+    }
+
+    /**
+     * Check whether a digest may have been added; {@code false} is always exact
+     */
+    public boolean mightContain(byte[] digest) {
+        long h1 = hash1(digest);
+        long h2 = hash2(digest);
+        for (int i = 0; i < numHashFunctions; i++) {
+            long index = index(h1, h2, i);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Number of digests added so far (including duplicates)
+     */
+    public long insertions() {
+        return insertions.get();
+    }
+
+    /**
+     * Size of the bit array
+     */
+    public long bitSize() {
+        return bitSize;
+    }
+
+    /**
+     * False-positive probability implied by the current fill ratio
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow((double) bitCount.get() / bitSize, numHashFunctions);
+    }
+
+    private boolean setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & mask) != 0) {
+                return false;
+            }
+        } while (!bits.compareAndSet(word, current, current | mask));
+        return true;
+    }
+
+    private long index(long h1, long h2, int i) {
+        return ((h1 + i * h2) & Long.MAX_VALUE) % bitSize;
+    }
+
+    private static long hash1(byte[] digest) {
+        return ByteBuffer.wrap(digest, 0, 8).getLong();
+    }
+
+    private static long hash2(byte[] digest) {
+        // Keep the step odd so successive probes never collapse onto the same index
+        return ByteBuffer.wrap(digest, 8, 8).getLong() | 1L;
+    }
+}
@@ -0,0 +1,35 @@
+package com.marketplace.gateway.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 digest of a raw JWT, used as a fixed-size token id in local caches
+ * so raw tokens are never kept as map keys.
+ */
+public final class TokenDigest {
+
+    private TokenDigest() {
+    }
+
+    /**
+     * Compute the SHA-256 digest of the token
+     */
+    public static byte[] sha256(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            // Every JRE is required to ship SHA-256
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Compute the hex-encoded SHA-256 digest of the token
+     */
+    public static String hex(String token) {
+        return HexFormat.of().formatHex(sha256(token));
+    }
+}
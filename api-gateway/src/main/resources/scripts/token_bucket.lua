@@ -0,0 +1,51 @@
+-- Token bucket rate limiter: refill, decide, decrement and report in one atomic call.
+--
+-- KEYS[1]  bucket hash key
+-- ARGV[1]  bucket capacity (max burst)
+-- ARGV[2]  refill rate in tokens per second
+-- ARGV[3]  tokens requested
+-- ARGV[4]  '1' to grant as many whole tokens as are available when fewer than requested
+--
+-- Returns { granted, remaining, reset_millis }
+--   granted       tokens taken (0 when the request is rejected)
+--   remaining     whole tokens left after this call
+--   reset_millis  milliseconds until at least one token is available again
+
+local key = KEYS[1]
+local capacity = tonumber(ARGV[1])
+local rate = tonumber(ARGV[2])
+local requested = tonumber(ARGV[3])
+local partial = ARGV[4] == '1'
+
+-- Use the Redis clock so every gateway node sees the same time
+local clock = redis.call('TIME')
+local now = tonumber(clock[1]) * 1000 + math.floor(tonumber(clock[2]) / 1000)
+
+local bucket = redis.call('HMGET', key, 'tokens', 'ts')
+local tokens = tonumber(bucket[1])
+local ts = tonumber(bucket[2])
+if tokens == nil or ts == nil then
+    tokens = capacity
+    ts = now
+end
+
+tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate / 1000)
+
+local granted = 0
+if tokens >= requested then
+    granted = requested
+elseif partial and tokens >= 1 then
+    granted = math.floor(tokens)
+end
+tokens = tokens - granted
+
+redis.call('HSET', key, 'tokens', tostring(tokens), 'ts', tostring(now))
+-- Once the bucket would be full again the key carries no state, so let it expire
+redis.call('PEXPIRE', key, math.max(1, math.ceil((capacity - tokens) * 1000 / rate)))
+
+local reset = 0
+if tokens < 1 then
+    reset = math.ceil((1 - tokens) * 1000 / rate)
+end
+
+return { granted, math.floor(tokens), reset }
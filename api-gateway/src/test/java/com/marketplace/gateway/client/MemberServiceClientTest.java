@@ -0,0 +1,100 @@
+package com.marketplace.gateway.client;
+
+import com.marketplace.common.dto.UserDetailsResponse;
+import com.marketplace.common.dto.ValidateCredentialsRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MemberServiceClientTest {
+
+    private final AtomicReference<ClientRequest> lastRequest = new AtomicReference<>();
+    private final AtomicReference<ClientResponse> nextResponse = new AtomicReference<>();
+
+    private MemberServiceClient memberServiceClient;
+
+    @BeforeEach
+    void setUp() {
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://member-service")
+                .exchangeFunction(request -> {
+                    lastRequest.set(request);
+                    return Mono.just(nextResponse.get());
+                })
+                .build();
+        memberServiceClient = new MemberServiceClient(webClient);
+    }
+
+    @Test
+    void validateCredentials_ValidResponse_DeserializesUserDetails() {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+        nextResponse.set(jsonResponse(HttpStatus.OK, """
+                {"success":true,"message":"ok","data":{"id":"%s","email":"user@example.com",
+                "fullName":"Test User","roles":["ROLE_USER"]}}
+                """.formatted(userId)));
+
+        // Act & Assert
+        StepVerifier.create(memberServiceClient.validateCredentials(request()))
+                .expectNext(UserDetailsResponse.builder()
+                        .id(userId)
+                        .email("user@example.com")
+                        .fullName("Test User")
+                        .roles(List.of("ROLE_USER"))
+                        .build())
+                .verifyComplete();
+        assertEquals("http://member-service/api/member/validate-credentials",
+                lastRequest.get().url().toString());
+    }
+
+    @Test
+    void validateCredentials_NoData_Errors() {
+        // Arrange
+        nextResponse.set(jsonResponse(HttpStatus.OK, "{\"success\":true,\"message\":\"ok\"}"));
+
+        // Act & Assert
+        StepVerifier.create(memberServiceClient.validateCredentials(request()))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    @Test
+    void validateCredentials_Unauthorized_Errors() {
+        // Arrange
+        nextResponse.set(jsonResponse(HttpStatus.UNAUTHORIZED,
+                "{\"success\":false,\"message\":\"Invalid credentials\"}"));
+
+        // Act & Assert
+        StepVerifier.create(memberServiceClient.validateCredentials(request()))
+                .expectError(WebClientResponseException.Unauthorized.class)
+                .verify();
+    }
+
+    private ValidateCredentialsRequest request() {
+        return ValidateCredentialsRequest.builder()
+                .email("user@example.com")
+                .password("Password123!")
+                .build();
+    }
+
+    private ClientResponse jsonResponse(HttpStatus status, String body) {
+        return ClientResponse.create(status)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build();
+    }
+}
@@ -1,7 +1,8 @@
 package com.marketplace.gateway.filter;
 
-import com.marketplace.common.util.JwtUtil;
+import com.marketplace.common.dto.JwtClaims;
 import com.marketplace.gateway.service.TokenBlacklistService;
+import com.marketplace.gateway.service.VerifiedTokenCache;
 import com.marketplace.gateway.util.CookieUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -25,7 +26,7 @@ import static org.mockito.Mockito.*;
 class AuthFilterTest {
 
     @Mock
-    private JwtUtil jwtUtil;
+    private VerifiedTokenCache verifiedTokenCache;
 
     @Mock
     private CookieUtil cookieUtil;
@@ -42,7 +43,7 @@ class AuthFilterTest {
 
     @BeforeEach
     void setUp() {
-        authFilter = new AuthFilter(jwtUtil, cookieUtil, tokenBlacklistService);
+        authFilter = new AuthFilter(verifiedTokenCache, cookieUtil, tokenBlacklistService);
     }
 
     @Test
@@ -62,7 +63,7 @@ class AuthFilterTest {
 
         verify(chain).filter(exchange);
         verify(tokenBlacklistService, never()).isBlacklisted(anyString());
-        verify(jwtUtil, never()).validateToken(anyString());
+        verify(verifiedTokenCache, never()).getOrVerify(anyString());
     }
 
     @Test
@@ -151,9 +152,10 @@ class AuthFilterTest {
 
         when(cookieUtil.getAuthCookieName()).thenReturn(AUTH_COOKIE_NAME);
         when(tokenBlacklistService.isBlacklisted(validToken)).thenReturn(Mono.just(false));
-        when(jwtUtil.validateToken(validToken)).thenReturn(true);
-        when(jwtUtil.extractUserId(validToken)).thenReturn(java.util.UUID.randomUUID());
-        when(jwtUtil.extractEmail(validToken)).thenReturn("test@example.com");
+        when(verifiedTokenCache.getOrVerify(validToken)).thenReturn(JwtClaims.builder()
+                .userId(java.util.UUID.randomUUID())
+                .email("test@example.com")
+                .build());
         when(chain.filter(any(org.springframework.web.server.ServerWebExchange.class))).thenReturn(Mono.empty());
 
         // Act
@@ -163,7 +165,7 @@ class AuthFilterTest {
         StepVerifier.create(result).verifyComplete();
 
         verify(tokenBlacklistService).isBlacklisted(validToken);
-        verify(jwtUtil).validateToken(validToken);
+        verify(verifiedTokenCache).getOrVerify(validToken);
         verify(chain).filter(any(org.springframework.web.server.ServerWebExchange.class));
     }
 
@@ -187,7 +189,7 @@ class AuthFilterTest {
 
         assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
         verify(tokenBlacklistService).isBlacklisted(blacklistedToken);
-        verify(jwtUtil, never()).validateToken(anyString());
+        verify(verifiedTokenCache, never()).getOrVerify(anyString());
         verify(chain, never()).filter(any());
     }
 
@@ -202,7 +204,7 @@ class AuthFilterTest {
 
         when(cookieUtil.getAuthCookieName()).thenReturn(AUTH_COOKIE_NAME);
         when(tokenBlacklistService.isBlacklisted(invalidToken)).thenReturn(Mono.just(false));
-        when(jwtUtil.validateToken(invalidToken)).thenThrow(new RuntimeException("Invalid token"));
+        when(verifiedTokenCache.getOrVerify(invalidToken)).thenThrow(new RuntimeException("Invalid token"));
 
         // Act
         Mono<Void> result = authFilter.filter(exchange, chain);
@@ -228,9 +230,10 @@ class AuthFilterTest {
 
         when(cookieUtil.getAuthCookieName()).thenReturn(AUTH_COOKIE_NAME);
         when(tokenBlacklistService.isBlacklisted(cookieToken)).thenReturn(Mono.just(false));
-        when(jwtUtil.validateToken(cookieToken)).thenReturn(true);
-        when(jwtUtil.extractUserId(cookieToken)).thenReturn(java.util.UUID.randomUUID());
-        when(jwtUtil.extractEmail(cookieToken)).thenReturn("test@example.com");
+        when(verifiedTokenCache.getOrVerify(cookieToken)).thenReturn(JwtClaims.builder()
+                .userId(java.util.UUID.randomUUID())
+                .email("test@example.com")
+                .build());
         when(chain.filter(any(org.springframework.web.server.ServerWebExchange.class))).thenReturn(Mono.empty());
 
         // Act
@@ -242,8 +245,8 @@ class AuthFilterTest {
         // Should use cookie token, not header token
         verify(tokenBlacklistService).isBlacklisted(cookieToken);
         verify(tokenBlacklistService, never()).isBlacklisted(headerToken);
-        verify(jwtUtil).validateToken(cookieToken);
-        verify(jwtUtil, never()).validateToken(headerToken);
+        verify(verifiedTokenCache).getOrVerify(cookieToken);
+        verify(verifiedTokenCache, never()).getOrVerify(headerToken);
         verify(chain).filter(any(org.springframework.web.server.ServerWebExchange.class));
     }
 
@@ -260,9 +263,10 @@ class AuthFilterTest {
 
         when(cookieUtil.getAuthCookieName()).thenReturn(AUTH_COOKIE_NAME);
         when(tokenBlacklistService.isBlacklisted(headerToken)).thenReturn(Mono.just(false));
-        when(jwtUtil.validateToken(headerToken)).thenReturn(true);
-        when(jwtUtil.extractUserId(headerToken)).thenReturn(java.util.UUID.randomUUID());
-        when(jwtUtil.extractEmail(headerToken)).thenReturn("test@example.com");
+        when(verifiedTokenCache.getOrVerify(headerToken)).thenReturn(JwtClaims.builder()
+                .userId(java.util.UUID.randomUUID())
+                .email("test@example.com")
+                .build());
         when(chain.filter(any(org.springframework.web.server.ServerWebExchange.class))).thenReturn(Mono.empty());
 
         // Act
@@ -273,7 +277,7 @@ class AuthFilterTest {
 
         // Should fall back to header token
         verify(tokenBlacklistService).isBlacklisted(headerToken);
-        verify(jwtUtil).validateToken(headerToken);
+        verify(verifiedTokenCache).getOrVerify(headerToken);
         verify(chain).filter(any(org.springframework.web.server.ServerWebExchange.class));
     }
 
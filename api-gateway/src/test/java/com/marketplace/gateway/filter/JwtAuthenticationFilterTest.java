@@ -1,9 +1,11 @@
 package com.marketplace.gateway.filter;
 
-import com.marketplace.common.util.JwtUtil;
+import com.marketplace.common.dto.JwtClaims;
 import com.marketplace.gateway.exception.InvalidTokenException;
+import com.marketplace.gateway.service.VerifiedTokenCache;
 import com.marketplace.gateway.util.CookieUtil;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.MalformedJwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -32,7 +34,7 @@ import static org.mockito.Mockito.never;
 class JwtAuthenticationFilterTest {
 
     @Mock
-    private JwtUtil jwtUtil;
+    private VerifiedTokenCache verifiedTokenCache;
 
     @Mock
     private CookieUtil cookieUtil;
@@ -44,7 +46,7 @@ class JwtAuthenticationFilterTest {
 
     @BeforeEach
     void setUp() {
-        JwtAuthenticationFilter jwtAuthenticationFilter = new JwtAuthenticationFilter(jwtUtil, cookieUtil);
+        JwtAuthenticationFilter jwtAuthenticationFilter = new JwtAuthenticationFilter(verifiedTokenCache, cookieUtil);
         gatewayFilter = jwtAuthenticationFilter.apply(new JwtAuthenticationFilter.Config());
     }
 
@@ -59,17 +61,16 @@ class JwtAuthenticationFilterTest {
                 .build();
         MockServerWebExchange exchange = MockServerWebExchange.from(request);
 
-        when(jwtUtil.validateToken(validToken)).thenReturn(true);
-        when(jwtUtil.extractUserId(validToken)).thenReturn(userId);
-        when(jwtUtil.extractEmail(validToken)).thenReturn(email);
+        when(verifiedTokenCache.getOrVerify(validToken)).thenReturn(JwtClaims.builder()
+                .userId(userId)
+                .email(email)
+                .build());
         when(chain.filter(any(ServerWebExchange.class))).thenReturn(Mono.empty());
 
         StepVerifier.create(gatewayFilter.filter(exchange, chain))
                 .verifyComplete();
 
-        verify(jwtUtil).validateToken(validToken);
-        verify(jwtUtil).extractUserId(validToken);
-        verify(jwtUtil).extractEmail(validToken);
+        verify(verifiedTokenCache).getOrVerify(validToken);
         verify(chain).filter(any(ServerWebExchange.class));
     }
 
@@ -86,15 +87,16 @@ class JwtAuthenticationFilterTest {
         MockServerWebExchange exchange = MockServerWebExchange.from(request);
 
         when(cookieUtil.getAuthCookieName()).thenReturn(cookieName);
-        when(jwtUtil.validateToken(validToken)).thenReturn(true);
-        when(jwtUtil.extractUserId(validToken)).thenReturn(userId);
-        when(jwtUtil.extractEmail(validToken)).thenReturn(email);
+        when(verifiedTokenCache.getOrVerify(validToken)).thenReturn(JwtClaims.builder()
+                .userId(userId)
+                .email(email)
+                .build());
         when(chain.filter(any(ServerWebExchange.class))).thenReturn(Mono.empty());
 
         StepVerifier.create(gatewayFilter.filter(exchange, chain))
                 .verifyComplete();
 
-        verify(jwtUtil).validateToken(validToken);
+        verify(verifiedTokenCache).getOrVerify(validToken);
     }
 
     @Test
@@ -112,16 +114,17 @@ class JwtAuthenticationFilterTest {
         MockServerWebExchange exchange = MockServerWebExchange.from(request);
 
         when(cookieUtil.getAuthCookieName()).thenReturn(cookieName);
-        when(jwtUtil.validateToken(cookieToken)).thenReturn(true);
-        when(jwtUtil.extractUserId(cookieToken)).thenReturn(userId);
-        when(jwtUtil.extractEmail(cookieToken)).thenReturn(email);
+        when(verifiedTokenCache.getOrVerify(cookieToken)).thenReturn(JwtClaims.builder()
+                .userId(userId)
+                .email(email)
+                .build());
         when(chain.filter(any(ServerWebExchange.class))).thenReturn(Mono.empty());
 
         StepVerifier.create(gatewayFilter.filter(exchange, chain))
                 .verifyComplete();
 
-        verify(jwtUtil).validateToken(cookieToken); // Should use cookie token
-        verify(jwtUtil, never()).validateToken(headerToken); // Should not use header token
+        verify(verifiedTokenCache).getOrVerify(cookieToken); // Should use cookie token
+        verify(verifiedTokenCache, never()).getOrVerify(headerToken); // Should not use header token
     }
 
     @Test
@@ -147,7 +150,7 @@ class JwtAuthenticationFilterTest {
                 .build();
         MockServerWebExchange exchange = MockServerWebExchange.from(request);
 
-        when(jwtUtil.validateToken(invalidToken)).thenReturn(false);
+        when(verifiedTokenCache.getOrVerify(invalidToken)).thenThrow(new MalformedJwtException("Invalid token"));
 
         assertThrows(InvalidTokenException.class, () -> {
             gatewayFilter.filter(exchange, chain).block();
@@ -165,7 +168,7 @@ class JwtAuthenticationFilterTest {
                 .build();
         MockServerWebExchange exchange = MockServerWebExchange.from(request);
 
-        when(jwtUtil.validateToken(expiredToken)).thenThrow(new ExpiredJwtException(null, null, "Token expired"));
+        when(verifiedTokenCache.getOrVerify(expiredToken)).thenThrow(new ExpiredJwtException(null, null, "Token expired"));
 
         assertThrows(InvalidTokenException.class, () -> {
             gatewayFilter.filter(exchange, chain).block();
@@ -202,15 +205,16 @@ class JwtAuthenticationFilterTest {
         MockServerWebExchange exchange = MockServerWebExchange.from(request);
 
         when(cookieUtil.getAuthCookieName()).thenReturn(cookieName);
-        when(jwtUtil.validateToken(validToken)).thenReturn(true);
-        when(jwtUtil.extractUserId(validToken)).thenReturn(userId);
-        when(jwtUtil.extractEmail(validToken)).thenReturn(email);
+        when(verifiedTokenCache.getOrVerify(validToken)).thenReturn(JwtClaims.builder()
+                .userId(userId)
+                .email(email)
+                .build());
         when(chain.filter(any(ServerWebExchange.class))).thenReturn(Mono.empty());
 
         StepVerifier.create(gatewayFilter.filter(exchange, chain))
                 .verifyComplete();
 
-        verify(jwtUtil).validateToken(validToken);
+        verify(verifiedTokenCache).getOrVerify(validToken);
     }
 
     @Test
@@ -224,9 +228,10 @@ class JwtAuthenticationFilterTest {
                 .build();
         MockServerWebExchange exchange = MockServerWebExchange.from(request);
 
-        when(jwtUtil.validateToken(validToken)).thenReturn(true);
-        when(jwtUtil.extractUserId(validToken)).thenReturn(userId);
-        when(jwtUtil.extractEmail(validToken)).thenReturn(email);
+        when(verifiedTokenCache.getOrVerify(validToken)).thenReturn(JwtClaims.builder()
+                .userId(userId)
+                .email(email)
+                .build());
         when(chain.filter(any(ServerWebExchange.class))).thenAnswer(invocation -> {
             ServerWebExchange modifiedExchange = invocation.getArgument(0);
             // Verify headers were added
@@ -250,7 +255,7 @@ class JwtAuthenticationFilterTest {
                 .build();
         MockServerWebExchange exchange = MockServerWebExchange.from(request);
 
-        when(jwtUtil.validateToken(badToken)).thenThrow(new RuntimeException("Malformed token"));
+        when(verifiedTokenCache.getOrVerify(badToken)).thenThrow(new RuntimeException("Malformed token"));
 
         assertThrows(InvalidTokenException.class, () -> {
             gatewayFilter.filter(exchange, chain).block();
@@ -0,0 +1,186 @@
+package com.marketplace.gateway.filter;
+
+import com.marketplace.common.dto.JwtClaims;
+import com.marketplace.gateway.config.GatewayConfigProperties;
+import com.marketplace.gateway.dto.RateLimitDecision;
+import com.marketplace.gateway.service.RateLimiter;
+import com.marketplace.gateway.service.VerifiedTokenCache;
+import com.marketplace.gateway.util.CookieUtil;
+import io.jsonwebtoken.MalformedJwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.net.URI;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitFilterTest {
+
+    @Mock
+    private RateLimiter rateLimiter;
+
+    @Mock
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Mock
+    private CookieUtil cookieUtil;
+
+    @Mock
+    private GatewayFilterChain chain;
+
+    private GatewayConfigProperties properties;
+    private RateLimitFilter rateLimitFilter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new GatewayConfigProperties();
+        properties.getRateLimit().setEnabled(true);
+        properties.getRateLimit().setRequestsPerMinute(100);
+        rateLimitFilter = new RateLimitFilter(rateLimiter, verifiedTokenCache, cookieUtil, properties);
+        lenient().when(cookieUtil.getAuthCookieName()).thenReturn("auth_token");
+    }
+
+    @Test
+    void filter_Disabled_SkipsRateLimiting() {
+        // Arrange
+        properties.getRateLimit().setEnabled(false);
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/product/1"));
+        when(chain.filter(exchange)).thenReturn(Mono.empty());
+
+        // Act
+        StepVerifier.create(rateLimitFilter.filter(exchange, chain)).verifyComplete();
+
+        // Assert
+        verify(rateLimiter, never()).tryAcquire(anyString(), any());
+    }
+
+    @Test
+    void filter_AnonymousWithinLimit_KeysByRouteAndIp() {
+        // Arrange
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/product/1")
+                .header("X-Forwarded-For", "10.0.0.1, 10.0.0.2"));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route("product-service"));
+        when(rateLimiter.tryAcquire(eq("rate_limit:product-service:ip:10.0.0.1"), any()))
+                .thenReturn(Mono.just(decision(true, 99)));
+        when(chain.filter(exchange)).thenReturn(Mono.empty());
+
+        // Act
+        StepVerifier.create(rateLimitFilter.filter(exchange, chain)).verifyComplete();
+
+        // Assert
+        verify(chain).filter(exchange);
+        assertEquals("99", exchange.getResponse().getHeaders().getFirst("X-Rate-Limit-Remaining"));
+        assertEquals("100", exchange.getResponse().getHeaders().getFirst("X-Rate-Limit-Limit"));
+    }
+
+    @Test
+    void filter_AuthenticatedUser_KeysByUserIdAndRouteLimit() {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+        GatewayConfigProperties.Limit cartLimit = new GatewayConfigProperties.Limit();
+        cartLimit.setCapacity(10);
+        cartLimit.setRefillPerSecond(0.5);
+        properties.getRateLimit().getRoutes().put("cart-service", cartLimit);
+
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/cart")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer valid.jwt.token"));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route("cart-service"));
+        when(verifiedTokenCache.getOrVerify("valid.jwt.token"))
+                .thenReturn(JwtClaims.builder().userId(userId).email("test@example.com").build());
+        when(rateLimiter.tryAcquire("rate_limit:cart-service:user:" + userId, cartLimit))
+                .thenReturn(Mono.just(decision(true, 9)));
+        when(chain.filter(exchange)).thenReturn(Mono.empty());
+
+        // Act
+        StepVerifier.create(rateLimitFilter.filter(exchange, chain)).verifyComplete();
+
+        // Assert
+        verify(rateLimiter).tryAcquire("rate_limit:cart-service:user:" + userId, cartLimit);
+    }
+
+    @Test
+    void filter_InvalidToken_FallsBackToIp() {
+        // Arrange
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/cart")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer bad.token")
+                .header("X-Real-IP", "10.0.0.9"));
+        when(verifiedTokenCache.getOrVerify("bad.token")).thenThrow(new MalformedJwtException("Invalid token"));
+        when(rateLimiter.tryAcquire(eq("rate_limit:default:ip:10.0.0.9"), any()))
+                .thenReturn(Mono.just(decision(true, 50)));
+        when(chain.filter(exchange)).thenReturn(Mono.empty());
+
+        // Act
+        StepVerifier.create(rateLimitFilter.filter(exchange, chain)).verifyComplete();
+
+        // Assert
+        verify(chain).filter(exchange);
+    }
+
+    @Test
+    void filter_LimitExceeded_Returns429WithRetryAfter() {
+        // Arrange
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/product/1"));
+        RateLimitDecision rejected = RateLimitDecision.builder()
+                .allowed(false).limit(100).remaining(0).resetMillis(1500).build();
+        when(rateLimiter.tryAcquire(anyString(), any())).thenReturn(Mono.just(rejected));
+
+        // Act
+        StepVerifier.create(rateLimitFilter.filter(exchange, chain)).verifyComplete();
+
+        // Assert
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, exchange.getResponse().getStatusCode());
+        assertEquals("2", exchange.getResponse().getHeaders().getFirst("Retry-After"));
+        verify(chain, never()).filter(any());
+    }
+
+    @Test
+    void filter_LimiterError_AllowsRequest() {
+        // Arrange
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/product/1"));
+        when(rateLimiter.tryAcquire(anyString(), any()))
+                .thenReturn(Mono.error(new RuntimeException("Redis connection failed")));
+        when(chain.filter(exchange)).thenReturn(Mono.empty());
+
+        // Act
+        StepVerifier.create(rateLimitFilter.filter(exchange, chain)).verifyComplete();
+
+        // Assert
+        verify(chain).filter(exchange);
+        assertNull(exchange.getResponse().getStatusCode());
+    }
+
+    private Route route(String id) {
+        return Route.async()
+                .id(id)
+                .uri(URI.create("http://localhost"))
+                .predicate(exchange -> true)
+                .build();
+    }
+
+    private RateLimitDecision decision(boolean allowed, long remaining) {
+        return RateLimitDecision.builder()
+                .allowed(allowed)
+                .limit(properties.getRateLimit().getRequestsPerMinute())
+                .remaining(remaining)
+                .build();
+    }
+}
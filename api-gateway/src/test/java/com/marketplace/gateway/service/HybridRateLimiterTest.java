@@ -0,0 +1,302 @@
+package com.marketplace.gateway.service;
+
+import com.marketplace.gateway.config.GatewayConfigProperties;
+import com.marketplace.gateway.dto.RateLimitDecision;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HybridRateLimiterTest {
+
+    private static final String KEY = "rate_limit:test:ip:1";
+
+    @Mock
+    private RedisTokenBucketRateLimiter redisRateLimiter;
+
+    private GatewayConfigProperties properties;
+    private MeterRegistry meterRegistry;
+    private HybridRateLimiter rateLimiter;
+    private GatewayConfigProperties.Limit limit;
+    private MutableClock clock;
+
+    @BeforeEach
+    void setUp() {
+        properties = new GatewayConfigProperties();
+        properties.getRateLimit().getHybrid().setLeaseSize(5);
+        properties.getRateLimit().getHybrid().setSyncInterval(Duration.ofSeconds(10));
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock(1_000);
+        rateLimiter = new HybridRateLimiter(redisRateLimiter, properties, meterRegistry, clock);
+
+        limit = new GatewayConfigProperties.Limit();
+        limit.setCapacity(100);
+        limit.setRefillPerSecond(1);
+    }
+
+    @Test
+    void tryAcquire_ColdKey_ClaimsSingleTokenWithoutPrefetch() {
+        // Arrange
+        when(redisRateLimiter.acquire(KEY, limit, 1, true))
+                .thenReturn(Mono.just(List.of(1L, 99L, 0L)));
+
+        // Act & Assert
+        StepVerifier.create(rateLimiter.tryAcquire(KEY, limit))
+                .expectNextMatches(RateLimitDecision::isAllowed)
+                .verifyComplete();
+        verify(redisRateLimiter, times(1)).acquire(eq(KEY), any(), anyLong(), eq(true));
+    }
+
+    @Test
+    void tryAcquire_HotKey_AnswersLocallyFromLease() {
+        // Arrange
+        when(redisRateLimiter.acquire(KEY, limit, 1, true))
+                .thenReturn(Mono.just(List.of(1L, 99L, 0L)));
+        when(redisRateLimiter.acquire(KEY, limit, 5, true))
+                .thenReturn(Mono.just(List.of(5L, 94L, 0L)));
+
+        // Act - a second request a millisecond later makes the key hot
+        rateLimiter.tryAcquire(KEY, limit).block();
+        clock.advance(1);
+        rateLimiter.tryAcquire(KEY, limit).block();
+        StepVerifier.create(rateLimiter.tryAcquire(KEY, limit))
+                .expectNextMatches(RateLimitDecision::isAllowed)
+                .verifyComplete();
+
+        // Assert - the third request was served from the lease
+        verify(redisRateLimiter, times(2)).acquire(eq(KEY), any(), anyLong(), eq(true));
+        assertEquals(1.0, meterRegistry.get("gateway.ratelimit.decisions")
+                .tag("path", "local").counter().count());
+        assertEquals(2.0, meterRegistry.get("gateway.ratelimit.decisions")
+                .tag("path", "remote").tag("result", "allowed").counter().count());
+    }
+
+    @Test
+    void tryAcquire_LeaseRunningLow_TopsUpInBackground() {
+        // Arrange
+        when(redisRateLimiter.acquire(KEY, limit, 1, true))
+                .thenReturn(Mono.just(List.of(1L, 99L, 0L)));
+        when(redisRateLimiter.acquire(KEY, limit, 5, true))
+                .thenReturn(Mono.just(List.of(5L, 94L, 0L)));
+        rateLimiter.tryAcquire(KEY, limit).block();
+        clock.advance(1);
+
+        // Act - the second request claims a lease of 5, the fourth leaves 2, at the low watermark
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire(KEY, limit).block();
+        }
+
+        // Assert
+        verify(redisRateLimiter, times(2)).acquire(KEY, limit, 5, true);
+    }
+
+    @Test
+    void tryAcquire_RequestJoinsClaimBeingSized_SharesClaimWithoutDilutingRate() {
+        // Arrange - a 100 ms window after the first claim, 2 requests in it: lease = 0.02/ms * 200 ms
+        properties.getRateLimit().getHybrid().setSyncInterval(Duration.ofMillis(100));
+        properties.getRateLimit().getHybrid().setLeaseSize(20);
+        limit.setCapacity(1000);
+        when(redisRateLimiter.acquire(eq(KEY), eq(limit), anyLong(), eq(true)))
+                .thenAnswer(invocation -> Mono.just(List.of((Long) invocation.getArgument(2), 900L, 0L)));
+        rateLimiter.tryAcquire(KEY, limit).block();
+        clock.advance(100);
+
+        // The second request arrives while the first one's claim is reading the clock to size the lease
+        List<CompletableFuture<RateLimitDecision>> joined = new ArrayList<>();
+        clock.onRead(1, () -> joined.add(rateLimiter.tryAcquire(KEY, limit).toFuture()));
+
+        // Act
+        RateLimitDecision first = rateLimiter.tryAcquire(KEY, limit).block();
+
+        // Assert - one claim served both, sized from both requests
+        assertTrue(first.isAllowed());
+        assertTrue(joined.get(0).join().isAllowed());
+        verify(redisRateLimiter).acquire(KEY, limit, 4, true);
+        verify(redisRateLimiter, times(2)).acquire(eq(KEY), any(), anyLong(), eq(true));
+    }
+
+    @Test
+    void tryAcquire_ClientAtHalfRateOnTwoNodes_IsNeverRejected() {
+        // Arrange - the cart-service limit: 60 burst, 1 token per second, default lease settings
+        properties.getRateLimit().getHybrid().setSyncInterval(Duration.ofMillis(100));
+        properties.getRateLimit().getHybrid().setLeaseSize(20);
+        limit.setCapacity(60);
+        limit.setRefillPerSecond(1);
+        SimulatedBucket shared = new SimulatedBucket(limit, clock);
+        when(redisRateLimiter.acquire(eq(KEY), eq(limit), anyLong(), eq(true)))
+                .thenAnswer(invocation -> Mono.fromSupplier(() -> shared.take(invocation.getArgument(2))));
+        HybridRateLimiter otherNode = new HybridRateLimiter(redisRateLimiter, properties, meterRegistry, clock);
+
+        // Act & Assert - one request every two seconds for ten minutes, alternating nodes
+        for (int i = 0; i < 300; i++) {
+            HybridRateLimiter node = i % 2 == 0 ? rateLimiter : otherNode;
+            assertTrue(node.tryAcquire(KEY, limit).block().isAllowed(), "request " + i + " was rejected");
+            clock.advance(2_000);
+        }
+        assertEquals(0.0, meterRegistry.get("gateway.ratelimit.decisions")
+                .tag("result", "rejected").counter().count());
+    }
+
+    @Test
+    void tryAcquire_SharedBucketEmpty_Rejects() {
+        // Arrange
+        when(redisRateLimiter.acquire(KEY, limit, 1, true))
+                .thenReturn(Mono.just(List.of(0L, 0L, 1500L)));
+
+        // Act & Assert
+        StepVerifier.create(rateLimiter.tryAcquire(KEY, limit))
+                .expectNextMatches(decision -> !decision.isAllowed()
+                        && decision.getResetMillis() == 1500L
+                        && decision.getLimit() == 100)
+                .verifyComplete();
+        assertEquals(1.0, meterRegistry.get("gateway.ratelimit.decisions")
+                .tag("result", "rejected").counter().count());
+    }
+
+    @Test
+    void tryAcquire_RedisError_PropagatesForFilterToFailOpen() {
+        // Arrange
+        when(redisRateLimiter.acquire(KEY, limit, 1, true))
+                .thenReturn(Mono.error(new RuntimeException("Redis down")));
+
+        // Act & Assert
+        StepVerifier.create(rateLimiter.tryAcquire(KEY, limit))
+                .expectError(RuntimeException.class)
+                .verify();
+    }
+
+    @Test
+    void sync_IdleBucket_IsEvicted() {
+        // Arrange
+        properties.getRateLimit().getHybrid().setIdleTimeout(Duration.ZERO);
+        when(redisRateLimiter.acquire(KEY, limit, 1, true))
+                .thenReturn(Mono.just(List.of(1L, 99L, 0L)));
+        rateLimiter.tryAcquire(KEY, limit).block();
+        clock.advance(5);
+
+        // Act
+        StepVerifier.create(rateLimiter.sync())
+                .verifyComplete();
+
+        // Assert
+        assertEquals(0, rateLimiter.size());
+    }
+
+    @Test
+    void tryAcquire_SmallCapacity_CapsLeaseAtTenthOfCapacity() {
+        // Arrange
+        limit.setCapacity(20);
+        when(redisRateLimiter.acquire(KEY, limit, 1, true))
+                .thenReturn(Mono.just(List.of(1L, 19L, 0L)));
+        when(redisRateLimiter.acquire(KEY, limit, 2, true))
+                .thenReturn(Mono.just(List.of(2L, 17L, 0L)));
+        rateLimiter.tryAcquire(KEY, limit).block();
+        clock.advance(1);
+
+        // Act & Assert
+        StepVerifier.create(rateLimiter.tryAcquire(KEY, limit))
+                .expectNextMatches(RateLimitDecision::isAllowed)
+                .verifyComplete();
+        verify(redisRateLimiter).acquire(KEY, limit, 2, true);
+    }
+
+    /**
+     * The token_bucket.lua arithmetic on the test clock.
+     */
+    private static final class SimulatedBucket {
+
+        private final GatewayConfigProperties.Limit limit;
+        private final Clock clock;
+        private double tokens;
+        private long ts;
+
+        private SimulatedBucket(GatewayConfigProperties.Limit limit, Clock clock) {
+            this.limit = limit;
+            this.clock = clock;
+            this.tokens = limit.getCapacity();
+            this.ts = clock.millis();
+        }
+
+        private List<Long> take(long requested) {
+            long now = clock.millis();
+            tokens = Math.min(limit.getCapacity(), tokens + (now - ts) * limit.getRefillPerSecond() / 1000);
+            ts = now;
+            long granted = tokens >= requested ? requested : tokens >= 1 ? (long) tokens : 0;
+            tokens -= granted;
+            long reset = tokens < 1 ? (long) Math.ceil((1 - tokens) * 1000 / limit.getRefillPerSecond()) : 0;
+            return List.of(granted, (long) tokens, reset);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private long millis;
+        private int readsBeforeHook;
+        private Runnable hook;
+
+        private MutableClock(long millis) {
+            this.millis = millis;
+        }
+
+        private void advance(long delta) {
+            millis += delta;
+        }
+
+        /**
+         * Run {@code hook} once, on the read after the next {@code skippedReads} reads.
+         */
+        private void onRead(int skippedReads, Runnable hook) {
+            this.readsBeforeHook = skippedReads;
+            this.hook = hook;
+        }
+
+        @Override
+        public long millis() {
+            Runnable pending = hook;
+            if (pending != null && readsBeforeHook-- == 0) {
+                hook = null;
+                pending.run();
+            }
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.marketplace.gateway.service;
+
+import com.marketplace.gateway.config.GatewayConfigProperties;
+import com.marketplace.gateway.dto.RateLimitDecision;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import redis.embedded.RedisServer;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the previous INCR + EXPIRE fixed-window limiter with the Lua token bucket,
+ * both against an embedded Redis server on localhost.
+ * <p>
+ * Reports throughput and the sampled latency distribution (p50/p99 in the JMH output).
+ * Not part of the test suite. Run from the IDE via {@link #main(String[])} after {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    private static final int CLIENTS = 10_000;
+    private static final int REQUESTS_PER_MINUTE = 1_000_000;
+
+    private RedisServer redisServer;
+    private LettuceConnectionFactory connectionFactory;
+    private ReactiveRedisTemplate<String, String> redisTemplate;
+    private RedisTokenBucketRateLimiter tokenBucketRateLimiter;
+    private GatewayConfigProperties.Limit limit;
+
+    @Setup
+    public void setUp() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = RedisServer.newRedisServer().port(port).build();
+        redisServer.start();
+
+        connectionFactory = new LettuceConnectionFactory("localhost", port);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new ReactiveRedisTemplate<>(connectionFactory, RedisSerializationContext.string());
+
+        tokenBucketRateLimiter = new RedisTokenBucketRateLimiter(redisTemplate);
+        GatewayConfigProperties.RateLimit rateLimit = new GatewayConfigProperties.RateLimit();
+        rateLimit.setRequestsPerMinute(REQUESTS_PER_MINUTE);
+        limit = rateLimit.limitFor(null);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    /**
+     * Previous RateLimitFilter logic: INCR, then EXPIRE on the first hit of each window.
+     */
+    @Benchmark
+    public Boolean fixedWindowIncrExpire() {
+        String key = "rate_limit:" + randomClient();
+        return redisTemplate.opsForValue().increment(key)
+                .flatMap(count -> count == 1
+                        ? redisTemplate.expire(key, Duration.ofMinutes(1)).thenReturn(count)
+                        : Mono.just(count))
+                .map(count -> count <= REQUESTS_PER_MINUTE)
+                .block();
+    }
+
+    @Benchmark
+    public RateLimitDecision tokenBucketLua() {
+        return tokenBucketRateLimiter.tryAcquire("rate_limit:default:" + randomClient(), limit).block();
+    }
+
+    private static String randomClient() {
+        return "ip:10.0." + ThreadLocalRandom.current().nextInt(CLIENTS);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RateLimiterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,167 @@
+package com.marketplace.gateway.service;
+
+import com.marketplace.gateway.config.GatewayConfigProperties;
+import com.marketplace.gateway.dto.RateLimitDecision;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the token bucket script against an embedded Redis server.
+ */
+class RedisTokenBucketRateLimiterTest {
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static ReactiveRedisTemplate<String, String> redisTemplate;
+
+    private RedisTokenBucketRateLimiter rateLimiter;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = RedisServer.newRedisServer().port(port).build();
+        redisServer.start();
+
+        connectionFactory = new LettuceConnectionFactory("localhost", port);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new ReactiveRedisTemplate<>(connectionFactory, RedisSerializationContext.string());
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.execute(connection -> connection.serverCommands().flushAll()).blockLast();
+        rateLimiter = new RedisTokenBucketRateLimiter(redisTemplate);
+    }
+
+    @Test
+    void tryAcquire_WithinCapacity_AllowsAndCountsDown() {
+        // Arrange
+        GatewayConfigProperties.Limit limit = limit(3, 1);
+
+        // Act
+        RateLimitDecision first = rateLimiter.tryAcquire("rate_limit:test:ip:1", limit).block();
+        RateLimitDecision second = rateLimiter.tryAcquire("rate_limit:test:ip:1", limit).block();
+
+        // Assert
+        assertTrue(first.isAllowed());
+        assertEquals(2, first.getRemaining());
+        assertEquals(3, first.getLimit());
+        assertTrue(second.isAllowed());
+        assertEquals(1, second.getRemaining());
+    }
+
+    @Test
+    void tryAcquire_BucketEmpty_RejectsWithResetTime() {
+        // Arrange
+        GatewayConfigProperties.Limit limit = limit(2, 1);
+        rateLimiter.tryAcquire("rate_limit:test:ip:2", limit).block();
+        rateLimiter.tryAcquire("rate_limit:test:ip:2", limit).block();
+
+        // Act
+        RateLimitDecision decision = rateLimiter.tryAcquire("rate_limit:test:ip:2", limit).block();
+
+        // Assert
+        assertFalse(decision.isAllowed());
+        assertEquals(0, decision.getRemaining());
+        assertTrue(decision.getResetMillis() > 0 && decision.getResetMillis() <= 1000);
+    }
+
+    @Test
+    void tryAcquire_AfterRefill_AllowsAgain() throws InterruptedException {
+        // Arrange
+        GatewayConfigProperties.Limit limit = limit(1, 20);
+        rateLimiter.tryAcquire("rate_limit:test:ip:3", limit).block();
+        assertFalse(rateLimiter.tryAcquire("rate_limit:test:ip:3", limit).block().isAllowed());
+
+        // Act
+        Thread.sleep(100);
+        RateLimitDecision decision = rateLimiter.tryAcquire("rate_limit:test:ip:3", limit).block();
+
+        // Assert
+        assertTrue(decision.isAllowed());
+    }
+
+    @Test
+    void tryAcquire_SeparateKeys_HaveSeparateBuckets() {
+        // Arrange
+        GatewayConfigProperties.Limit limit = limit(1, 1);
+        rateLimiter.tryAcquire("rate_limit:test:user:a", limit).block();
+
+        // Act
+        RateLimitDecision decision = rateLimiter.tryAcquire("rate_limit:test:user:b", limit).block();
+
+        // Assert
+        assertTrue(decision.isAllowed());
+    }
+
+    @Test
+    void tryAcquire_SetsExpiryOnBucketKey() {
+        // Arrange
+        GatewayConfigProperties.Limit limit = limit(10, 5);
+
+        // Act
+        rateLimiter.tryAcquire("rate_limit:test:ip:4", limit).block();
+
+        // Assert
+        Long ttl = redisTemplate.execute(connection -> connection.keyCommands()
+                .pTtl(java.nio.ByteBuffer.wrap("rate_limit:test:ip:4".getBytes()))).blockFirst();
+        assertTrue(ttl > 0 && ttl <= 200, "ttl " + ttl);
+    }
+
+    @Test
+    void acquire_MoreThanAvailable_GrantsNothing() {
+        // Arrange
+        GatewayConfigProperties.Limit limit = limit(5, 1);
+
+        // Act
+        List<Long> result = rateLimiter.acquire("rate_limit:test:ip:5", limit, 6, false).block();
+
+        // Assert
+        assertEquals(0L, result.get(0));
+        assertEquals(5L, result.get(1));
+    }
+
+    @Test
+    void acquire_PartialMoreThanAvailable_GrantsWhatIsLeft() {
+        // Arrange
+        GatewayConfigProperties.Limit limit = limit(5, 1);
+
+        // Act
+        List<Long> result = rateLimiter.acquire("rate_limit:test:ip:6", limit, 8, true).block();
+
+        // Assert
+        assertEquals(5L, result.get(0));
+        assertEquals(0L, result.get(1));
+    }
+
+    private GatewayConfigProperties.Limit limit(int capacity, double refillPerSecond) {
+        GatewayConfigProperties.Limit limit = new GatewayConfigProperties.Limit();
+        limit.setCapacity(capacity);
+        limit.setRefillPerSecond(refillPerSecond);
+        return limit;
+    }
+}
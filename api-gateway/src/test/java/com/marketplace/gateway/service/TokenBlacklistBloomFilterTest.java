@@ -0,0 +1,188 @@
+package com.marketplace.gateway.service;
+
+import com.marketplace.gateway.config.GatewayConfigProperties;
+import com.marketplace.gateway.util.BloomFilter;
+import com.marketplace.gateway.util.TokenDigest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TokenBlacklistBloomFilterTest {
+
+    private static final String BLACKLIST_PREFIX = "blacklist:token:";
+
+    @Mock
+    private ReactiveRedisTemplate<String, String> redisTemplate;
+
+    private MeterRegistry meterRegistry;
+    private TokenBlacklistBloomFilter bloomFilter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        bloomFilter = new TokenBlacklistBloomFilter(redisTemplate, new GatewayConfigProperties(), meterRegistry);
+    }
+
+    @Test
+    void mightContain_BeforeSeed_FallsThroughToRedis() {
+        assertFalse(bloomFilter.isReady());
+        assertTrue(bloomFilter.mightContain("any.jwt.token"));
+    }
+
+    @Test
+    void rebuild_SeedsFromKeyspace() {
+        // Arrange
+        when(redisTemplate.scan(any(ScanOptions.class)))
+                .thenReturn(Flux.just(BLACKLIST_PREFIX + "revoked.jwt.token"));
+
+        // Act
+        StepVerifier.create(bloomFilter.rebuild()).verifyComplete();
+
+        // Assert
+        assertTrue(bloomFilter.isReady());
+        assertTrue(bloomFilter.mightContain("revoked.jwt.token"));
+        assertFalse(bloomFilter.mightContain("active.jwt.token"));
+        assertEquals(1.0, meterRegistry.get("gateway.blacklist.filter.size").gauge().value());
+    }
+
+    @Test
+    void rebuild_RedisError_KeepsFallingThrough() {
+        // Arrange
+        when(redisTemplate.scan(any(ScanOptions.class)))
+                .thenReturn(Flux.error(new RuntimeException("Redis connection failed")));
+
+        // Act
+        StepVerifier.create(bloomFilter.rebuild()).verifyComplete();
+
+        // Assert
+        assertFalse(bloomFilter.isReady());
+        assertTrue(bloomFilter.mightContain("active.jwt.token"));
+    }
+
+    @Test
+    void add_NewToken_AddsLocallyAndPublishes() {
+        // Arrange
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(Flux.empty());
+        when(redisTemplate.convertAndSend(eq("blacklist:events"), anyString())).thenReturn(Mono.just(1L));
+        StepVerifier.create(bloomFilter.rebuild()).verifyComplete();
+
+        // Act
+        StepVerifier.create(bloomFilter.add("revoked.jwt.token")).verifyComplete();
+
+        // Assert
+        assertTrue(bloomFilter.mightContain("revoked.jwt.token"));
+        verify(redisTemplate).convertAndSend(eq("blacklist:events"), anyString());
+    }
+
+    @Test
+    void add_PublishFails_StillAddsLocally() {
+        // Arrange
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(Flux.empty());
+        when(redisTemplate.convertAndSend(eq("blacklist:events"), anyString()))
+                .thenReturn(Mono.error(new RuntimeException("Redis connection failed")));
+        StepVerifier.create(bloomFilter.rebuild()).verifyComplete();
+
+        // Act
+        StepVerifier.create(bloomFilter.add("revoked.jwt.token")).verifyComplete();
+
+        // Assert
+        assertTrue(bloomFilter.mightContain("revoked.jwt.token"));
+    }
+
+    @Test
+    void rebuild_OverlappingRebuilds_KeepEventsArrivingBetweenSwaps() {
+        // Arrange
+        Sinks.Many<String> firstScan = Sinks.many().unicast().onBackpressureBuffer();
+        Sinks.Many<String> secondScan = Sinks.many().unicast().onBackpressureBuffer();
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(firstScan.asFlux(), secondScan.asFlux());
+        when(redisTemplate.convertAndSend(eq("blacklist:events"), anyString())).thenReturn(Mono.just(1L));
+
+        // Act
+        bloomFilter.rebuild().subscribe();
+        bloomFilter.rebuild().subscribe();
+        firstScan.tryEmitComplete();
+        StepVerifier.create(bloomFilter.add("revoked.jwt.token")).verifyComplete();
+        secondScan.tryEmitComplete();
+
+        // Assert
+        verify(redisTemplate, times(2)).scan(any(ScanOptions.class));
+        assertTrue(bloomFilter.isReady());
+        assertTrue(bloomFilter.mightContain("revoked.jwt.token"));
+    }
+
+    @Test
+    void add_RebuildSwapsBetweenWrites_KeepsToken() {
+        // Arrange - the rebuild's scan completes, and the filter is swapped, right after the
+        // token's first write into either filter
+        byte[] digest = TokenDigest.sha256("revoked.jwt.token");
+        Sinks.Many<String> scan = Sinks.many().unicast().onBackpressureBuffer();
+        AtomicBoolean swapped = new AtomicBoolean();
+        TokenBlacklistBloomFilter hookedFilter = new TokenBlacklistBloomFilter(redisTemplate,
+                new GatewayConfigProperties(), meterRegistry) {
+            @Override
+            BloomFilter newFilter() {
+                return new BloomFilter(1000, 0.01) {
+                    @Override
+                    public void put(byte[] value) {
+                        super.put(value);
+                        if (Arrays.equals(value, digest) && swapped.compareAndSet(false, true)) {
+                            scan.tryEmitComplete();
+                        }
+                    }
+                };
+            }
+        };
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(scan.asFlux());
+        when(redisTemplate.convertAndSend(eq("blacklist:events"), anyString())).thenReturn(Mono.just(1L));
+        hookedFilter.rebuild().subscribe();
+
+        // Act
+        StepVerifier.create(hookedFilter.add("revoked.jwt.token")).verifyComplete();
+
+        // Assert
+        assertTrue(swapped.get());
+        assertTrue(hookedFilter.isReady());
+        assertTrue(hookedFilter.mightContain("revoked.jwt.token"));
+    }
+
+    @Test
+    void observedFalsePositiveRate_CountsOnlyNonBlacklistedLookups() {
+        // Arrange
+        when(redisTemplate.scan(any(ScanOptions.class)))
+                .thenReturn(Flux.just(BLACKLIST_PREFIX + "revoked.jwt.token"));
+        StepVerifier.create(bloomFilter.rebuild()).verifyComplete();
+
+        // Act
+        bloomFilter.mightContain("revoked.jwt.token");
+        bloomFilter.mightContain("revoked.jwt.token");
+        bloomFilter.mightContain("active.jwt.token");
+        bloomFilter.recordFalsePositive();
+
+        // Assert: one false positive against one true negative
+        assertEquals(0.5, meterRegistry.get("gateway.blacklist.filter.observed.fpp").gauge().value());
+    }
+}
@@ -1,6 +1,8 @@
 package com.marketplace.gateway.service;
 
+import com.marketplace.common.dto.JwtClaims;
 import com.marketplace.common.util.JwtUtil;
+import io.jsonwebtoken.ExpiredJwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,6 +17,7 @@ import java.time.Duration;
 import java.util.Date;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -30,13 +33,19 @@ class TokenBlacklistServiceTest {
     @Mock
     private JwtUtil jwtUtil;
 
+    @Mock
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Mock
+    private TokenBlacklistBloomFilter blacklistBloomFilter;
+
     private TokenBlacklistService tokenBlacklistService;
 
     private static final String BLACKLIST_PREFIX = "blacklist:token:";
 
     @BeforeEach
     void setUp() {
-        tokenBlacklistService = new TokenBlacklistService(redisTemplate, jwtUtil);
+        tokenBlacklistService = new TokenBlacklistService(redisTemplate, jwtUtil, verifiedTokenCache, blacklistBloomFilter);
     }
 
     @Test
@@ -47,10 +56,11 @@ class TokenBlacklistServiceTest {
         Date expiration = new Date(futureTimeMillis);
         String expectedKey = BLACKLIST_PREFIX + token;
 
-        when(jwtUtil.extractExpiration(token)).thenReturn(expiration);
+        when(jwtUtil.parseVerified(token)).thenReturn(JwtClaims.builder().expiration(expiration).build());
         when(redisTemplate.opsForValue()).thenReturn(valueOperations);
         when(valueOperations.set(eq(expectedKey), eq("blacklisted"), any(Duration.class)))
                 .thenReturn(Mono.just(true));
+        when(blacklistBloomFilter.add(token)).thenReturn(Mono.empty());
 
         // Act
         Mono<Boolean> result = tokenBlacklistService.blacklistToken(token);
@@ -60,9 +70,11 @@ class TokenBlacklistServiceTest {
                 .expectNext(true)
                 .verifyComplete();
 
-        verify(jwtUtil).extractExpiration(token);
+        verify(jwtUtil).parseVerified(token);
+        verify(verifiedTokenCache).invalidate(token);
         verify(redisTemplate).opsForValue();
         verify(valueOperations).set(eq(expectedKey), eq("blacklisted"), any(Duration.class));
+        verify(blacklistBloomFilter).add(token);
     }
 
     @Test
@@ -72,7 +84,7 @@ class TokenBlacklistServiceTest {
         long pastTimeMillis = System.currentTimeMillis() - 3600000; // 1 hour ago
         Date expiration = new Date(pastTimeMillis);
 
-        when(jwtUtil.extractExpiration(token)).thenReturn(expiration);
+        when(jwtUtil.parseVerified(token)).thenReturn(JwtClaims.builder().expiration(expiration).build());
 
         // Act
         Mono<Boolean> result = tokenBlacklistService.blacklistToken(token);
@@ -82,7 +94,7 @@ class TokenBlacklistServiceTest {
                 .expectNext(true)
                 .verifyComplete();
 
-        verify(jwtUtil).extractExpiration(token);
+        verify(jwtUtil).parseVerified(token);
         verify(redisTemplate, never()).opsForValue();
     }
 
@@ -91,7 +103,7 @@ class TokenBlacklistServiceTest {
         // Arrange
         String invalidToken = "invalid.token";
 
-        when(jwtUtil.extractExpiration(invalidToken))
+        when(jwtUtil.parseVerified(invalidToken))
                 .thenThrow(new RuntimeException("Failed to parse JWT"));
 
         // Act
@@ -105,6 +117,25 @@ class TokenBlacklistServiceTest {
         verify(redisTemplate, never()).opsForValue();
     }
 
+    @Test
+    void blacklistToken_ParserRejectsExpiredToken_ReturnsTrueWithoutStoring() {
+        // Arrange
+        String token = "expired.jwt.token";
+
+        when(jwtUtil.parseVerified(token))
+                .thenThrow(new ExpiredJwtException(null, null, "Token expired"));
+
+        // Act
+        Mono<Boolean> result = tokenBlacklistService.blacklistToken(token);
+
+        // Assert
+        StepVerifier.create(result)
+                .expectNext(true)
+                .verifyComplete();
+
+        verify(redisTemplate, never()).opsForValue();
+    }
+
     @Test
     void blacklistToken_RedisError_PropagatesError() {
         // Arrange
@@ -113,7 +144,7 @@ class TokenBlacklistServiceTest {
         Date expiration = new Date(futureTimeMillis);
         String expectedKey = BLACKLIST_PREFIX + token;
 
-        when(jwtUtil.extractExpiration(token)).thenReturn(expiration);
+        when(jwtUtil.parseVerified(token)).thenReturn(JwtClaims.builder().expiration(expiration).build());
         when(redisTemplate.opsForValue()).thenReturn(valueOperations);
         when(valueOperations.set(eq(expectedKey), eq("blacklisted"), any(Duration.class)))
                 .thenReturn(Mono.error(new RuntimeException("Redis connection failed")));
@@ -135,6 +166,7 @@ class TokenBlacklistServiceTest {
         String token = "blacklisted.jwt.token";
         String expectedKey = BLACKLIST_PREFIX + token;
 
+        when(blacklistBloomFilter.mightContain(token)).thenReturn(true);
         when(redisTemplate.hasKey(expectedKey)).thenReturn(Mono.just(true));
 
         // Act
@@ -154,6 +186,7 @@ class TokenBlacklistServiceTest {
         String token = "valid.jwt.token";
         String expectedKey = BLACKLIST_PREFIX + token;
 
+        when(blacklistBloomFilter.mightContain(token)).thenReturn(true);
         when(redisTemplate.hasKey(expectedKey)).thenReturn(Mono.just(false));
 
         // Act
@@ -165,6 +198,25 @@ class TokenBlacklistServiceTest {
                 .verifyComplete();
 
         verify(redisTemplate).hasKey(expectedKey);
+        verify(blacklistBloomFilter).recordFalsePositive();
+    }
+
+    @Test
+    void isBlacklisted_FilterRulesOutToken_SkipsRedis() {
+        // Arrange
+        String token = "valid.jwt.token";
+
+        when(blacklistBloomFilter.mightContain(token)).thenReturn(false);
+
+        // Act
+        Mono<Boolean> result = tokenBlacklistService.isBlacklisted(token);
+
+        // Assert
+        StepVerifier.create(result)
+                .expectNext(false)
+                .verifyComplete();
+
+        verify(redisTemplate, never()).hasKey(anyString());
     }
 
     @Test
@@ -175,10 +227,11 @@ class TokenBlacklistServiceTest {
         Date expiration = new Date(futureTimeMillis);
         String expectedKey = BLACKLIST_PREFIX + token;
 
-        when(jwtUtil.extractExpiration(token)).thenReturn(expiration);
+        when(jwtUtil.parseVerified(token)).thenReturn(JwtClaims.builder().expiration(expiration).build());
         when(redisTemplate.opsForValue()).thenReturn(valueOperations);
         when(valueOperations.set(eq(expectedKey), eq("blacklisted"), any(Duration.class)))
                 .thenReturn(Mono.just(true));
+        when(blacklistBloomFilter.add(token)).thenReturn(Mono.empty());
 
         // Act
         Mono<Boolean> result = tokenBlacklistService.blacklistToken(token);
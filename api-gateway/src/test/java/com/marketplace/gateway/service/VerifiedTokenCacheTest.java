@@ -0,0 +1,130 @@
+package com.marketplace.gateway.service;
+
+import com.marketplace.common.dto.JwtClaims;
+import com.marketplace.common.util.JwtUtil;
+import com.marketplace.gateway.config.GatewayConfigProperties;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class VerifiedTokenCacheTest {
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    private GatewayConfigProperties properties;
+    private MeterRegistry meterRegistry;
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @BeforeEach
+    void setUp() {
+        properties = new GatewayConfigProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        verifiedTokenCache = new VerifiedTokenCache(jwtUtil, properties, meterRegistry);
+    }
+
+    @Test
+    void getOrVerify_RepeatedToken_VerifiesOnce() {
+        // Arrange
+        String token = "valid.jwt.token";
+        JwtClaims claims = claimsExpiringIn(3600000);
+        when(jwtUtil.parseVerified(token)).thenReturn(claims);
+
+        // Act
+        JwtClaims first = verifiedTokenCache.getOrVerify(token);
+        JwtClaims second = verifiedTokenCache.getOrVerify(token);
+
+        // Assert
+        assertSame(claims, first);
+        assertSame(claims, second);
+        verify(jwtUtil, times(1)).parseVerified(token);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void getOrVerify_InvalidToken_PropagatesAndDoesNotCache() {
+        // Arrange
+        String token = "invalid.token";
+        when(jwtUtil.parseVerified(token)).thenThrow(new MalformedJwtException("Invalid token"));
+
+        // Act & Assert
+        assertThrows(MalformedJwtException.class, () -> verifiedTokenCache.getOrVerify(token));
+        assertThrows(MalformedJwtException.class, () -> verifiedTokenCache.getOrVerify(token));
+        verify(jwtUtil, times(2)).parseVerified(token);
+    }
+
+    @Test
+    void getOrVerify_EntryPastTokenExpiry_ReVerifies() {
+        // Arrange
+        String token = "expiring.jwt.token";
+        when(jwtUtil.parseVerified(token))
+                .thenReturn(claimsExpiringIn(-1000))
+                .thenThrow(new ExpiredJwtException(null, null, "Token expired"));
+
+        // Act
+        verifiedTokenCache.getOrVerify(token);
+
+        // Assert
+        assertThrows(ExpiredJwtException.class, () -> verifiedTokenCache.getOrVerify(token));
+        verify(jwtUtil, times(2)).parseVerified(token);
+    }
+
+    @Test
+    void invalidate_CachedToken_ForcesReVerification() {
+        // Arrange
+        String token = "valid.jwt.token";
+        when(jwtUtil.parseVerified(token)).thenReturn(claimsExpiringIn(3600000));
+        verifiedTokenCache.getOrVerify(token);
+
+        // Act
+        verifiedTokenCache.invalidate(token);
+        verifiedTokenCache.getOrVerify(token);
+
+        // Assert
+        verify(jwtUtil, times(2)).parseVerified(token);
+    }
+
+    @Test
+    void getOrVerify_CacheDisabled_AlwaysVerifies() {
+        // Arrange
+        properties.getTokenCache().setEnabled(false);
+        verifiedTokenCache = new VerifiedTokenCache(jwtUtil, properties, meterRegistry);
+        String token = "valid.jwt.token";
+        when(jwtUtil.parseVerified(token)).thenReturn(claimsExpiringIn(3600000));
+
+        // Act
+        verifiedTokenCache.getOrVerify(token);
+        verifiedTokenCache.getOrVerify(token);
+
+        // Assert
+        verify(jwtUtil, times(2)).parseVerified(token);
+    }
+
+    private JwtClaims claimsExpiringIn(long millis) {
+        return JwtClaims.builder()
+                .userId(UUID.randomUUID())
+                .email("test@example.com")
+                .roles(List.of("ROLE_USER"))
+                .expiration(new Date(System.currentTimeMillis() + millis))
+                .build();
+    }
+}
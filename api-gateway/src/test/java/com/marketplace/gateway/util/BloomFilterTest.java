@@ -0,0 +1,57 @@
+package com.marketplace.gateway.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    @Test
+    void mightContain_AddedDigests_NeverFalseNegative() {
+        // Arrange
+        BloomFilter filter = new BloomFilter(10000, 0.01);
+
+        // Act
+        for (int i = 0; i < 10000; i++) {
+            filter.put(TokenDigest.sha256("token-" + i));
+        }
+
+        // Assert
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(filter.mightContain(TokenDigest.sha256("token-" + i)));
+        }
+        assertEquals(10000, filter.insertions());
+    }
+
+    @Test
+    void mightContain_UnknownDigests_StaysNearConfiguredFalsePositiveRate() {
+        // Arrange
+        BloomFilter filter = new BloomFilter(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            filter.put(TokenDigest.sha256("token-" + i));
+        }
+
+        // Act
+        int falsePositives = 0;
+        for (int i = 0; i < 100000; i++) {
+            if (filter.mightContain(TokenDigest.sha256("other-" + i))) {
+                falsePositives++;
+            }
+        }
+
+        // Assert
+        double observed = falsePositives / 100000.0;
+        assertTrue(observed < 0.02, "observed false-positive rate " + observed);
+        assertTrue(filter.expectedFalsePositiveRate() < 0.02);
+    }
+
+    @Test
+    void mightContain_EmptyFilter_ReturnsFalse() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+
+        assertFalse(filter.mightContain(TokenDigest.sha256("token")));
+        assertEquals(0.0, filter.expectedFalsePositiveRate());
+    }
+}
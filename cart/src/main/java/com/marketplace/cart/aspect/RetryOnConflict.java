@@ -0,0 +1,21 @@
+package com.marketplace.cart.aspect;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation to retry a cart command that lost an optimistic locking race.
+ * The whole method, including its transaction, is run again so it re-reads the cart.
+ * Attempts and backoff are configured under {@code cart.conflict-retry}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+
+    /**
+     * Operation name used to tag the conflict metrics (e.g., "ADD_TO_CART")
+     */
+    String value();
+}
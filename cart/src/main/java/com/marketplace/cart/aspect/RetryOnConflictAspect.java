@@ -0,0 +1,81 @@
+package com.marketplace.cart.aspect;
+
+import com.marketplace.cart.config.CartConfigProperties;
+import com.marketplace.cart.exception.CartConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries methods annotated with {@link RetryOnConflict} when they fail with a
+ * {@link ConcurrencyFailureException}: an optimistic locking failure, deadlock or
+ * serialization failure. Each retry waits a random time up to an exponentially growing cap
+ * (full jitter), so users racing on the same cart don't collide again in lockstep. When the
+ * attempts are used up a {@link CartConflictException} (409) is thrown.
+ * <p>
+ * Ordered before the transaction advisor, so each attempt runs in a new transaction.
+ * Conflicts are counted in {@code cart.conflicts}, tagged by operation and by outcome:
+ * {@code retried} per retry and {@code exhausted} per request that gave up.
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class RetryOnConflictAspect {
+
+    private final CartConfigProperties.ConflictRetry config;
+    private final MeterRegistry meterRegistry;
+
+    public RetryOnConflictAspect(CartConfigProperties properties, MeterRegistry meterRegistry) {
+        this.config = properties.getConflictRetry();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(retryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint, RetryOnConflict retryOnConflict) throws Throwable {
+        String operation = retryOnConflict.value();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (ConcurrencyFailureException ex) {
+                if (attempt >= config.getMaxAttempts()) {
+                    conflicts(operation, "exhausted").increment();
+                    log.warn("Cart conflict on {} not resolved after {} attempts: {}",
+                            operation, attempt, ex.getMessage());
+                    throw new CartConflictException(ex);
+                }
+                conflicts(operation, "retried").increment();
+                long backoffMillis = backoffMillis(attempt);
+                log.debug("Cart conflict on {}, attempt {} of {}, retrying in {}ms",
+                        operation, attempt, config.getMaxAttempts(), backoffMillis);
+                Thread.sleep(backoffMillis);
+            }
+        }
+    }
+
+    /**
+     * Random delay between 0 and initial-backoff * 2^(attempt - 1), capped at max-backoff.
+     */
+    long backoffMillis(int attempt) {
+        long cap = Math.min(config.getMaxBackoff().toMillis(),
+                config.getInitialBackoff().toMillis() << Math.min(attempt - 1, 20));
+        return cap <= 0 ? 0 : ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    private Counter conflicts(String operation, String outcome) {
+        return Counter.builder("cart.conflicts")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .description("Optimistic locking conflicts on cart writes")
+                .register(meterRegistry);
+    }
+}
@@ -9,6 +9,11 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * HTTP client for communicating with Product Service.
  */
@@ -45,12 +50,7 @@ public class ProductServiceClient {
             // Convert LinkedHashMap to ProductDetailsResponse
             Object data = response.getData();
             if (data instanceof java.util.Map) {
-                java.util.Map<String, Object> map = (java.util.Map<String, Object>) data;
-                return ProductDetailsResponse.builder()
-                        .id((String) map.get("id"))
-                        .name((String) map.get("name"))
-                        .price(new java.math.BigDecimal(map.get("price").toString()))
-                        .build();
+                return toProductDetails((java.util.Map<String, Object>) data);
             }
 
             throw new ResourceNotFoundException("Product", productId);
@@ -63,4 +63,41 @@ public class ProductServiceClient {
             throw new RuntimeException("Failed to fetch product details", e);
         }
     }
+
+    /**
+     * Fetch details of several products in one call to Product Service.
+     *
+     * @param productIds The product IDs (max 100)
+     * @return Details of the products found, keyed by ID; unknown IDs are left out
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, ProductDetailsResponse> getProductsByIds(Collection<String> productIds) {
+        log.info("Fetching product details for {} IDs", productIds.size());
+
+        try {
+            String url = productServiceUrl + "/api/product/batch";
+            var response = restTemplate.postForObject(url, Map.of("productIds", productIds), ApiResponse.class);
+
+            Map<String, ProductDetailsResponse> products = new LinkedHashMap<>();
+            if (response != null && response.getData() instanceof List<?> data) {
+                for (Object item : data) {
+                    ProductDetailsResponse product = toProductDetails((Map<String, Object>) item);
+                    products.put(product.getId(), product);
+                }
+            }
+            return products;
+
+        } catch (Exception e) {
+            log.error("Error fetching {} products: {}", productIds.size(), e.getMessage());
+            throw new RuntimeException("Failed to fetch product details", e);
+        }
+    }
+
+    private static ProductDetailsResponse toProductDetails(Map<String, Object> map) {
+        return ProductDetailsResponse.builder()
+                .id((String) map.get("id"))
+                .name((String) map.get("name"))
+                .price(new java.math.BigDecimal(map.get("price").toString()))
+                .build();
+    }
 }
@@ -0,0 +1,8 @@
+package com.marketplace.cart.command;
+
+import com.marketplace.cart.dto.request.UpdateCartItemsCommandRequest;
+import com.marketplace.cart.dto.response.CartResponse;
+import com.marketplace.common.command.Command;
+
+public interface UpdateCartItemsCommand extends Command<UpdateCartItemsCommandRequest, CartResponse> {
+}
@@ -5,7 +5,7 @@ import com.marketplace.cart.dto.request.GetCartRequest;
 import com.marketplace.cart.dto.response.CartResponse;
 import com.marketplace.cart.entity.Cart;
 import com.marketplace.cart.mapper.CartMapper;
-import com.marketplace.cart.repository.CartRepository;
+import com.marketplace.cart.store.CartStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -15,7 +15,7 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class GetCartCommandImpl implements GetCartCommand {
 
-    private final CartRepository cartRepository;
+    private final CartStore cartStore;
 
     @Override
     public CartResponse execute(GetCartRequest request) {
@@ -23,7 +23,7 @@ public class GetCartCommandImpl implements GetCartCommand {
 
         log.info("Fetching cart for user: {}", userId);
 
-        Cart cart = cartRepository.findByUserId(userId)
+        Cart cart = cartStore.find(userId)
                 .orElseGet(() -> {
                     log.info("No cart found for user: {}, returning empty cart", userId);
                     return Cart.builder().userId(userId).build();
@@ -0,0 +1,66 @@
+package com.marketplace.cart.command.impl;
+
+import com.marketplace.cart.command.UpdateCartItemsCommand;
+import com.marketplace.cart.dto.request.CartItemOperation;
+import com.marketplace.cart.dto.request.UpdateCartItemsCommandRequest;
+import com.marketplace.cart.dto.response.CartResponse;
+import com.marketplace.cart.dto.response.ProductDetailsResponse;
+import com.marketplace.cart.entity.Cart;
+import com.marketplace.cart.mapper.CartMapper;
+import com.marketplace.cart.service.ProductDetailsCacheService;
+import com.marketplace.cart.store.CartMutation;
+import com.marketplace.cart.store.CartStore;
+import com.marketplace.common.aspect.Auditable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UpdateCartItemsCommandImpl implements UpdateCartItemsCommand {
+
+    private final CartStore cartStore;
+    private final ProductDetailsCacheService productDetailsCacheService;
+
+    @Override
+    @Auditable(action = "UPDATE_CART_ITEMS", description = "Apply bulk changes to shopping cart")
+    public CartResponse execute(UpdateCartItemsCommandRequest request) {
+        var userId = request.getUserId();
+        var operations = request.getUpdateCartItemsRequest().getOperations();
+
+        log.info("Applying {} cart operations for user: {}", operations.size(), userId);
+
+        // Details of every added or updated product in one batched lookup, cache misses only
+        Set<String> productIds = new LinkedHashSet<>();
+        operations.stream()
+                .filter(operation -> operation.getOp() != CartMutation.Type.REMOVE)
+                .forEach(operation -> productIds.add(operation.getProductId()));
+        Map<String, ProductDetailsResponse> products = productIds.isEmpty()
+                ? Map.of()
+                : productDetailsCacheService.getProductsByIds(productIds);
+
+        List<CartMutation> mutations = operations.stream()
+                .map(operation -> toMutation(operation, products))
+                .toList();
+
+        Cart cart = cartStore.applyMutations(userId, mutations);
+        log.info("Applied {} cart operations for user: {}", operations.size(), userId);
+
+        return CartMapper.toCartResponse(cart);
+    }
+
+    private static CartMutation toMutation(CartItemOperation operation, Map<String, ProductDetailsResponse> products) {
+        if (operation.getOp() == CartMutation.Type.REMOVE) {
+            return new CartMutation(CartMutation.Type.REMOVE, operation.getProductId(), null, null, 0);
+        }
+        ProductDetailsResponse product = products.get(operation.getProductId());
+        return new CartMutation(operation.getOp(), product.getId(), product.getName(), product.getPrice(),
+                operation.getQuantity());
+    }
+}
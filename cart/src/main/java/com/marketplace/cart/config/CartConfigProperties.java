@@ -4,6 +4,8 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 /**
  * Configuration properties for Cart Service
  */
@@ -14,6 +16,10 @@ public class CartConfigProperties {
 
     private Database database = new Database();
     private Pagination pagination = new Pagination();
+    private ProductClient productClient = new ProductClient();
+    private ProductCache productCache = new ProductCache();
+    private ConflictRetry conflictRetry = new ConflictRetry();
+    private Store store = new Store();
 
     @Data
     public static class Database {
@@ -26,4 +32,50 @@ public class CartConfigProperties {
         private int defaultPageSize = 10;
         private int maxPageSize = 100;
     }
+
+    @Data
+    public static class ProductClient {
+        private int maxTotal = 50;
+        private int maxPerRoute = 20;
+        private Duration connectTimeout = Duration.ofSeconds(2);
+        private Duration readTimeout = Duration.ofSeconds(5);
+        // Max wait for a pooled connection before failing the call
+        private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+        // Used when the product service doesn't send a Keep-Alive header
+        private Duration keepAlive = Duration.ofSeconds(30);
+        private Duration idleEvictTimeout = Duration.ofSeconds(30);
+        private Duration timeToLive = Duration.ofMinutes(5);
+    }
+
+    @Data
+    public static class ProductCache {
+        private boolean enabled = true;
+        private long maximumSize = 10000;
+        // Bounds how stale a cached product name or price can be when added to a cart
+        private Duration ttl = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class ConflictRetry {
+        // Total attempts, including the first
+        private int maxAttempts = 4;
+        // Upper bound of the random delay before the first retry, doubled on each retry
+        private Duration initialBackoff = Duration.ofMillis(10);
+        private Duration maxBackoff = Duration.ofMillis(200);
+    }
+
+    @Data
+    public static class Store {
+        // jpa or redis
+        private String type = "jpa";
+        // How often dirty Redis carts are written to PostgreSQL
+        private Duration flushInterval = Duration.ofSeconds(1);
+        private int flushBatchSize = 500;
+        // Carts claimed by a flush that has not finished within this time are flushed again
+        private Duration flushTimeout = Duration.ofMinutes(1);
+        // Clean carts not read or written for this long are dropped from Redis
+        private Duration idleTtl = Duration.ofMinutes(30);
+        // How long a user found to have no cart is answered from Redis without asking PostgreSQL
+        private Duration missTtl = Duration.ofSeconds(10);
+    }
 }
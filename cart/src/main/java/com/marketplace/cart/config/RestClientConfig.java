@@ -1,17 +1,76 @@
 package com.marketplace.cart.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
 /**
  * Configuration for REST client used to call Product Service.
+ * <p>
+ * Calls go through a pooled Apache HttpClient, so add-to-cart reuses kept-alive connections
+ * and every call is bounded by connect, pool-wait and read timeouts. Pool usage is published
+ * as {@code httpcomponents.httpclient.pool.*} tagged {@code httpclient=product-service}.
  */
 @Configuration
 public class RestClientConfig {
 
+    private static final String POOL_NAME = "product-service";
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient productServiceHttpClient(CartConfigProperties properties,
+                                                        MeterRegistry meterRegistry) {
+        CartConfigProperties.ProductClient config = properties.getProductClient();
+
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(config.getMaxTotal())
+                .setMaxConnPerRoute(config.getMaxPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(timeout(config.getConnectTimeout()))
+                        .setSocketTimeout(timeout(config.getReadTimeout()))
+                        .setTimeToLive(timeValue(config.getTimeToLive()))
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, POOL_NAME).bindTo(meterRegistry);
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(timeout(config.getConnectionRequestTimeout()))
+                        .setResponseTimeout(timeout(config.getReadTimeout()))
+                        .setConnectionKeepAlive(timeValue(config.getKeepAlive()))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(timeValue(config.getIdleEvictTimeout()))
+                .build();
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(RestTemplateBuilder restTemplateBuilder,
+                                     CloseableHttpClient productServiceHttpClient) {
+        return restTemplateBuilder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(productServiceHttpClient))
+                .build();
+    }
+
+    private static Timeout timeout(Duration duration) {
+        return Timeout.ofMilliseconds(duration.toMillis());
+    }
+
+    private static TimeValue timeValue(Duration duration) {
+        return TimeValue.ofMilliseconds(duration.toMillis());
     }
 }
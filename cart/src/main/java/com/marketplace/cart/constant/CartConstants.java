@@ -15,6 +15,7 @@ public final class CartConstants {
     public static final class ErrorMessages {
         public static final String CART_NOT_FOUND = "Cart not found for user: %s";
         public static final String CART_ITEM_NOT_FOUND = "Cart item not found for product ID: %s";
+        public static final String CART_CONFLICT = "Cart was modified concurrently, please retry";
         public static final String INVALID_QUANTITY = "Quantity must be greater than 0";
         public static final String INVALID_PRICE = "Price must be greater than 0";
 
@@ -31,6 +32,9 @@ public final class CartConstants {
         public static final String PRICE_REQUIRED = "Price is required";
         public static final String QUANTITY_REQUIRED = "Quantity is required";
         public static final String QUANTITY_MIN = "Quantity must be at least 1";
+        public static final String OPERATIONS_REQUIRED = "At least one operation is required";
+        public static final String OPERATIONS_MAX = "At most 100 operations are allowed per request";
+        public static final String OPERATION_TYPE_REQUIRED = "Operation type is required";
         public static final String PRICE_MIN = "Price must be greater than 0";
 
         private ValidationMessages() {
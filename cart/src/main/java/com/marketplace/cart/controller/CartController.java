@@ -3,10 +3,13 @@ package com.marketplace.cart.controller;
 import com.marketplace.cart.command.AddToCartCommand;
 import com.marketplace.cart.command.GetCartCommand;
 import com.marketplace.cart.command.RemoveFromCartCommand;
+import com.marketplace.cart.command.UpdateCartItemsCommand;
 import com.marketplace.cart.dto.request.AddToCartRequest;
 import com.marketplace.cart.dto.request.AddToCartCommandRequest;
 import com.marketplace.cart.dto.request.GetCartRequest;
 import com.marketplace.cart.dto.request.RemoveFromCartRequest;
+import com.marketplace.cart.dto.request.UpdateCartItemsCommandRequest;
+import com.marketplace.cart.dto.request.UpdateCartItemsRequest;
 import com.marketplace.cart.dto.response.CartResponse;
 import com.marketplace.common.controller.BaseCommandController;
 import com.marketplace.common.dto.ApiResponse;
@@ -16,6 +19,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -79,4 +83,21 @@ public class CartController extends BaseCommandController {
         CartResponse response = execute(RemoveFromCartCommand.class, request);
         return okResponse("Item removed from cart", response);
     }
+
+    @PatchMapping("/items")
+    public ResponseEntity<ApiResponse<CartResponse>> updateCartItems(
+            @RequestHeader(USER_ID_HEADER) String userIdHeader,
+            @Valid @RequestBody UpdateCartItemsRequest request) {
+
+        UUID userId = UUID.fromString(userIdHeader);
+        log.info("Update cart items request for user: {}, operations: {}", userId, request.getOperations().size());
+
+        UpdateCartItemsCommandRequest commandRequest = UpdateCartItemsCommandRequest.builder()
+                .userId(userId)
+                .updateCartItemsRequest(request)
+                .build();
+
+        CartResponse response = execute(UpdateCartItemsCommand.class, commandRequest);
+        return okResponse("Cart updated", response);
+    }
 }
@@ -0,0 +1,38 @@
+package com.marketplace.cart.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.marketplace.cart.constant.CartConstants;
+import com.marketplace.cart.store.CartMutation;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One operation of a bulk cart update.
+ * ADD adds the quantity to the item, SET replaces its quantity and REMOVE deletes it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartItemOperation {
+    @NotNull(message = CartConstants.ValidationMessages.OPERATION_TYPE_REQUIRED)
+    private CartMutation.Type op;
+
+    @NotBlank(message = CartConstants.ValidationMessages.PRODUCT_ID_REQUIRED)
+    private String productId;
+
+    @Min(value = 1, message = CartConstants.ValidationMessages.QUANTITY_MIN)
+    private Integer quantity;
+
+    @JsonIgnore
+    @AssertTrue(message = CartConstants.ValidationMessages.QUANTITY_REQUIRED)
+    public boolean isQuantityPresent() {
+        return op == CartMutation.Type.REMOVE || quantity != null;
+    }
+}
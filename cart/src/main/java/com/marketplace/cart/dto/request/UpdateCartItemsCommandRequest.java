@@ -0,0 +1,17 @@
+package com.marketplace.cart.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpdateCartItemsCommandRequest {
+    private UUID userId;
+    private UpdateCartItemsRequest updateCartItemsRequest;
+}
@@ -0,0 +1,26 @@
+package com.marketplace.cart.dto.request;
+
+import com.marketplace.cart.constant.CartConstants;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request to apply several item operations to the cart at once.
+ * Operations are applied in order, all or none.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpdateCartItemsRequest {
+    @NotEmpty(message = CartConstants.ValidationMessages.OPERATIONS_REQUIRED)
+    @Size(max = 100, message = CartConstants.ValidationMessages.OPERATIONS_MAX)
+    private List<@Valid CartItemOperation> operations;
+}
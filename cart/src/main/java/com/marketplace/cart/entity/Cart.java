@@ -11,7 +11,7 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "carts")
+@Table(name = "carts", indexes = @Index(name = "ux_carts_user_id", columnList = "user_id", unique = true))
 @Data
 @Builder
 @NoArgsConstructor
@@ -25,6 +25,9 @@ public class Cart {
     @Column(nullable = false)
     private UUID userId; // Changed from username to userId
 
+    @Version
+    private Long version;
+
     @Builder.Default
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
     @JoinColumn(name = "cart_id")
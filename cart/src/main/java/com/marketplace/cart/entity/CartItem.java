@@ -10,7 +10,8 @@ import java.math.BigDecimal;
 import java.util.UUID;
 
 @Entity
-@Table(name = "cart_items")
+@Table(name = "cart_items", indexes = @Index(name = "ux_cart_items_cart_id_product_id",
+        columnList = "cart_id, product_id", unique = true))
 @Data
 @Builder
 @NoArgsConstructor
@@ -0,0 +1,18 @@
+package com.marketplace.cart.exception;
+
+import com.marketplace.cart.constant.CartConstants;
+import com.marketplace.common.exception.BaseException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Exception thrown when a cart write still conflicts with concurrent writes after all retries
+ */
+public class CartConflictException extends BaseException {
+
+    public CartConflictException(Throwable cause) {
+        super(CartConstants.ErrorMessages.CART_CONFLICT,
+                cause,
+                HttpStatus.CONFLICT.value(),
+                "CART_CONFLICT");
+    }
+}
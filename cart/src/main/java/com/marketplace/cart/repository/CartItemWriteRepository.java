@@ -0,0 +1,80 @@
+package com.marketplace.cart.repository;
+
+import com.marketplace.cart.entity.CartItem;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Row-level cart writes that bypass loading the cart aggregate. Each method is a single SQL
+ * statement, so its cost does not grow with the number of items in the cart and concurrent
+ * writes to the same item are merged by the database instead of overwriting each other.
+ * <p>
+ * A command that writes items ends with {@link #bumpVersion}, which fails if another command
+ * changed the cart since it was read, so the whole command is retried against the new state.
+ */
+public interface CartItemWriteRepository {
+
+    /**
+     * The cart id with the version it was read at.
+     */
+    record CartRef(UUID id, long version) {
+    }
+
+    Optional<CartRef> findCart(UUID userId);
+
+    /**
+     * Return the user's cart, creating the cart if the user has none.
+     */
+    CartRef findOrCreateCart(UUID userId);
+
+    /**
+     * Return the user's cart, creating it with {@code newCartId} if the user has none.
+     */
+    CartRef findOrCreateCart(UUID userId, UUID newCartId);
+
+    /**
+     * Increment the cart version if it is still the version in {@code cart}.
+     *
+     * @throws org.springframework.orm.ObjectOptimisticLockingFailureException if the cart was
+     *         changed or deleted since it was read
+     */
+    void bumpVersion(CartRef cart);
+
+    /**
+     * Set the cart version if it is lower than {@code version}.
+     *
+     * @return false if the cart is already at {@code version} or later
+     */
+    boolean advanceVersion(UUID cartId, long version);
+
+    /**
+     * Replace all items of each cart with the given ones, in two JDBC batches.
+     */
+    void replaceItems(Map<UUID, List<CartItem>> itemsByCart);
+
+    /**
+     * Insert the item, or add its quantity to the existing item for the same product and
+     * refresh the price.
+     */
+    void upsertItem(UUID cartId, CartItem item);
+
+    /**
+     * Write the given items with their exact quantities and delete the given products, in two
+     * JDBC batches.
+     */
+    void writeItems(UUID cartId, List<CartItem> items, Collection<String> removedProductIds);
+
+    /**
+     * @return the number of rows deleted, 0 when the product is not in the cart
+     */
+    int deleteItem(UUID cartId, String productId);
+
+    /**
+     * Read the items of a cart as detached entities, without loading the cart.
+     */
+    List<CartItem> findItems(UUID cartId);
+}
@@ -0,0 +1,179 @@
+package com.marketplace.cart.repository;
+
+import com.marketplace.cart.entity.Cart;
+import com.marketplace.cart.entity.CartItem;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * JDBC implementation of {@link CartItemWriteRepository}. PostgreSQL uses
+ * {@code INSERT ... ON CONFLICT}, which is atomic against concurrent inserts of the same key;
+ * other databases (H2 in tests) fall back to {@code MERGE}.
+ */
+class CartItemWriteRepositoryImpl implements CartItemWriteRepository {
+
+    private static final String FIND_CART = "SELECT id, version FROM carts WHERE user_id = ?";
+
+    private static final String BUMP_VERSION = "UPDATE carts SET version = version + 1 WHERE id = ? AND version = ?";
+
+    private static final String INSERT_CART_POSTGRES =
+            "INSERT INTO carts (id, user_id) VALUES (?, ?) ON CONFLICT (user_id) DO NOTHING";
+
+    private static final String INSERT_CART_MERGE = """
+            MERGE INTO carts c
+            USING (VALUES (CAST(? AS UUID), CAST(? AS UUID))) s (id, user_id)
+            ON c.user_id = s.user_id
+            WHEN NOT MATCHED THEN INSERT (id, user_id) VALUES (s.id, s.user_id)""";
+
+    private static final String UPSERT_ITEM_POSTGRES = """
+            INSERT INTO cart_items (id, cart_id, product_id, product_name, price, quantity)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (cart_id, product_id)
+            DO UPDATE SET quantity = cart_items.quantity + EXCLUDED.quantity, price = EXCLUDED.price""";
+
+    private static final String UPSERT_ITEM_MERGE = """
+            MERGE INTO cart_items i
+            USING (VALUES (CAST(? AS UUID), CAST(? AS UUID), CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)),
+                           CAST(? AS NUMERIC(38, 2)), CAST(? AS INTEGER)))
+                  s (id, cart_id, product_id, product_name, price, quantity)
+            ON i.cart_id = s.cart_id AND i.product_id = s.product_id
+            WHEN MATCHED THEN UPDATE SET quantity = i.quantity + s.quantity, price = s.price
+            WHEN NOT MATCHED THEN INSERT (id, cart_id, product_id, product_name, price, quantity)
+                VALUES (s.id, s.cart_id, s.product_id, s.product_name, s.price, s.quantity)""";
+
+    private static final String ADVANCE_VERSION = "UPDATE carts SET version = ? WHERE id = ? AND version < ?";
+
+    private static final String DELETE_ITEMS = "DELETE FROM cart_items WHERE cart_id = ?";
+
+    private static final String INSERT_ITEM = """
+            INSERT INTO cart_items (id, cart_id, product_id, product_name, price, quantity)
+            VALUES (?, ?, ?, ?, ?, ?)""";
+
+    private static final String WRITE_ITEM_POSTGRES = """
+            INSERT INTO cart_items (id, cart_id, product_id, product_name, price, quantity)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (cart_id, product_id)
+            DO UPDATE SET quantity = EXCLUDED.quantity, price = EXCLUDED.price""";
+
+    private static final String WRITE_ITEM_MERGE = """
+            MERGE INTO cart_items i
+            USING (VALUES (CAST(? AS UUID), CAST(? AS UUID), CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)),
+                           CAST(? AS NUMERIC(38, 2)), CAST(? AS INTEGER)))
+                  s (id, cart_id, product_id, product_name, price, quantity)
+            ON i.cart_id = s.cart_id AND i.product_id = s.product_id
+            WHEN MATCHED THEN UPDATE SET quantity = s.quantity, price = s.price
+            WHEN NOT MATCHED THEN INSERT (id, cart_id, product_id, product_name, price, quantity)
+                VALUES (s.id, s.cart_id, s.product_id, s.product_name, s.price, s.quantity)""";
+
+    private static final String DELETE_ITEM = "DELETE FROM cart_items WHERE cart_id = ? AND product_id = ?";
+
+    private static final String FIND_ITEMS =
+            "SELECT id, product_id, product_name, price, quantity FROM cart_items WHERE cart_id = ?";
+
+    private static final RowMapper<CartRef> CART_MAPPER = (rs, rowNum) ->
+            new CartRef(rs.getObject("id", UUID.class), rs.getLong("version"));
+
+    private static final RowMapper<CartItem> ITEM_MAPPER = (rs, rowNum) -> CartItem.builder()
+            .id(rs.getObject("id", UUID.class))
+            .productId(rs.getString("product_id"))
+            .productName(rs.getString("product_name"))
+            .price(rs.getBigDecimal("price"))
+            .quantity(rs.getInt("quantity"))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean postgres;
+
+    CartItemWriteRepositoryImpl(JdbcTemplate jdbcTemplate) throws MetaDataAccessException {
+        this.jdbcTemplate = jdbcTemplate;
+        this.postgres = "PostgreSQL".equals(JdbcUtils.extractDatabaseMetaData(
+                jdbcTemplate.getDataSource(), DatabaseMetaData::getDatabaseProductName));
+    }
+
+    @Override
+    public Optional<CartRef> findCart(UUID userId) {
+        return jdbcTemplate.query(FIND_CART, CART_MAPPER, userId).stream().findFirst();
+    }
+
+    @Override
+    public CartRef findOrCreateCart(UUID userId) {
+        return findOrCreateCart(userId, UUID.randomUUID());
+    }
+
+    @Override
+    public CartRef findOrCreateCart(UUID userId, UUID newCartId) {
+        return findCart(userId).orElseGet(() -> {
+            // A concurrent first add for the same user inserts nothing here and reads the other cart
+            jdbcTemplate.update(postgres ? INSERT_CART_POSTGRES : INSERT_CART_MERGE, newCartId, userId);
+            return jdbcTemplate.queryForObject(FIND_CART, CART_MAPPER, userId);
+        });
+    }
+
+    @Override
+    public void bumpVersion(CartRef cart) {
+        if (jdbcTemplate.update(BUMP_VERSION, cart.id(), cart.version()) == 0) {
+            throw new ObjectOptimisticLockingFailureException(Cart.class, cart.id());
+        }
+    }
+
+    @Override
+    public void upsertItem(UUID cartId, CartItem item) {
+        jdbcTemplate.update(postgres ? UPSERT_ITEM_POSTGRES : UPSERT_ITEM_MERGE,
+                UUID.randomUUID(), cartId, item.getProductId(), item.getProductName(),
+                item.getPrice(), item.getQuantity());
+    }
+
+    @Override
+    public boolean advanceVersion(UUID cartId, long version) {
+        return jdbcTemplate.update(ADVANCE_VERSION, version, cartId, version) > 0;
+    }
+
+    @Override
+    public void replaceItems(Map<UUID, List<CartItem>> itemsByCart) {
+        List<Object[]> deletes = new ArrayList<>(itemsByCart.size());
+        List<Object[]> inserts = new ArrayList<>();
+        itemsByCart.forEach((cartId, items) -> {
+            deletes.add(new Object[]{cartId});
+            for (CartItem item : items) {
+                inserts.add(new Object[]{item.getId() != null ? item.getId() : UUID.randomUUID(), cartId,
+                        item.getProductId(), item.getProductName(), item.getPrice(), item.getQuantity()});
+            }
+        });
+        jdbcTemplate.batchUpdate(DELETE_ITEMS, deletes);
+        jdbcTemplate.batchUpdate(INSERT_ITEM, inserts);
+    }
+
+    @Override
+    public void writeItems(UUID cartId, List<CartItem> items, Collection<String> removedProductIds) {
+        List<Object[]> deletes = removedProductIds.stream()
+                .map(productId -> new Object[]{cartId, productId})
+                .toList();
+        List<Object[]> writes = items.stream()
+                .map(item -> new Object[]{item.getId() != null ? item.getId() : UUID.randomUUID(), cartId,
+                        item.getProductId(), item.getProductName(), item.getPrice(), item.getQuantity()})
+                .toList();
+        jdbcTemplate.batchUpdate(DELETE_ITEM, deletes);
+        jdbcTemplate.batchUpdate(postgres ? WRITE_ITEM_POSTGRES : WRITE_ITEM_MERGE, writes);
+    }
+
+    @Override
+    public int deleteItem(UUID cartId, String productId) {
+        return jdbcTemplate.update(DELETE_ITEM, cartId, productId);
+    }
+
+    @Override
+    public List<CartItem> findItems(UUID cartId) {
+        return jdbcTemplate.query(FIND_ITEMS, ITEM_MAPPER, cartId);
+    }
+}
@@ -1,6 +1,7 @@
 package com.marketplace.cart.repository;
 
 import com.marketplace.cart.entity.Cart;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -8,6 +9,12 @@ import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface CartRepository extends JpaRepository<Cart, UUID> {
+public interface CartRepository extends JpaRepository<Cart, UUID>, CartItemWriteRepository {
+
+    /**
+     * Load the cart with its items in one statement (left join), so mapping it to a response
+     * does not trigger a second query for the lazy collection.
+     */
+    @EntityGraph(attributePaths = "items")
     Optional<Cart> findByUserId(UUID userId);
 }
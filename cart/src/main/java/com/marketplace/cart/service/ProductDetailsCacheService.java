@@ -0,0 +1,77 @@
+package com.marketplace.cart.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.marketplace.cart.client.ProductServiceClient;
+import com.marketplace.cart.config.CartConfigProperties;
+import com.marketplace.cart.dto.response.ProductDetailsResponse;
+import com.marketplace.common.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded in-process cache of product details in front of {@link ProductServiceClient}.
+ * <p>
+ * Entries expire a short, configurable time after they are loaded, which bounds how stale a
+ * price can be when it is copied into a cart. Concurrent misses for the same product wait on
+ * a single call to the product service. Failed lookups, including unknown products, are not
+ * cached.
+ */
+@Service
+public class ProductDetailsCacheService {
+
+    static final String CACHE_NAME = "cart.product-details";
+
+    private final ProductServiceClient productServiceClient;
+    private final boolean enabled;
+    private final Cache<String, ProductDetailsResponse> cache;
+
+    public ProductDetailsCacheService(ProductServiceClient productServiceClient,
+                                      CartConfigProperties properties,
+                                      MeterRegistry meterRegistry) {
+        CartConfigProperties.ProductCache config = properties.getProductCache();
+        this.productServiceClient = productServiceClient;
+        this.enabled = config.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Return product details, calling the product service only on a cache miss.
+     *
+     * @throws com.marketplace.common.exception.ResourceNotFoundException if the product does not exist
+     */
+    public ProductDetailsResponse getProductById(String productId) {
+        if (!enabled) {
+            return productServiceClient.getProductById(productId);
+        }
+        return cache.get(productId, productServiceClient::getProductById);
+    }
+
+    /**
+     * Return details of several products, fetching all cache misses in one batch call.
+     *
+     * @return the products keyed by ID
+     * @throws ResourceNotFoundException if any of the products does not exist
+     */
+    public Map<String, ProductDetailsResponse> getProductsByIds(Collection<String> productIds) {
+        Map<String, ProductDetailsResponse> products = enabled
+                ? cache.getAll(productIds, missing -> productServiceClient.getProductsByIds(List.copyOf(missing)))
+                : productServiceClient.getProductsByIds(productIds);
+        for (String productId : productIds) {
+            if (!products.containsKey(productId)) {
+                throw new ResourceNotFoundException("Product", productId);
+            }
+        }
+        return products;
+    }
+}
@@ -0,0 +1,106 @@
+package com.marketplace.cart.store;
+
+import com.marketplace.cart.entity.CartItem;
+import com.marketplace.cart.exception.CartItemNotFoundException;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * One change in a bulk cart update.
+ *
+ * @param productName current product name, unused for {@link Type#REMOVE}
+ * @param price current product price, unused for {@link Type#REMOVE}
+ * @param quantity quantity to add ({@link Type#ADD}) or to set ({@link Type#SET})
+ */
+public record CartMutation(Type type, String productId, String productName, BigDecimal price, int quantity) {
+
+    public enum Type {
+        ADD, SET, REMOVE
+    }
+
+    /**
+     * Apply mutations in order to copies of the items; the given items are not modified.
+     * Items added by a mutation get a new id.
+     *
+     * @return the resulting items keyed by product ID, in cart order
+     * @throws CartItemNotFoundException if a REMOVE names a product that is not in the cart
+     */
+    static Map<String, CartItem> apply(List<CartItem> items, List<CartMutation> mutations) {
+        Map<String, CartItem> result = new LinkedHashMap<>();
+        for (CartItem item : items) {
+            result.put(item.getProductId(), copy(item));
+        }
+
+        for (CartMutation mutation : mutations) {
+            CartItem existing = result.get(mutation.productId());
+            switch (mutation.type()) {
+                case ADD, SET -> {
+                    if (existing == null) {
+                        result.put(mutation.productId(), CartItem.builder()
+                                .id(UUID.randomUUID())
+                                .productId(mutation.productId())
+                                .productName(mutation.productName())
+                                .price(mutation.price())
+                                .quantity(mutation.quantity())
+                                .build());
+                    } else {
+                        existing.setQuantity(mutation.type() == Type.ADD
+                                ? existing.getQuantity() + mutation.quantity()
+                                : mutation.quantity());
+                        existing.setPrice(mutation.price());
+                    }
+                }
+                case REMOVE -> {
+                    if (result.remove(mutation.productId()) == null) {
+                        throw new CartItemNotFoundException(mutation.productId());
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return items in {@code after} that are new or differ from {@code before}
+     */
+    static List<CartItem> changedItems(List<CartItem> before, Map<String, CartItem> after) {
+        Map<String, CartItem> previous = byProductId(before);
+        return after.values().stream()
+                .filter(item -> !item.equals(previous.get(item.getProductId())))
+                .toList();
+    }
+
+    /**
+     * @return products in {@code before} that are not in {@code after}
+     */
+    static List<String> removedProductIds(List<CartItem> before, Map<String, CartItem> after) {
+        return before.stream()
+                .map(CartItem::getProductId)
+                .filter(productId -> !after.containsKey(productId))
+                .toList();
+    }
+
+    static boolean onlyRemoves(List<CartMutation> mutations) {
+        return mutations.stream().allMatch(mutation -> mutation.type() == Type.REMOVE);
+    }
+
+    private static Map<String, CartItem> byProductId(List<CartItem> items) {
+        Map<String, CartItem> byProductId = new LinkedHashMap<>();
+        items.forEach(item -> byProductId.put(item.getProductId(), item));
+        return byProductId;
+    }
+
+    private static CartItem copy(CartItem item) {
+        return CartItem.builder()
+                .id(item.getId())
+                .productId(item.getProductId())
+                .productName(item.getProductName())
+                .price(item.getPrice())
+                .quantity(item.getQuantity())
+                .build();
+    }
+}
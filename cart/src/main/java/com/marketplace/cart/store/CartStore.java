@@ -0,0 +1,48 @@
+package com.marketplace.cart.store;
+
+import com.marketplace.cart.entity.Cart;
+import com.marketplace.cart.entity.CartItem;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Where carts are read and written. Selected with {@code cart.store.type}: {@code jpa}
+ * ({@link JpaCartStore}, the default) or {@code redis} ({@link RedisCartStore}).
+ * Returned carts are detached snapshots.
+ */
+public interface CartStore {
+
+    /**
+     * @return the user's cart, or empty if the user has none
+     */
+    Optional<Cart> find(UUID userId);
+
+    /**
+     * Add the item to the user's cart, creating the cart if needed. The quantity is added to an
+     * existing item for the same product and its price is refreshed.
+     *
+     * @return the cart after the change
+     */
+    Cart addItem(UUID userId, CartItem item);
+
+    /**
+     * @return the cart after the change
+     * @throws com.marketplace.cart.exception.CartNotFoundException if the user has no cart
+     * @throws com.marketplace.cart.exception.CartItemNotFoundException if the product is not in the cart
+     */
+    Cart removeItem(UUID userId, String productId);
+
+    /**
+     * Apply the mutations in order, as one atomic change to the cart. The cart is created if
+     * needed unless every mutation is a REMOVE.
+     *
+     * @return the cart after the change
+     * @throws com.marketplace.cart.exception.CartNotFoundException if the user has no cart and
+     *         every mutation is a REMOVE
+     * @throws com.marketplace.cart.exception.CartItemNotFoundException if a REMOVE names a product
+     *         that is not in the cart; no mutation is applied then
+     */
+    Cart applyMutations(UUID userId, List<CartMutation> mutations);
+}
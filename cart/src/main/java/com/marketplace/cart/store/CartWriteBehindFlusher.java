@@ -0,0 +1,231 @@
+package com.marketplace.cart.store;
+
+import com.marketplace.cart.config.CartConfigProperties;
+import com.marketplace.cart.entity.Cart;
+import com.marketplace.cart.entity.CartItem;
+import com.marketplace.cart.repository.CartItemWriteRepository.CartRef;
+import com.marketplace.cart.repository.CartRepository;
+import com.marketplace.cart.store.RedisCartStore.DirtyCart;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Writes carts changed in {@link RedisCartStore} to PostgreSQL and drops idle carts from Redis.
+ * <p>
+ * Every {@code flush-interval} the oldest dirty carts are claimed from the dirty set in batches
+ * of {@code flush-batch-size} and written in one transaction: each cart's items are replaced by
+ * its current Redis contents. The cart version is set to the Redis revision first, and a cart
+ * whose PostgreSQL version is already at or past that revision is skipped, so a slow flush can
+ * never overwrite a newer one from another node. Claimed carts stay in an in-flight set until
+ * the write commits; a node that dies mid-flush leaves them there until {@code flush-timeout},
+ * when the next claim makes them dirty again.
+ * <p>
+ * When a batch fails each cart is retried in its own transaction. If none of them can be
+ * written the batch goes back in the dirty set unchanged; otherwise the carts that still fail
+ * are counted as poisoned and moved to the back of the queue, so they can't hold up the rest.
+ * <p>
+ * Idle carts are evicted after the dirty carts are flushed; a dirty cart is never evicted, so
+ * an idle cart is always written before it leaves Redis. The remaining dirty carts are flushed
+ * on shutdown.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "cart.store", name = "type", havingValue = "redis")
+public class CartWriteBehindFlusher {
+
+    private final RedisCartStore store;
+    private final CartRepository cartRepository;
+    private final TransactionOperations transactionOperations;
+    private final CartConfigProperties.Store config;
+
+    private final DistributionSummary batchSize;
+    private final Timer lag;
+    private final Counter failures;
+    private final Counter poisoned;
+    private final Counter evictions;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public CartWriteBehindFlusher(RedisCartStore store,
+                                  CartRepository cartRepository,
+                                  TransactionOperations transactionOperations,
+                                  CartConfigProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.store = store;
+        this.cartRepository = cartRepository;
+        this.transactionOperations = transactionOperations;
+        this.config = properties.getStore();
+
+        this.batchSize = DistributionSummary.builder("cart.store.flush.batch")
+                .description("Carts written to PostgreSQL per flush")
+                .register(meterRegistry);
+        this.lag = Timer.builder("cart.store.flush.lag")
+                .description("Time from a cart change in Redis to its write to PostgreSQL")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.failures = Counter.builder("cart.store.flush.failures")
+                .description("Flush batches that failed and were retried cart by cart")
+                .register(meterRegistry);
+        this.poisoned = Counter.builder("cart.store.flush.poisoned")
+                .description("Carts that failed to flush on their own and were moved to the back of the queue")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("cart.store.evictions")
+                .description("Idle carts dropped from Redis after being flushed")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        worker = Thread.ofVirtual().name("cart-flusher").start(this::run);
+        log.info("Cart write-behind flusher started, interval {}", config.getFlushInterval());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.join(config.getFlushInterval().multipliedBy(2).toMillis());
+        }
+        int flushed;
+        do {
+            flushed = flush();
+        } while (flushed > 0);
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                int flushed;
+                do {
+                    flushed = flush();
+                } while (flushed == config.getFlushBatchSize());
+                evictIdle();
+                Thread.sleep(config.getFlushInterval().toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Cart flush cycle failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Write one batch of dirty carts to PostgreSQL.
+     *
+     * @return the number of carts taken from the dirty set, 0 when there were none or none could be written
+     */
+    int flush() {
+        List<DirtyCart> dirty = store.claimDirty(config.getFlushBatchSize(),
+                System.currentTimeMillis() - config.getFlushTimeout().toMillis());
+        if (dirty.isEmpty()) {
+            return 0;
+        }
+
+        List<DirtyCart> written = dirty;
+        try {
+            transactionOperations.executeWithoutResult(status -> write(dirty));
+        } catch (Exception e) {
+            failures.increment();
+            log.warn("Failed to flush {} carts, retrying one by one: {}", dirty.size(), e.getMessage());
+            written = writeEach(dirty);
+            if (written.isEmpty()) {
+                // Nothing could be written, most likely PostgreSQL is down: keep the queue order
+                store.requeue(dirty);
+                log.error("Failed to flush {} carts, will retry", dirty.size());
+                return 0;
+            }
+        }
+        store.completeFlush(written);
+
+        long now = System.currentTimeMillis();
+        written.forEach(cart -> lag.record(Duration.ofMillis(Math.max(0, now - cart.dirtySinceMillis()))));
+        batchSize.record(written.size());
+        log.debug("Flushed {} carts to PostgreSQL", written.size());
+        return dirty.size();
+    }
+
+    /**
+     * Write each cart in its own transaction and move the ones that fail, when others succeed,
+     * to the back of the dirty set.
+     *
+     * @return the carts that were written
+     */
+    private List<DirtyCart> writeEach(List<DirtyCart> dirty) {
+        List<DirtyCart> written = new ArrayList<>();
+        Map<DirtyCart, Exception> failed = new LinkedHashMap<>();
+        for (DirtyCart cart : dirty) {
+            try {
+                transactionOperations.executeWithoutResult(status -> write(List.of(cart)));
+                written.add(cart);
+            } catch (Exception e) {
+                failed.put(cart, e);
+            }
+        }
+        if (written.isEmpty()) {
+            return written;
+        }
+
+        long now = System.currentTimeMillis();
+        List<DirtyCart> deferred = new ArrayList<>();
+        failed.forEach((cart, e) -> {
+            poisoned.increment();
+            log.error("Cart for user {} failed to flush, moving it to the back of the queue: {}",
+                    cart.userId(), e.getMessage());
+            deferred.add(new DirtyCart(cart.userId(), now));
+        });
+        store.requeue(deferred);
+        return written;
+    }
+
+    private void write(List<DirtyCart> dirty) {
+        Map<UUID, List<CartItem>> itemsByCart = new LinkedHashMap<>();
+        for (DirtyCart dirtyCart : dirty) {
+            Optional<Cart> snapshot = store.snapshot(dirtyCart.userId());
+            if (snapshot.isEmpty()) {
+                log.warn("Dirty cart for user {} is no longer in Redis, nothing to flush", dirtyCart.userId());
+                continue;
+            }
+            Cart cart = snapshot.get();
+            CartRef stored = cartRepository.findOrCreateCart(cart.getUserId(), cart.getId());
+            if (cartRepository.advanceVersion(stored.id(), cart.getVersion())) {
+                itemsByCart.put(stored.id(), cart.getItems());
+            } else {
+                log.debug("Skipping flush of cart for user {}: PostgreSQL already has revision {}",
+                        cart.getUserId(), cart.getVersion());
+            }
+        }
+        cartRepository.replaceItems(itemsByCart);
+    }
+
+    /**
+     * Drop carts that are flushed and have not been used for {@code idle-ttl}.
+     */
+    void evictIdle() {
+        long idleBefore = System.currentTimeMillis() - config.getIdleTtl().toMillis();
+        for (UUID userId : store.idleCarts(idleBefore, config.getFlushBatchSize())) {
+            if (store.evict(userId, idleBefore)) {
+                evictions.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.marketplace.cart.store;
+
+import com.marketplace.cart.aspect.RetryOnConflict;
+import com.marketplace.cart.entity.Cart;
+import com.marketplace.cart.entity.CartItem;
+import com.marketplace.cart.exception.CartItemNotFoundException;
+import com.marketplace.cart.exception.CartNotFoundException;
+import com.marketplace.cart.repository.CartItemWriteRepository.CartRef;
+import com.marketplace.cart.repository.CartRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Cart store reading and writing PostgreSQL directly. Items are written with row-level upserts
+ * and deletes; each write then bumps the cart version and is retried if another write to the
+ * same cart committed in between.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "cart.store", name = "type", havingValue = "jpa", matchIfMissing = true)
+@RequiredArgsConstructor
+public class JpaCartStore implements CartStore {
+
+    private final CartRepository cartRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Cart> find(UUID userId) {
+        return cartRepository.findByUserId(userId);
+    }
+
+    @Override
+    @Transactional
+    @RetryOnConflict("ADD_TO_CART")
+    public Cart addItem(UUID userId, CartItem item) {
+        CartRef cart = cartRepository.findOrCreateCart(userId);
+
+        // One upsert adds the quantity in the database, so concurrent adds are never lost
+        cartRepository.upsertItem(cart.id(), item);
+
+        // Fails if another write committed since the cart was read, so the returned cart is
+        // never a mix of both writes; the write is then retried
+        cartRepository.bumpVersion(cart);
+
+        return load(cart, userId);
+    }
+
+    @Override
+    @Transactional
+    @RetryOnConflict("REMOVE_FROM_CART")
+    public Cart removeItem(UUID userId, String productId) {
+        CartRef cart = cartRepository.findCart(userId)
+                .orElseThrow(() -> new CartNotFoundException(userId.toString()));
+
+        if (cartRepository.deleteItem(cart.id(), productId) == 0) {
+            log.warn("Product {} not found in cart for user: {}", productId, userId);
+            throw new CartItemNotFoundException(productId);
+        }
+
+        cartRepository.bumpVersion(cart);
+
+        return load(cart, userId);
+    }
+
+    /**
+     * Loads the cart and its items in one statement, applies the mutations in memory and writes
+     * only the changed rows. Because the write ends with the version check, computing absolute
+     * quantities from the loaded items is safe: a concurrent write makes the whole update retry.
+     */
+    @Override
+    @Transactional
+    @RetryOnConflict("UPDATE_CART_ITEMS")
+    public Cart applyMutations(UUID userId, List<CartMutation> mutations) {
+        Optional<Cart> stored = cartRepository.findByUserId(userId);
+        if (stored.isEmpty() && CartMutation.onlyRemoves(mutations)) {
+            throw new CartNotFoundException(userId.toString());
+        }
+        CartRef cart = stored
+                .map(existing -> new CartRef(existing.getId(), existing.getVersion()))
+                .orElseGet(() -> cartRepository.findOrCreateCart(userId));
+        List<CartItem> before = stored.map(Cart::getItems).orElse(List.of());
+
+        Map<String, CartItem> after = CartMutation.apply(before, mutations);
+        cartRepository.writeItems(cart.id(),
+                CartMutation.changedItems(before, after),
+                CartMutation.removedProductIds(before, after));
+        cartRepository.bumpVersion(cart);
+
+        return Cart.builder()
+                .id(cart.id())
+                .userId(userId)
+                .version(cart.version() + 1)
+                .items(new ArrayList<>(after.values()))
+                .build();
+    }
+
+    private Cart load(CartRef cart, UUID userId) {
+        return Cart.builder()
+                .id(cart.id())
+                .userId(userId)
+                .version(cart.version() + 1)
+                .items(new ArrayList<>(cartRepository.findItems(cart.id())))
+                .build();
+    }
+}
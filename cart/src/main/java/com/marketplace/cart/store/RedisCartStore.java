@@ -0,0 +1,361 @@
+package com.marketplace.cart.store;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketplace.cart.aspect.RetryOnConflict;
+import com.marketplace.cart.config.CartConfigProperties;
+import com.marketplace.cart.entity.Cart;
+import com.marketplace.cart.entity.CartItem;
+import com.marketplace.cart.exception.CartItemNotFoundException;
+import com.marketplace.cart.exception.CartNotFoundException;
+import com.marketplace.cart.repository.CartRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Cart store keeping active carts in Redis, one hash per cart with a field per product, written
+ * behind to PostgreSQL by {@link CartWriteBehindFlusher}.
+ * <p>
+ * A cart missing from Redis is loaded from PostgreSQL on first use. A user with no cart in
+ * either store gets a short-lived marker key instead, so repeated reads of an empty cart don't
+ * go to PostgreSQL or mark the user as active. Every write runs in one Lua
+ * script that changes the item, increments the cart revision ({@code _rev}) and adds the cart
+ * to the dirty set, so the flusher can never miss a change. Carts stay in Redis until they have
+ * been flushed and left unused for {@code idle-ttl}. A cart being flushed is held in a separate
+ * in-flight set until its write commits, so it can't be evicted in between. Redis must run with
+ * {@code maxmemory-policy noeviction} and persistence, or unflushed changes can be lost.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "cart.store", name = "type", havingValue = "redis")
+public class RedisCartStore implements CartStore {
+
+    static final String DIRTY_KEY = "cart:dirty";
+    static final String ACTIVE_KEY = "cart:active";
+    static final String FLUSHING_KEY = "cart:flushing";
+    static final String ID_FIELD = "_id";
+    static final String REVISION_FIELD = "_rev";
+
+    private static final RedisScript<List> ADD_ITEM_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/cart_add_item.lua"), List.class);
+    private static final RedisScript<List> REMOVE_ITEM_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/cart_remove_item.lua"), List.class);
+    private static final RedisScript<List> APPLY_ITEMS_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/cart_apply_items.lua"), List.class);
+    private static final RedisScript<List> CLAIM_DIRTY_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/cart_claim_dirty.lua"), List.class);
+    private static final RedisScript<Long> LOAD_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/cart_load.lua"), Long.class);
+    private static final RedisScript<Long> EVICT_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/cart_evict.lua"), Long.class);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * Item as stored in its hash field. The price is a string so it keeps its scale when the
+     * add script rewrites it.
+     */
+    record StoredItem(UUID id, String productName, String price, int quantity) {
+    }
+
+    /**
+     * A cart waiting to be flushed, with the time it first changed since its last flush.
+     */
+    record DirtyCart(UUID userId, long dirtySinceMillis) {
+    }
+
+    private final StringRedisTemplate redisTemplate;
+    private final CartRepository cartRepository;
+    private final Duration missTtl;
+
+    public RedisCartStore(StringRedisTemplate redisTemplate, CartRepository cartRepository,
+                          CartConfigProperties config) {
+        this.redisTemplate = redisTemplate;
+        this.cartRepository = cartRepository;
+        this.missTtl = config.getStore().getMissTtl();
+    }
+
+    @Override
+    public Optional<Cart> find(UUID userId) {
+        Map<String, String> fields = redisTemplate.<String, String>opsForHash().entries(cartKey(userId));
+        if (!fields.isEmpty()) {
+            touch(userId);
+            return Optional.of(toCart(userId, fields));
+        }
+        if (Boolean.TRUE.equals(redisTemplate.hasKey(missKey(userId)))) {
+            return Optional.empty();
+        }
+        return load(userId);
+    }
+
+    @Override
+    public Cart addItem(UUID userId, CartItem item) {
+        if (!ensureLoaded(userId)) {
+            redisTemplate.delete(missKey(userId));
+        }
+        String itemJson = write(new StoredItem(UUID.randomUUID(), item.getProductName(),
+                item.getPrice().toPlainString(), item.getQuantity()));
+        List<String> fields = script(ADD_ITEM_SCRIPT, userId, UUID.randomUUID().toString(),
+                item.getProductId(), itemJson, String.valueOf(item.getQuantity()), item.getPrice().toPlainString());
+        return toCart(userId, fields);
+    }
+
+    @Override
+    public Cart removeItem(UUID userId, String productId) {
+        if (!ensureLoaded(userId)) {
+            throw new CartNotFoundException(userId.toString());
+        }
+        List<String> fields = script(REMOVE_ITEM_SCRIPT, userId, productId);
+        if (fields.isEmpty()) {
+            log.warn("Product {} not found in cart for user: {}", productId, userId);
+            throw new CartItemNotFoundException(productId);
+        }
+        return toCart(userId, fields);
+    }
+
+    /**
+     * Computes the result from the current hash and writes it with a script that checks the
+     * revision is unchanged. A concurrent write to the cart fails the script and the update is
+     * retried from the new contents.
+     */
+    @Override
+    @RetryOnConflict("UPDATE_CART_ITEMS")
+    public Cart applyMutations(UUID userId, List<CartMutation> mutations) {
+        if (!ensureLoaded(userId)) {
+            if (CartMutation.onlyRemoves(mutations)) {
+                throw new CartNotFoundException(userId.toString());
+            }
+            redisTemplate.delete(missKey(userId));
+        }
+        Optional<Cart> current = snapshot(userId);
+        List<CartItem> before = current.map(Cart::getItems).orElse(List.of());
+        long revision = current.map(Cart::getVersion).orElse(0L);
+
+        Map<String, CartItem> after = CartMutation.apply(before, mutations);
+        List<String> removed = CartMutation.removedProductIds(before, after);
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(revision));
+        args.add(UUID.randomUUID().toString());
+        args.add(String.valueOf(removed.size()));
+        args.addAll(removed);
+        for (CartItem item : CartMutation.changedItems(before, after)) {
+            args.add(item.getProductId());
+            args.add(write(new StoredItem(item.getId(), item.getProductName(),
+                    item.getPrice().toPlainString(), item.getQuantity())));
+        }
+
+        List<String> fields = script(APPLY_ITEMS_SCRIPT, userId, args.toArray(String[]::new));
+        if (fields.isEmpty()) {
+            throw new OptimisticLockingFailureException("Cart for user " + userId + " changed during update");
+        }
+        return toCart(userId, fields);
+    }
+
+    /**
+     * Move up to {@code count} carts from the dirty set to the in-flight set, oldest change
+     * first. Carts claimed before {@code staleBeforeMillis} by a flush that never completed are
+     * put back in the dirty set first.
+     */
+    @SuppressWarnings("unchecked")
+    List<DirtyCart> claimDirty(int count, long staleBeforeMillis) {
+        List<String> claimed = redisTemplate.execute(CLAIM_DIRTY_SCRIPT, List.of(DIRTY_KEY, FLUSHING_KEY),
+                String.valueOf(System.currentTimeMillis()), String.valueOf(count), String.valueOf(staleBeforeMillis));
+        List<DirtyCart> carts = new ArrayList<>();
+        if (claimed != null) {
+            for (int i = 0; i + 1 < claimed.size(); i += 2) {
+                carts.add(new DirtyCart(UUID.fromString(claimed.get(i)), (long) Double.parseDouble(claimed.get(i + 1))));
+            }
+        }
+        return carts;
+    }
+
+    /**
+     * Release carts whose flush committed. A cart changed during the flush is already back in
+     * the dirty set.
+     */
+    void completeFlush(Collection<DirtyCart> carts) {
+        if (!carts.isEmpty()) {
+            redisTemplate.opsForZSet().remove(FLUSHING_KEY,
+                    carts.stream().map(cart -> cart.userId().toString()).toArray());
+        }
+    }
+
+    /**
+     * Put carts back in the dirty set after a failed flush, at the given change time unless they
+     * changed again meanwhile. They leave the in-flight set only once they are dirty again, so
+     * they can't be evicted in between.
+     */
+    void requeue(Collection<DirtyCart> carts) {
+        if (carts.isEmpty()) {
+            return;
+        }
+        Set<TypedTuple<String>> tuples = new LinkedHashSet<>();
+        carts.forEach(cart -> tuples.add(TypedTuple.of(cart.userId().toString(), (double) cart.dirtySinceMillis())));
+        redisTemplate.opsForZSet().addIfAbsent(DIRTY_KEY, tuples);
+        completeFlush(carts);
+    }
+
+    /**
+     * @return the cart with its revision in {@link Cart#getVersion()}, or empty if it is gone
+     */
+    Optional<Cart> snapshot(UUID userId) {
+        Map<String, String> fields = redisTemplate.<String, String>opsForHash().entries(cartKey(userId));
+        return fields.isEmpty() ? Optional.empty() : Optional.of(toCart(userId, fields));
+    }
+
+    /**
+     * @return up to {@code count} users whose carts were last used before {@code idleBeforeMillis}
+     */
+    List<UUID> idleCarts(long idleBeforeMillis, int count) {
+        Set<String> userIds = redisTemplate.opsForZSet().rangeByScore(ACTIVE_KEY, 0, idleBeforeMillis, 0, count);
+        return userIds == null ? List.of() : userIds.stream().map(UUID::fromString).toList();
+    }
+
+    /**
+     * Drop the cart from Redis unless it is dirty, being flushed or was used after
+     * {@code idleBeforeMillis}.
+     */
+    boolean evict(UUID userId, long idleBeforeMillis) {
+        Long evicted = redisTemplate.execute(EVICT_SCRIPT, List.of(cartKey(userId), DIRTY_KEY, ACTIVE_KEY, FLUSHING_KEY),
+                userId.toString(), String.valueOf(idleBeforeMillis));
+        return evicted != null && evicted > 0;
+    }
+
+    /**
+     * Make sure the cart is in Redis, loading it from PostgreSQL if needed. Marking the cart as
+     * used first keeps it from being evicted before the caller's write lands.
+     *
+     * @return false if the user has no cart in either store
+     */
+    private boolean ensureLoaded(UUID userId) {
+        touch(userId);
+        if (Boolean.TRUE.equals(redisTemplate.hasKey(cartKey(userId)))) {
+            return true;
+        }
+        return !Boolean.TRUE.equals(redisTemplate.hasKey(missKey(userId))) && load(userId).isPresent();
+    }
+
+    /**
+     * Load the cart from PostgreSQL, or remember for {@code miss-ttl} that the user has none.
+     */
+    private Optional<Cart> load(UUID userId) {
+        Optional<Cart> stored = cartRepository.findByUserId(userId);
+        if (stored.isEmpty()) {
+            redisTemplate.opsForValue().set(missKey(userId), "1", missTtl);
+            return Optional.empty();
+        }
+        List<String> args = new ArrayList<>();
+        args.add(userId.toString());
+        args.add(String.valueOf(System.currentTimeMillis()));
+        toFields(stored.get()).forEach((field, value) -> {
+            args.add(field);
+            args.add(value);
+        });
+        Long loaded = redisTemplate.execute(LOAD_SCRIPT, List.of(cartKey(userId), ACTIVE_KEY), args.toArray());
+        if (loaded != null && loaded > 0) {
+            log.debug("Loaded cart for user {} from PostgreSQL", userId);
+            return stored;
+        }
+        // Another request loaded or created the cart first; its copy is the current one
+        return snapshot(userId);
+    }
+
+    private void touch(UUID userId) {
+        redisTemplate.opsForZSet().add(ACTIVE_KEY, userId.toString(), System.currentTimeMillis());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> script(RedisScript<List> script, UUID userId, String... args) {
+        Object[] scriptArgs = new Object[args.length + 2];
+        scriptArgs[0] = userId.toString();
+        scriptArgs[1] = String.valueOf(System.currentTimeMillis());
+        System.arraycopy(args, 0, scriptArgs, 2, args.length);
+        List<String> result = redisTemplate.execute(script, List.of(cartKey(userId), DIRTY_KEY, ACTIVE_KEY), scriptArgs);
+        return result != null ? result : List.of();
+    }
+
+    static String cartKey(UUID userId) {
+        return "cart:" + userId;
+    }
+
+    /**
+     * Key marking that the user had no cart in PostgreSQL when last looked up.
+     */
+    static String missKey(UUID userId) {
+        return "cart:none:" + userId;
+    }
+
+    static Map<String, String> toFields(Cart cart) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put(ID_FIELD, cart.getId().toString());
+        fields.put(REVISION_FIELD, String.valueOf(cart.getVersion() != null ? cart.getVersion() : 0));
+        for (CartItem item : cart.getItems()) {
+            fields.put(item.getProductId(), write(new StoredItem(item.getId(), item.getProductName(),
+                    item.getPrice().toPlainString(), item.getQuantity())));
+        }
+        return fields;
+    }
+
+    static Cart toCart(UUID userId, List<String> flatFields) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < flatFields.size(); i += 2) {
+            fields.put(flatFields.get(i), flatFields.get(i + 1));
+        }
+        return toCart(userId, fields);
+    }
+
+    static Cart toCart(UUID userId, Map<String, String> fields) {
+        List<CartItem> items = new ArrayList<>();
+        fields.forEach((field, value) -> {
+            if (!ID_FIELD.equals(field) && !REVISION_FIELD.equals(field)) {
+                StoredItem stored = read(value);
+                items.add(CartItem.builder()
+                        .id(stored.id())
+                        .productId(field)
+                        .productName(stored.productName())
+                        .price(new BigDecimal(stored.price()))
+                        .quantity(stored.quantity())
+                        .build());
+            }
+        });
+        return Cart.builder()
+                .id(fields.containsKey(ID_FIELD) ? UUID.fromString(fields.get(ID_FIELD)) : null)
+                .userId(userId)
+                .version(Long.parseLong(fields.getOrDefault(REVISION_FIELD, "0")))
+                .items(items)
+                .build();
+    }
+
+    private static String write(StoredItem item) {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(item);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize cart item", e);
+        }
+    }
+
+    private static StoredItem read(String json) {
+        try {
+            return OBJECT_MAPPER.readValue(json, StoredItem.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read cart item", e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+-- Schema previously created by ddl-auto=update. Existing databases are baselined at this
+-- version and skip it; IF NOT EXISTS keeps it harmless if it runs against them anyway.
+CREATE TABLE IF NOT EXISTS carts (
+    id      UUID NOT NULL PRIMARY KEY,
+    user_id UUID NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS cart_items (
+    id           UUID NOT NULL PRIMARY KEY,
+    cart_id      UUID REFERENCES carts (id),
+    product_id   VARCHAR(255),
+    product_name VARCHAR(255),
+    price        NUMERIC(38, 2),
+    quantity     INTEGER
+);
@@ -0,0 +1,6 @@
+-- One cart per user; also turns the cart lookup by user into an index scan.
+-- Fails if duplicate carts already exist for a user; merge them before migrating.
+CREATE UNIQUE INDEX IF NOT EXISTS ux_carts_user_id ON carts (user_id);
+
+-- One line per product in a cart. cart_id leads, so loading a cart's items uses it too.
+CREATE UNIQUE INDEX IF NOT EXISTS ux_cart_items_cart_id_product_id ON cart_items (cart_id, product_id);
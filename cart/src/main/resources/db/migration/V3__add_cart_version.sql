@@ -0,0 +1,2 @@
+-- Optimistic locking version for the cart aggregate, bumped by every write to the cart or its items
+ALTER TABLE carts ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,32 @@
+-- Add an item to a cart hash, or add to the quantity of the item already there, and mark the
+-- cart dirty for the write-behind flusher in the same atomic call.
+--
+-- KEYS[1]  cart hash key: one field per product id holding the item JSON, plus _id and _rev
+-- KEYS[2]  dirty carts sorted set (score = when the cart first changed since its last flush)
+-- KEYS[3]  active carts sorted set (score = when the cart was last used)
+-- ARGV[1]  user id
+-- ARGV[2]  current time in milliseconds
+-- ARGV[3]  cart id, used only if the cart is new
+-- ARGV[4]  product id
+-- ARGV[5]  item JSON, stored as is if the product is not in the cart yet
+-- ARGV[6]  quantity to add
+-- ARGV[7]  current price
+--
+-- Returns the cart hash as a flat field/value list
+
+local current = redis.call('HGET', KEYS[1], ARGV[4])
+if current then
+    local item = cjson.decode(current)
+    item.quantity = item.quantity + tonumber(ARGV[6])
+    item.price = ARGV[7]
+    current = cjson.encode(item)
+else
+    current = ARGV[5]
+end
+
+redis.call('HSETNX', KEYS[1], '_id', ARGV[3])
+redis.call('HSET', KEYS[1], ARGV[4], current)
+redis.call('HINCRBY', KEYS[1], '_rev', 1)
+redis.call('ZADD', KEYS[2], 'NX', ARGV[2], ARGV[1])
+redis.call('ZADD', KEYS[3], ARGV[2], ARGV[1])
+return redis.call('HGETALL', KEYS[1])
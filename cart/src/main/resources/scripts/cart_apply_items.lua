@@ -0,0 +1,34 @@
+-- Write the result of a bulk update to a cart hash if the cart is still at the revision the
+-- update was computed from, and mark the cart dirty in the same atomic call.
+--
+-- KEYS[1]      cart hash key
+-- KEYS[2]      dirty carts sorted set
+-- KEYS[3]      active carts sorted set
+-- ARGV[1]      user id
+-- ARGV[2]      current time in milliseconds
+-- ARGV[3]      expected revision (0 for a cart that does not exist yet)
+-- ARGV[4]      cart id, used only if the cart is new
+-- ARGV[5]      number n of products to remove
+-- ARGV[6..5+n] product ids to remove
+-- ARGV[6+n..]  product id / item JSON pairs to write
+--
+-- Returns the cart hash as a flat field/value list, or an empty list if the revision changed
+
+local revision = tonumber(redis.call('HGET', KEYS[1], '_rev') or '0')
+if revision ~= tonumber(ARGV[3]) then
+    return {}
+end
+
+local removals = tonumber(ARGV[5])
+for i = 6, 5 + removals do
+    redis.call('HDEL', KEYS[1], ARGV[i])
+end
+for i = 6 + removals, #ARGV, 2 do
+    redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1])
+end
+
+redis.call('HSETNX', KEYS[1], '_id', ARGV[4])
+redis.call('HINCRBY', KEYS[1], '_rev', 1)
+redis.call('ZADD', KEYS[2], 'NX', ARGV[2], ARGV[1])
+redis.call('ZADD', KEYS[3], ARGV[2], ARGV[1])
+return redis.call('HGETALL', KEYS[1])
@@ -0,0 +1,23 @@
+-- Claim the oldest dirty carts for a flush: move them from the dirty set to the in-flight set,
+-- which keeps them from being evicted until the flush commits and releases them.
+--
+-- KEYS[1]  dirty carts sorted set (score = when the cart first changed since its last flush)
+-- KEYS[2]  in-flight carts sorted set (score = when the flush claimed the cart)
+-- ARGV[1]  current time in milliseconds
+-- ARGV[2]  maximum number of carts to claim
+-- ARGV[3]  claims older than this time in milliseconds belong to a flush that never completed
+--
+-- Returns the claimed carts as a flat user id / dirty-since list, oldest first
+
+-- Carts left behind by a node that died mid-flush are dirty again, ordered by their claim time
+local stale = redis.call('ZRANGEBYSCORE', KEYS[2], '-inf', ARGV[3], 'WITHSCORES')
+for i = 1, #stale, 2 do
+    redis.call('ZADD', KEYS[1], 'NX', stale[i + 1], stale[i])
+    redis.call('ZREM', KEYS[2], stale[i])
+end
+
+local claimed = redis.call('ZPOPMIN', KEYS[1], ARGV[2])
+for i = 1, #claimed, 2 do
+    redis.call('ZADD', KEYS[2], ARGV[1], claimed[i])
+end
+return claimed
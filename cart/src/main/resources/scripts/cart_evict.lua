@@ -0,0 +1,23 @@
+-- Drop an idle cart from Redis once it has been flushed to PostgreSQL.
+--
+-- KEYS[1]  cart hash key
+-- KEYS[2]  dirty carts sorted set
+-- KEYS[3]  active carts sorted set
+-- KEYS[4]  in-flight carts sorted set
+-- ARGV[1]  user id
+-- ARGV[2]  time in milliseconds the cart must not have been used since
+--
+-- Returns 1 if the cart was evicted, 0 if it is dirty, being flushed or was used again
+
+if redis.call('ZSCORE', KEYS[2], ARGV[1]) or redis.call('ZSCORE', KEYS[4], ARGV[1]) then
+    return 0
+end
+
+local used = redis.call('ZSCORE', KEYS[3], ARGV[1])
+if used and tonumber(used) > tonumber(ARGV[2]) then
+    return 0
+end
+
+redis.call('DEL', KEYS[1])
+redis.call('ZREM', KEYS[3], ARGV[1])
+return 1
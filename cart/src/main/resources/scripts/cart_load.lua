@@ -0,0 +1,17 @@
+-- Load a cart read from PostgreSQL into Redis unless the cart is already there.
+--
+-- KEYS[1]  cart hash key
+-- KEYS[2]  active carts sorted set
+-- ARGV[1]  user id
+-- ARGV[2]  current time in milliseconds
+-- ARGV[3..] cart hash as field/value pairs
+--
+-- Returns 1 if the cart was loaded, 0 if another request loaded or created it first
+
+if redis.call('EXISTS', KEYS[1]) == 1 then
+    return 0
+end
+
+redis.call('HSET', KEYS[1], unpack(ARGV, 3))
+redis.call('ZADD', KEYS[2], ARGV[2], ARGV[1])
+return 1
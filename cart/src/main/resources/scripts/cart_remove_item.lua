@@ -0,0 +1,20 @@
+-- Remove a product from a cart hash and mark the cart dirty in the same atomic call.
+--
+-- KEYS[1]  cart hash key
+-- KEYS[2]  dirty carts sorted set
+-- KEYS[3]  active carts sorted set
+-- ARGV[1]  user id
+-- ARGV[2]  current time in milliseconds
+-- ARGV[3]  product id
+--
+-- Returns the cart hash as a flat field/value list, or an empty list if the product was not
+-- in the cart (a cart hash always holds _id, so it is never empty otherwise)
+
+if redis.call('HDEL', KEYS[1], ARGV[3]) == 0 then
+    return {}
+end
+
+redis.call('HINCRBY', KEYS[1], '_rev', 1)
+redis.call('ZADD', KEYS[2], 'NX', ARGV[2], ARGV[1])
+redis.call('ZADD', KEYS[3], ARGV[2], ARGV[1])
+return redis.call('HGETALL', KEYS[1])
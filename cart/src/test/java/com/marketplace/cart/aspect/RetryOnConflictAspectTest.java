@@ -0,0 +1,108 @@
+package com.marketplace.cart.aspect;
+
+import com.marketplace.cart.config.CartConfigProperties;
+import com.marketplace.cart.entity.Cart;
+import com.marketplace.cart.exception.CartConflictException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RetryOnConflictAspectTest {
+
+    private static final String OPERATION = "ADD_TO_CART";
+
+    @Mock
+    private ProceedingJoinPoint joinPoint;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RetryOnConflictAspect aspect;
+    private RetryOnConflict annotation;
+
+    @BeforeEach
+    void setUp() {
+        CartConfigProperties properties = new CartConfigProperties();
+        properties.getConflictRetry().setMaxAttempts(3);
+        properties.getConflictRetry().setInitialBackoff(Duration.ofMillis(1));
+        properties.getConflictRetry().setMaxBackoff(Duration.ofMillis(4));
+        meterRegistry = new SimpleMeterRegistry();
+        aspect = new RetryOnConflictAspect(properties, meterRegistry);
+        annotation = mock(RetryOnConflict.class);
+        lenient().when(annotation.value()).thenReturn(OPERATION);
+    }
+
+    @Test
+    void retry_ConflictThenSuccess_ReturnsResultAndCountsRetry() throws Throwable {
+        // Arrange
+        when(joinPoint.proceed()).thenThrow(conflict()).thenReturn("cart");
+
+        // Act
+        Object result = aspect.retry(joinPoint, annotation);
+
+        // Assert
+        assertEquals("cart", result);
+        verify(joinPoint, times(2)).proceed();
+        assertEquals(1.0, conflicts("retried"));
+    }
+
+    @Test
+    void retry_ConflictOnEveryAttempt_ThrowsCartConflictException() throws Throwable {
+        // Arrange
+        when(joinPoint.proceed()).thenThrow(conflict());
+
+        // Act & Assert
+        assertThrows(CartConflictException.class, () -> aspect.retry(joinPoint, annotation));
+        verify(joinPoint, times(3)).proceed();
+        assertEquals(2.0, conflicts("retried"));
+        assertEquals(1.0, conflicts("exhausted"));
+    }
+
+    @Test
+    void retry_OtherException_IsNotRetried() throws Throwable {
+        // Arrange
+        when(joinPoint.proceed()).thenThrow(new IllegalStateException("boom"));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> aspect.retry(joinPoint, annotation));
+        verify(joinPoint, times(1)).proceed();
+    }
+
+    @Test
+    void backoffMillis_GrowsWithAttemptUpToMax() {
+        // Act & Assert
+        for (int i = 0; i < 100; i++) {
+            assertTrue(aspect.backoffMillis(1) <= 1);
+            assertTrue(aspect.backoffMillis(2) <= 2);
+            assertTrue(aspect.backoffMillis(10) <= 4);
+        }
+    }
+
+    private static ObjectOptimisticLockingFailureException conflict() {
+        return new ObjectOptimisticLockingFailureException(Cart.class, UUID.randomUUID());
+    }
+
+    private double conflicts(String outcome) {
+        return meterRegistry.get("cart.conflicts")
+                .tag("operation", OPERATION)
+                .tag("outcome", outcome)
+                .counter()
+                .count();
+    }
+}
@@ -3,10 +3,13 @@ package com.marketplace.cart.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.marketplace.cart.client.ProductServiceClient;
 import com.marketplace.cart.dto.request.AddToCartRequest;
+import com.marketplace.cart.dto.request.CartItemOperation;
+import com.marketplace.cart.dto.request.UpdateCartItemsRequest;
 import com.marketplace.cart.dto.response.ProductDetailsResponse;
 import com.marketplace.cart.entity.Cart;
 import com.marketplace.cart.entity.CartItem;
 import com.marketplace.cart.repository.CartRepository;
+import com.marketplace.cart.store.CartMutation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,9 +22,14 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -325,4 +333,120 @@ class CartControllerIntegrationTest {
                 .andExpect(jsonPath("$.message")
                         .value("Cart item not found for product ID: non-existent-product"));
     }
+
+    @Test
+    void updateCartItems_MixedOperations_AppliesAllInOrder() throws Exception {
+        Cart cart = Cart.builder()
+                .userId(testUserId)
+                .items(new ArrayList<>())
+                .build();
+        cart.addItem(CartItem.builder()
+                .productId("prod-1")
+                .productName("Product 1")
+                .price(new BigDecimal("19.99"))
+                .quantity(1)
+                .build());
+        cart.addItem(CartItem.builder()
+                .productId("prod-2")
+                .productName("Product 2")
+                .price(new BigDecimal("29.99"))
+                .quantity(1)
+                .build());
+        cartRepository.save(cart);
+
+        when(productServiceClient.getProductsByIds(anyCollection())).thenReturn(Map.of(
+                "prod-1", ProductDetailsResponse.builder()
+                        .id("prod-1").name("Product 1").price(new BigDecimal("17.99")).build(),
+                "prod-3", ProductDetailsResponse.builder()
+                        .id("prod-3").name("Product 3").price(new BigDecimal("5.00")).build()));
+
+        UpdateCartItemsRequest request = new UpdateCartItemsRequest(List.of(
+                new CartItemOperation(CartMutation.Type.SET, "prod-1", 4),
+                new CartItemOperation(CartMutation.Type.REMOVE, "prod-2", null),
+                new CartItemOperation(CartMutation.Type.ADD, "prod-3", 2),
+                new CartItemOperation(CartMutation.Type.ADD, "prod-3", 1)));
+
+        mockMvc.perform(patch("/api/cart/items")
+                        .header(USER_ID_HEADER, testUserId.toString())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Cart updated"))
+                .andExpect(jsonPath("$.data.items", hasSize(2)))
+                .andExpect(jsonPath("$.data.items[0].productId").value("prod-1"))
+                .andExpect(jsonPath("$.data.items[0].quantity").value(4))
+                .andExpect(jsonPath("$.data.items[0].price").value(17.99))
+                .andExpect(jsonPath("$.data.items[1].productId").value("prod-3"))
+                .andExpect(jsonPath("$.data.items[1].quantity").value(3));
+
+        // One product lookup for the whole request
+        verify(productServiceClient, times(1)).getProductsByIds(anyCollection());
+
+        mockMvc.perform(get("/api/cart")
+                        .header(USER_ID_HEADER, testUserId.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items", hasSize(2)))
+                .andExpect(jsonPath("$.data.totalItems").value(7));
+    }
+
+    @Test
+    void updateCartItems_RemoveNotInCart_ReturnsNotFoundAndAppliesNothing() throws Exception {
+        Cart cart = Cart.builder()
+                .userId(testUserId)
+                .items(new ArrayList<>())
+                .build();
+        cart.addItem(CartItem.builder()
+                .productId("prod-1")
+                .productName("Product 1")
+                .price(new BigDecimal("19.99"))
+                .quantity(1)
+                .build());
+        cartRepository.save(cart);
+
+        when(productServiceClient.getProductsByIds(anyCollection())).thenReturn(Map.of(
+                "prod-1", ProductDetailsResponse.builder()
+                        .id("prod-1").name("Product 1").price(new BigDecimal("19.99")).build()));
+
+        UpdateCartItemsRequest request = new UpdateCartItemsRequest(List.of(
+                new CartItemOperation(CartMutation.Type.ADD, "prod-1", 2),
+                new CartItemOperation(CartMutation.Type.REMOVE, "non-existent-product", null)));
+
+        mockMvc.perform(patch("/api/cart/items")
+                        .header(USER_ID_HEADER, testUserId.toString())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message")
+                        .value("Cart item not found for product ID: non-existent-product"));
+
+        mockMvc.perform(get("/api/cart")
+                        .header(USER_ID_HEADER, testUserId.toString()))
+                .andExpect(jsonPath("$.data.items[0].quantity").value(1));
+    }
+
+    @Test
+    void updateCartItems_UnknownProduct_ReturnsNotFound() throws Exception {
+        when(productServiceClient.getProductsByIds(anyCollection())).thenReturn(Map.of());
+
+        UpdateCartItemsRequest request = new UpdateCartItemsRequest(List.of(
+                new CartItemOperation(CartMutation.Type.ADD, "missing", 1)));
+
+        mockMvc.perform(patch("/api/cart/items")
+                        .header(USER_ID_HEADER, testUserId.toString())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void updateCartItems_AddWithoutQuantity_ReturnsBadRequest() throws Exception {
+        UpdateCartItemsRequest request = new UpdateCartItemsRequest(List.of(
+                new CartItemOperation(CartMutation.Type.ADD, "prod-1", null)));
+
+        mockMvc.perform(patch("/api/cart/items")
+                        .header(USER_ID_HEADER, testUserId.toString())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,162 @@
+package com.marketplace.cart.repository;
+
+import com.marketplace.cart.CartApplication;
+import com.marketplace.cart.dto.response.CartResponse;
+import com.marketplace.cart.entity.Cart;
+import com.marketplace.cart.mapper.CartMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares loading a cart the previous way (select the cart, then a second select when the
+ * lazy items are mapped) with {@link CartRepository#findByUserId}, which fetches both in one
+ * statement, at 1M carts with 3 items each. Runs with and without the {@code carts(user_id)}
+ * index to show the cost of the sequential scan it replaces.
+ * <p>
+ * Needs the PostgreSQL database from application.properties ({@code DB_HOST} etc.), migrated by
+ * Flyway on startup. Carts are seeded once and reused on later runs; the index is restored at
+ * the end. Prints the SQL statements per operation after each iteration and reports the sampled
+ * latency distribution (p50/p99 in the JMH output).
+ * Not part of the test suite. Run from the IDE via {@link #main(String[])} after {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(4)
+@Fork(1)
+public class CartRepositoryBenchmark {
+
+    private static final int CARTS = 1_000_000;
+    private static final int ITEMS_PER_CART = 3;
+    private static final int SAMPLED_USERS = 10_000;
+
+    @Param({"true", "false"})
+    private boolean userIdIndex;
+
+    private ConfigurableApplicationContext context;
+    private CartRepository cartRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+    private JdbcTemplate jdbcTemplate;
+    private Statistics statistics;
+    private List<UUID> userIds;
+    private final AtomicLong operations = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(CartApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.generate_statistics=true")
+                .run();
+        cartRepository = context.getBean(CartRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        statistics = context.getBean(EntityManagerFactory.class)
+                .unwrap(SessionFactory.class).getStatistics();
+
+        seed();
+        jdbcTemplate.execute(userIdIndex
+                ? "CREATE UNIQUE INDEX IF NOT EXISTS ux_carts_user_id ON carts (user_id)"
+                : "DROP INDEX IF EXISTS ux_carts_user_id");
+        jdbcTemplate.execute("ANALYZE carts");
+        userIds = jdbcTemplate.queryForList(
+                "SELECT user_id FROM carts TABLESAMPLE SYSTEM (5) LIMIT " + SAMPLED_USERS, UUID.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetStatistics() {
+        statistics.clear();
+        operations.set(0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void printStatements() {
+        System.out.printf("%n%d SQL statements, %.2f per operation%n", statistics.getPrepareStatementCount(),
+                (double) statistics.getPrepareStatementCount() / Math.max(1, operations.get()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS ux_carts_user_id ON carts (user_id)");
+        context.close();
+    }
+
+    /**
+     * Previous GetCartCommandImpl logic: the items are loaded when the mapper touches them.
+     */
+    @Benchmark
+    public CartResponse lazyItems() {
+        UUID userId = randomUserId();
+        operations.incrementAndGet();
+        return transactionTemplate.execute(status -> CartMapper.toCartResponse(entityManager
+                .createQuery("SELECT c FROM Cart c WHERE c.userId = :userId", Cart.class)
+                .setParameter("userId", userId)
+                .getSingleResult()));
+    }
+
+    @Benchmark
+    public CartResponse fetchJoin() {
+        UUID userId = randomUserId();
+        operations.incrementAndGet();
+        return transactionTemplate.execute(status ->
+                CartMapper.toCartResponse(cartRepository.findByUserId(userId).orElseThrow()));
+    }
+
+    private void seed() {
+        Long existing = jdbcTemplate.queryForObject("SELECT count(*) FROM carts", Long.class);
+        if (existing != null && existing >= CARTS) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO carts (id, user_id) "
+                + "SELECT gen_random_uuid(), gen_random_uuid() FROM generate_series(1, ?)", CARTS - existing);
+        jdbcTemplate.update("INSERT INTO cart_items (id, cart_id, product_id, product_name, price, quantity) "
+                + "SELECT gen_random_uuid(), c.id, 'bench-' || g, 'Product ' || g, 10.00, 1 "
+                + "FROM carts c CROSS JOIN generate_series(1, ?) g "
+                + "WHERE NOT EXISTS (SELECT 1 FROM cart_items i WHERE i.cart_id = c.id)", ITEMS_PER_CART);
+        jdbcTemplate.execute("ANALYZE cart_items");
+    }
+
+    private UUID randomUserId() {
+        return userIds.get(ThreadLocalRandom.current().nextInt(userIds.size()));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CartRepositoryBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
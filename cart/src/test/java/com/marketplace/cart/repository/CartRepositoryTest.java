@@ -0,0 +1,173 @@
+package com.marketplace.cart.repository;
+
+import com.marketplace.cart.client.ProductServiceClient;
+import com.marketplace.cart.dto.response.CartResponse;
+import com.marketplace.cart.entity.Cart;
+import com.marketplace.cart.entity.CartItem;
+import com.marketplace.cart.mapper.CartMapper;
+import com.marketplace.cart.repository.CartItemWriteRepository.CartRef;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+class CartRepositoryTest {
+
+    @MockBean
+    private ProductServiceClient productServiceClient;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void findByUserId_CartWithItems_LoadsInOneStatement() {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+        Cart cart = Cart.builder().userId(userId).build();
+        for (int i = 0; i < 3; i++) {
+            cart.addItem(CartItem.builder()
+                    .productId("prod-" + i)
+                    .productName("Product " + i)
+                    .price(new BigDecimal("10.00"))
+                    .quantity(1)
+                    .build());
+        }
+        cartRepository.saveAndFlush(cart);
+        entityManager.clear();
+        statistics.clear();
+
+        // Act
+        CartResponse response = CartMapper.toCartResponse(cartRepository.findByUserId(userId).orElseThrow());
+
+        // Assert
+        assertEquals(3, response.getItems().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void save_SecondCartForSameUser_IsRejectedByUniqueIndex() {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+        cartRepository.saveAndFlush(Cart.builder().userId(userId).build());
+
+        // Act & Assert
+        assertThrows(DataIntegrityViolationException.class,
+                () -> cartRepository.saveAndFlush(Cart.builder().userId(userId).build()));
+    }
+
+    @Test
+    void upsertItem_SameProductTwice_AddsQuantityAndRefreshesPrice() {
+        // Arrange
+        UUID cartId = cartRepository.findOrCreateCart(UUID.randomUUID()).id();
+        cartRepository.upsertItem(cartId, item("prod-1", "10.00", 2));
+
+        // Act
+        cartRepository.upsertItem(cartId, item("prod-1", "12.50", 3));
+
+        // Assert
+        List<CartItem> items = cartRepository.findItems(cartId);
+        assertEquals(1, items.size());
+        assertEquals(5, items.get(0).getQuantity());
+        assertEquals(0, new BigDecimal("12.50").compareTo(items.get(0).getPrice()));
+    }
+
+    @Test
+    void findOrCreateCart_ExistingCart_ReturnsSameCart() {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+        CartRef cart = cartRepository.findOrCreateCart(userId);
+
+        // Act & Assert
+        assertEquals(cart, cartRepository.findOrCreateCart(userId));
+        assertEquals(Optional.of(cart), cartRepository.findCart(userId));
+    }
+
+    @Test
+    void bumpVersion_StaleVersion_ThrowsOptimisticLockingFailure() {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+        CartRef read = cartRepository.findOrCreateCart(userId);
+        CartRef concurrent = cartRepository.findCart(userId).orElseThrow();
+        cartRepository.bumpVersion(concurrent);
+
+        // Act & Assert
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> cartRepository.bumpVersion(read));
+        assertEquals(read.version() + 1, cartRepository.findCart(userId).orElseThrow().version());
+    }
+
+    @Test
+    void deleteItem_ReturnsRowsDeleted() {
+        // Arrange
+        UUID cartId = cartRepository.findOrCreateCart(UUID.randomUUID()).id();
+        cartRepository.upsertItem(cartId, item("prod-1", "10.00", 1));
+        cartRepository.upsertItem(cartId, item("prod-2", "10.00", 1));
+
+        // Act & Assert
+        assertEquals(1, cartRepository.deleteItem(cartId, "prod-1"));
+        assertEquals(0, cartRepository.deleteItem(cartId, "prod-1"));
+        assertEquals(List.of("prod-2"),
+                cartRepository.findItems(cartId).stream().map(CartItem::getProductId).toList());
+    }
+
+    @Test
+    void replaceItems_AdvancedCart_ReplacesAllItems() {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+        UUID cartId = cartRepository.findOrCreateCart(userId, UUID.randomUUID()).id();
+        cartRepository.upsertItem(cartId, item("prod-1", "10.00", 1));
+
+        // Act
+        boolean advanced = cartRepository.advanceVersion(cartId, 3);
+        cartRepository.replaceItems(Map.of(cartId, List.of(item("prod-2", "5.00", 4))));
+
+        // Assert
+        assertTrue(advanced);
+        assertFalse(cartRepository.advanceVersion(cartId, 2));
+        assertEquals(3, cartRepository.findCart(userId).orElseThrow().version());
+        List<CartItem> items = cartRepository.findItems(cartId);
+        assertEquals(1, items.size());
+        assertEquals("prod-2", items.get(0).getProductId());
+        assertEquals(4, items.get(0).getQuantity());
+    }
+
+    private static CartItem item(String productId, String price, int quantity) {
+        return CartItem.builder()
+                .productId(productId)
+                .productName("Product " + productId)
+                .price(new BigDecimal(price))
+                .quantity(quantity)
+                .build();
+    }
+}
@@ -0,0 +1,162 @@
+package com.marketplace.cart.service;
+
+import com.marketplace.cart.client.ProductServiceClient;
+import com.marketplace.cart.config.CartConfigProperties;
+import com.marketplace.cart.dto.response.ProductDetailsResponse;
+import com.marketplace.common.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductDetailsCacheServiceTest {
+
+    @Mock
+    private ProductServiceClient productServiceClient;
+
+    private CartConfigProperties properties;
+    private MeterRegistry meterRegistry;
+    private ProductDetailsCacheService cacheService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CartConfigProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        cacheService = new ProductDetailsCacheService(productServiceClient, properties, meterRegistry);
+    }
+
+    @Test
+    void getProductById_RepeatedLookup_CallsProductServiceOnce() {
+        // Arrange
+        ProductDetailsResponse product = product("prod-1");
+        when(productServiceClient.getProductById("prod-1")).thenReturn(product);
+
+        // Act
+        ProductDetailsResponse first = cacheService.getProductById("prod-1");
+        ProductDetailsResponse second = cacheService.getProductById("prod-1");
+
+        // Assert
+        assertSame(product, first);
+        assertSame(product, second);
+        verify(productServiceClient, times(1)).getProductById("prod-1");
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void getProductById_ConcurrentMisses_ShareOneCall() throws Exception {
+        // Arrange
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(productServiceClient.getProductById("prod-1")).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return product("prod-1");
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        List<Future<ProductDetailsResponse>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> cacheService.getProductById("prod-1")));
+            }
+            loading.await();
+            Thread.sleep(50);
+            release.countDown();
+            for (Future<ProductDetailsResponse> result : results) {
+                assertEquals("prod-1", result.get().getId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        verify(productServiceClient, times(1)).getProductById("prod-1");
+    }
+
+    @Test
+    void getProductById_NotFound_IsNotCached() {
+        // Arrange
+        when(productServiceClient.getProductById("missing"))
+                .thenThrow(new ResourceNotFoundException("Product", "missing"));
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> cacheService.getProductById("missing"));
+        assertThrows(ResourceNotFoundException.class, () -> cacheService.getProductById("missing"));
+        verify(productServiceClient, times(2)).getProductById("missing");
+    }
+
+    @Test
+    void getProductById_Disabled_AlwaysCallsProductService() {
+        // Arrange
+        properties.getProductCache().setEnabled(false);
+        cacheService = new ProductDetailsCacheService(productServiceClient, properties, meterRegistry);
+        when(productServiceClient.getProductById("prod-1")).thenReturn(product("prod-1"));
+
+        // Act
+        cacheService.getProductById("prod-1");
+        cacheService.getProductById("prod-1");
+
+        // Assert
+        verify(productServiceClient, times(2)).getProductById("prod-1");
+    }
+
+    @Test
+    void getProductsByIds_PartlyCached_FetchesOnlyMissesInOneCall() {
+        // Arrange
+        when(productServiceClient.getProductById("prod-1")).thenReturn(product("prod-1"));
+        cacheService.getProductById("prod-1");
+        when(productServiceClient.getProductsByIds(List.of("prod-2", "prod-3")))
+                .thenReturn(Map.of("prod-2", product("prod-2"), "prod-3", product("prod-3")));
+
+        // Act
+        Map<String, ProductDetailsResponse> products =
+                cacheService.getProductsByIds(List.of("prod-1", "prod-2", "prod-3"));
+        cacheService.getProductsByIds(List.of("prod-2", "prod-3"));
+
+        // Assert
+        assertEquals(List.of("prod-1", "prod-2", "prod-3"), List.copyOf(products.keySet()));
+        verify(productServiceClient, times(1)).getProductsByIds(List.of("prod-2", "prod-3"));
+    }
+
+    @Test
+    void getProductsByIds_UnknownProduct_ThrowsNotFound() {
+        // Arrange
+        when(productServiceClient.getProductsByIds(List.of("prod-1", "missing")))
+                .thenReturn(Map.of("prod-1", product("prod-1")));
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class,
+                () -> cacheService.getProductsByIds(List.of("prod-1", "missing")));
+        verify(productServiceClient, never()).getProductById("missing");
+    }
+
+    private ProductDetailsResponse product(String id) {
+        return ProductDetailsResponse.builder()
+                .id(id)
+                .name("Product " + id)
+                .price(new BigDecimal("10.00"))
+                .build();
+    }
+}
@@ -0,0 +1,61 @@
+package com.marketplace.cart.store;
+
+import com.marketplace.cart.entity.CartItem;
+import com.marketplace.cart.exception.CartItemNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CartMutationTest {
+
+    @Test
+    void apply_AddSetRemove_ProducesFinalItemsAndChanges() {
+        // Arrange
+        List<CartItem> before = List.of(item("prod-1", 1), item("prod-2", 1), item("prod-3", 2));
+        List<CartMutation> mutations = List.of(
+                new CartMutation(CartMutation.Type.ADD, "prod-1", "Product prod-1", new BigDecimal("10.00"), 2),
+                new CartMutation(CartMutation.Type.REMOVE, "prod-2", null, null, 0),
+                new CartMutation(CartMutation.Type.SET, "prod-4", "Product prod-4", new BigDecimal("10.00"), 5));
+
+        // Act
+        Map<String, CartItem> after = CartMutation.apply(before, mutations);
+
+        // Assert
+        assertEquals(List.of("prod-1", "prod-3", "prod-4"), List.copyOf(after.keySet()));
+        assertEquals(3, after.get("prod-1").getQuantity());
+        assertEquals(5, after.get("prod-4").getQuantity());
+        assertEquals(1, before.get(0).getQuantity());
+        assertEquals(List.of("prod-1", "prod-4"), CartMutation.changedItems(before, after).stream()
+                .map(CartItem::getProductId)
+                .toList());
+        assertEquals(List.of("prod-2"), CartMutation.removedProductIds(before, after));
+    }
+
+    @Test
+    void apply_RemoveNotInCart_Throws() {
+        // Arrange
+        List<CartMutation> mutations = List.of(
+                new CartMutation(CartMutation.Type.REMOVE, "prod-1", null, null, 0),
+                new CartMutation(CartMutation.Type.REMOVE, "prod-1", null, null, 0));
+
+        // Act & Assert
+        assertThrows(CartItemNotFoundException.class,
+                () -> CartMutation.apply(List.of(item("prod-1", 1)), mutations));
+    }
+
+    private CartItem item(String productId, int quantity) {
+        return CartItem.builder()
+                .id(UUID.randomUUID())
+                .productId(productId)
+                .productName("Product " + productId)
+                .price(new BigDecimal("10.00"))
+                .quantity(quantity)
+                .build();
+    }
+}
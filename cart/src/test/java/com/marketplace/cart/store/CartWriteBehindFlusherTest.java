@@ -0,0 +1,186 @@
+package com.marketplace.cart.store;
+
+import com.marketplace.cart.config.CartConfigProperties;
+import com.marketplace.cart.entity.Cart;
+import com.marketplace.cart.entity.CartItem;
+import com.marketplace.cart.repository.CartItemWriteRepository.CartRef;
+import com.marketplace.cart.repository.CartRepository;
+import com.marketplace.cart.store.RedisCartStore.DirtyCart;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CartWriteBehindFlusherTest {
+
+    @Mock
+    private RedisCartStore store;
+
+    @Mock
+    private CartRepository cartRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CartWriteBehindFlusher flusher;
+
+    @BeforeEach
+    void setUp() {
+        CartConfigProperties properties = new CartConfigProperties();
+        properties.getStore().setFlushBatchSize(10);
+        properties.getStore().setIdleTtl(Duration.ofMinutes(30));
+        meterRegistry = new SimpleMeterRegistry();
+        flusher = new CartWriteBehindFlusher(store, cartRepository, TransactionOperations.withoutTransaction(),
+                properties, meterRegistry);
+    }
+
+    @Test
+    void flush_DirtyCart_ReplacesItemsAndRecordsMetrics() {
+        // Arrange
+        Cart cart = cart(4L);
+        DirtyCart dirty = new DirtyCart(cart.getUserId(), System.currentTimeMillis() - 200);
+        when(store.claimDirty(eq(10), anyLong())).thenReturn(List.of(dirty));
+        when(store.snapshot(cart.getUserId())).thenReturn(Optional.of(cart));
+        when(cartRepository.findOrCreateCart(cart.getUserId(), cart.getId())).thenReturn(new CartRef(cart.getId(), 2));
+        when(cartRepository.advanceVersion(cart.getId(), 4L)).thenReturn(true);
+
+        // Act
+        int flushed = flusher.flush();
+
+        // Assert
+        assertEquals(1, flushed);
+        verify(cartRepository).replaceItems(Map.of(cart.getId(), cart.getItems()));
+        verify(store).completeFlush(List.of(dirty));
+        assertEquals(1, meterRegistry.get("cart.store.flush.batch").summary().count());
+        assertEquals(1, meterRegistry.get("cart.store.flush.lag").timer().count());
+    }
+
+    @Test
+    void flush_PostgresAlreadyAtRevision_SkipsItems() {
+        // Arrange
+        Cart cart = cart(4L);
+        when(store.claimDirty(eq(10), anyLong())).thenReturn(List.of(new DirtyCart(cart.getUserId(), System.currentTimeMillis())));
+        when(store.snapshot(cart.getUserId())).thenReturn(Optional.of(cart));
+        when(cartRepository.findOrCreateCart(cart.getUserId(), cart.getId())).thenReturn(new CartRef(cart.getId(), 5));
+        when(cartRepository.advanceVersion(cart.getId(), 4L)).thenReturn(false);
+
+        // Act
+        flusher.flush();
+
+        // Assert
+        verify(cartRepository).replaceItems(Map.of());
+    }
+
+    @Test
+    void flush_WriteFails_RequeuesBatch() {
+        // Arrange
+        Cart cart = cart(1L);
+        List<DirtyCart> dirty = List.of(new DirtyCart(cart.getUserId(), 1000L));
+        when(store.claimDirty(eq(10), anyLong())).thenReturn(dirty);
+        when(store.snapshot(cart.getUserId())).thenReturn(Optional.of(cart));
+        when(cartRepository.findOrCreateCart(cart.getUserId(), cart.getId())).thenReturn(new CartRef(cart.getId(), 0));
+        when(cartRepository.advanceVersion(cart.getId(), 1L)).thenReturn(true);
+        doThrow(new DataAccessResourceFailureException("down")).when(cartRepository).replaceItems(anyMap());
+
+        // Act
+        int flushed = flusher.flush();
+
+        // Assert
+        assertEquals(0, flushed);
+        verify(store).requeue(dirty);
+        verify(store, never()).completeFlush(anyList());
+        assertEquals(1.0, meterRegistry.get("cart.store.flush.failures").counter().count());
+        assertEquals(0.0, meterRegistry.get("cart.store.flush.poisoned").counter().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_OneCartFails_WritesTheOthersAndDefersIt() {
+        // Arrange
+        Cart good = cart(1L);
+        Cart poison = cart(1L);
+        DirtyCart goodDirty = new DirtyCart(good.getUserId(), 1000L);
+        DirtyCart poisonDirty = new DirtyCart(poison.getUserId(), 500L);
+        when(store.claimDirty(eq(10), anyLong())).thenReturn(List.of(poisonDirty, goodDirty));
+        for (Cart cart : List.of(good, poison)) {
+            when(store.snapshot(cart.getUserId())).thenReturn(Optional.of(cart));
+            when(cartRepository.findOrCreateCart(cart.getUserId(), cart.getId()))
+                    .thenReturn(new CartRef(cart.getId(), 0));
+            when(cartRepository.advanceVersion(cart.getId(), 1L)).thenReturn(true);
+        }
+        doThrow(new DataIntegrityViolationException("bad row")).when(cartRepository)
+                .replaceItems(argThat(items -> items.containsKey(poison.getId())));
+
+        // Act
+        int flushed = flusher.flush();
+
+        // Assert
+        assertEquals(2, flushed);
+        verify(cartRepository).replaceItems(Map.of(good.getId(), good.getItems()));
+        verify(store).completeFlush(List.of(goodDirty));
+        ArgumentCaptor<List<DirtyCart>> requeued = ArgumentCaptor.forClass(List.class);
+        verify(store).requeue(requeued.capture());
+        assertEquals(poison.getUserId(), requeued.getValue().get(0).userId());
+        assertTrue(requeued.getValue().get(0).dirtySinceMillis() > poisonDirty.dirtySinceMillis());
+        assertEquals(1.0, meterRegistry.get("cart.store.flush.poisoned").counter().count());
+    }
+
+    @Test
+    void evictIdle_EvictsOnlyCartsTheStoreReleases() {
+        // Arrange
+        UUID clean = UUID.randomUUID();
+        UUID dirty = UUID.randomUUID();
+        when(store.idleCarts(anyLong(), eq(10))).thenReturn(List.of(clean, dirty));
+        when(store.evict(eq(clean), anyLong())).thenReturn(true);
+        when(store.evict(eq(dirty), anyLong())).thenReturn(false);
+
+        // Act
+        flusher.evictIdle();
+
+        // Assert
+        assertEquals(1.0, meterRegistry.get("cart.store.evictions").counter().count());
+        verify(cartRepository, never()).replaceItems(anyMap());
+    }
+
+    private static Cart cart(long revision) {
+        Cart cart = Cart.builder()
+                .id(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .version(revision)
+                .items(new ArrayList<>())
+                .build();
+        cart.addItem(CartItem.builder()
+                .id(UUID.randomUUID())
+                .productId("prod-1")
+                .productName("Product 1")
+                .price(new BigDecimal("10.00"))
+                .quantity(1)
+                .build());
+        return cart;
+    }
+}
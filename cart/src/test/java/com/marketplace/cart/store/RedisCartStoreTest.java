@@ -0,0 +1,434 @@
+package com.marketplace.cart.store;
+
+import com.marketplace.cart.aspect.RetryOnConflictAspect;
+import com.marketplace.cart.config.CartConfigProperties;
+import com.marketplace.cart.entity.Cart;
+import com.marketplace.cart.entity.CartItem;
+import com.marketplace.cart.exception.CartItemNotFoundException;
+import com.marketplace.cart.exception.CartNotFoundException;
+import com.marketplace.cart.repository.CartRepository;
+import com.marketplace.cart.store.RedisCartStore.DirtyCart;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.transaction.support.TransactionOperations;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the cart scripts against an embedded Redis server; PostgreSQL is mocked.
+ */
+@ExtendWith(MockitoExtension.class)
+class RedisCartStoreTest {
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    @Mock
+    private CartRepository cartRepository;
+
+    private RedisCartStore store;
+    private UUID userId;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = RedisServer.newRedisServer().port(port).build();
+        redisServer.start();
+
+        connectionFactory = new LettuceConnectionFactory("localhost", port);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.serverCommands().flushAll();
+        }
+        store = new RedisCartStore(redisTemplate, cartRepository, new CartConfigProperties());
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    void addItem_NewCart_CreatesHashAndMarksDirty() {
+        // Act
+        Cart cart = store.addItem(userId, item("prod-1", "19.90", 2));
+
+        // Assert
+        assertNotNull(cart.getId());
+        assertEquals(1L, cart.getVersion());
+        assertEquals(1, cart.getItems().size());
+        assertEquals(2, cart.getItems().get(0).getQuantity());
+        assertEquals("19.90", cart.getItems().get(0).getPrice().toPlainString());
+        assertNotNull(redisTemplate.opsForZSet().score(RedisCartStore.DIRTY_KEY, userId.toString()));
+        assertNotNull(redisTemplate.opsForZSet().score(RedisCartStore.ACTIVE_KEY, userId.toString()));
+    }
+
+    @Test
+    void addItem_ExistingItem_AddsQuantityAndTakesNewPrice() {
+        // Arrange
+        Cart first = store.addItem(userId, item("prod-1", "19.90", 2));
+
+        // Act
+        Cart second = store.addItem(userId, item("prod-1", "17.50", 3));
+
+        // Assert
+        assertEquals(first.getId(), second.getId());
+        assertEquals(2L, second.getVersion());
+        CartItem item = second.getItems().get(0);
+        assertEquals(first.getItems().get(0).getId(), item.getId());
+        assertEquals(5, item.getQuantity());
+        assertEquals("17.50", item.getPrice().toPlainString());
+    }
+
+    @Test
+    void removeItem_ItemInCart_RemovesItAndBumpsRevision() {
+        // Arrange
+        store.addItem(userId, item("prod-1", "10.00", 1));
+        store.addItem(userId, item("prod-2", "20.00", 1));
+
+        // Act
+        Cart cart = store.removeItem(userId, "prod-1");
+
+        // Assert
+        assertEquals(3L, cart.getVersion());
+        assertEquals(List.of("prod-2"), cart.getItems().stream().map(CartItem::getProductId).toList());
+        assertThrows(CartItemNotFoundException.class, () -> store.removeItem(userId, "prod-1"));
+    }
+
+    @Test
+    void removeItem_NoCartAnywhere_ThrowsNotFound() {
+        assertThrows(CartNotFoundException.class, () -> store.removeItem(userId, "prod-1"));
+    }
+
+    @Test
+    void find_CartOnlyInPostgres_LoadsItOnceWithoutMarkingDirty() {
+        // Arrange
+        Cart stored = Cart.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .version(3L)
+                .items(new ArrayList<>())
+                .build();
+        stored.addItem(item("prod-1", "10.00", 4));
+        stored.getItems().get(0).setId(UUID.randomUUID());
+        when(cartRepository.findByUserId(userId)).thenReturn(Optional.of(stored));
+
+        // Act
+        Cart loaded = store.find(userId).orElseThrow();
+        Cart cached = store.find(userId).orElseThrow();
+
+        // Assert
+        assertEquals(stored.getId(), loaded.getId());
+        assertEquals(3L, cached.getVersion());
+        assertEquals(4, cached.getItems().get(0).getQuantity());
+        verify(cartRepository, times(1)).findByUserId(userId);
+        assertNull(redisTemplate.opsForZSet().score(RedisCartStore.DIRTY_KEY, userId.toString()));
+    }
+
+    @Test
+    void find_NoCartAnywhere_CachesMissWithoutMarkingActive() {
+        // Arrange
+        when(cartRepository.findByUserId(userId)).thenReturn(Optional.empty());
+
+        // Act
+        Optional<Cart> first = store.find(userId);
+        Optional<Cart> second = store.find(userId);
+
+        // Assert
+        assertTrue(first.isEmpty());
+        assertTrue(second.isEmpty());
+        verify(cartRepository, times(1)).findByUserId(userId);
+        assertTrue(redisTemplate.hasKey(RedisCartStore.missKey(userId)));
+        assertNull(redisTemplate.opsForZSet().score(RedisCartStore.ACTIVE_KEY, userId.toString()));
+    }
+
+    @Test
+    void addItem_AfterCachedMiss_CreatesCartAndClearsMiss() {
+        // Arrange
+        when(cartRepository.findByUserId(userId)).thenReturn(Optional.empty());
+        store.find(userId);
+
+        // Act
+        Cart created = store.addItem(userId, item("prod-1", "10.00", 1));
+
+        // Assert
+        assertEquals(created.getId(), store.find(userId).orElseThrow().getId());
+        assertFalse(redisTemplate.hasKey(RedisCartStore.missKey(userId)));
+        verify(cartRepository, times(1)).findByUserId(userId);
+    }
+
+    @Test
+    void evict_DirtyOrInFlightCart_IsKeptUntilFlushCompletes() {
+        // Arrange
+        store.addItem(userId, item("prod-1", "10.00", 1));
+        long idleBefore = System.currentTimeMillis() + 1000;
+
+        // Act & Assert - dirty
+        assertFalse(store.evict(userId, idleBefore));
+
+        // Claimed by a flush that has not committed yet
+        List<DirtyCart> claimed = store.claimDirty(10, 0);
+        assertEquals(List.of(userId), claimed.stream().map(DirtyCart::userId).toList());
+        assertFalse(store.evict(userId, idleBefore));
+
+        // Flushed, but used after the idle cut-off
+        store.completeFlush(claimed);
+        assertFalse(store.evict(userId, 0));
+
+        // Flushed and idle
+        assertTrue(store.evict(userId, idleBefore));
+        assertTrue(store.snapshot(userId).isEmpty());
+        assertNull(redisTemplate.opsForZSet().score(RedisCartStore.ACTIVE_KEY, userId.toString()));
+    }
+
+    @Test
+    void claimDirty_OldestFirst_RequeueRestoresChangeTime() {
+        // Arrange
+        UUID older = UUID.randomUUID();
+        UUID newer = UUID.randomUUID();
+        redisTemplate.opsForZSet().add(RedisCartStore.DIRTY_KEY, newer.toString(), 2000);
+        redisTemplate.opsForZSet().add(RedisCartStore.DIRTY_KEY, older.toString(), 1000);
+
+        // Act
+        List<DirtyCart> claimed = store.claimDirty(1, 0);
+        store.requeue(claimed);
+
+        // Assert
+        assertEquals(List.of(new DirtyCart(older, 1000)), claimed);
+        assertEquals(1000.0, redisTemplate.opsForZSet().score(RedisCartStore.DIRTY_KEY, older.toString()));
+        assertEquals(0L, redisTemplate.opsForZSet().size(RedisCartStore.FLUSHING_KEY));
+    }
+
+    @Test
+    void claimDirty_ClaimOfDeadFlush_IsClaimedAgain() {
+        // Arrange - a node claimed the cart at 1000 and never completed the flush
+        redisTemplate.opsForZSet().add(RedisCartStore.FLUSHING_KEY, userId.toString(), 1000);
+
+        // Act
+        List<DirtyCart> fresh = store.claimDirty(10, 500);
+        List<DirtyCart> stale = store.claimDirty(10, 5000);
+
+        // Assert
+        assertTrue(fresh.isEmpty());
+        assertEquals(List.of(new DirtyCart(userId, 1000)), stale);
+        assertNotNull(redisTemplate.opsForZSet().score(RedisCartStore.FLUSHING_KEY, userId.toString()));
+    }
+
+    @Test
+    void completeFlush_CartChangedDuringFlush_StaysDirty() {
+        // Arrange
+        store.addItem(userId, item("prod-1", "10.00", 1));
+        List<DirtyCart> claimed = store.claimDirty(10, 0);
+
+        // Act
+        store.addItem(userId, item("prod-2", "10.00", 1));
+        store.completeFlush(claimed);
+
+        // Assert
+        assertNotNull(redisTemplate.opsForZSet().score(RedisCartStore.DIRTY_KEY, userId.toString()));
+        assertNull(redisTemplate.opsForZSet().score(RedisCartStore.FLUSHING_KEY, userId.toString()));
+    }
+
+    @Test
+    void flush_PostgresDown_LeavesCartDirtyAndUnevictable() {
+        // Arrange
+        Cart cart = store.addItem(userId, item("prod-1", "10.00", 1));
+        when(cartRepository.findOrCreateCart(userId, cart.getId()))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+        CartWriteBehindFlusher flusher = new CartWriteBehindFlusher(store, cartRepository,
+                TransactionOperations.withoutTransaction(), new CartConfigProperties(), new SimpleMeterRegistry());
+
+        // Act
+        int flushed = flusher.flush();
+
+        // Assert
+        assertEquals(0, flushed);
+        assertNotNull(redisTemplate.opsForZSet().score(RedisCartStore.DIRTY_KEY, userId.toString()));
+        assertEquals(0L, redisTemplate.opsForZSet().size(RedisCartStore.FLUSHING_KEY));
+        assertFalse(store.evict(userId, System.currentTimeMillis() + 1000));
+    }
+
+    @Test
+    void applyMutations_NewCart_CreatesCartAtFirstRevision() {
+        // Act
+        Cart cart = store.applyMutations(userId, List.of(
+                new CartMutation(CartMutation.Type.ADD, "prod-1", "Product 1", new BigDecimal("10.00"), 2),
+                new CartMutation(CartMutation.Type.SET, "prod-2", "Product 2", new BigDecimal("5.00"), 1)));
+
+        // Assert
+        assertNotNull(cart.getId());
+        assertEquals(1L, cart.getVersion());
+        assertEquals(List.of(2, 1), quantities(cart, "prod-1", "prod-2"));
+        assertNotNull(redisTemplate.opsForZSet().score(RedisCartStore.DIRTY_KEY, userId.toString()));
+    }
+
+    @Test
+    void applyMutations_RemovalsAndWrites_AppliesBothInOneRevision() {
+        // Arrange
+        store.addItem(userId, item("prod-1", "10.00", 1));
+        store.addItem(userId, item("prod-2", "10.00", 1));
+        Cart before = store.addItem(userId, item("prod-3", "10.00", 1));
+
+        // Act - two removals ahead of the item pairs, then one update and one new item
+        Cart cart = store.applyMutations(userId, List.of(
+                new CartMutation(CartMutation.Type.REMOVE, "prod-1", null, null, 0),
+                new CartMutation(CartMutation.Type.REMOVE, "prod-2", null, null, 0),
+                new CartMutation(CartMutation.Type.SET, "prod-3", "Product prod-3", new BigDecimal("9.00"), 5),
+                new CartMutation(CartMutation.Type.ADD, "prod-4", "Product prod-4", new BigDecimal("4.00"), 1)));
+
+        // Assert
+        assertEquals(before.getVersion() + 1, cart.getVersion());
+        assertEquals(List.of(5, 1), quantities(cart, "prod-3", "prod-4"));
+        assertEquals(cart, store.snapshot(userId).orElseThrow());
+        assertEquals("9.00", store.snapshot(userId).orElseThrow().getItems().stream()
+                .filter(item -> item.getProductId().equals("prod-3"))
+                .findFirst().orElseThrow().getPrice().toPlainString());
+    }
+
+    @Test
+    void applyMutations_CartChangedBeforeWrite_RetriesFromNewContents() {
+        // Arrange - another request adds prod-2 between this update's read and its write
+        store.addItem(userId, item("prod-1", "10.00", 1));
+        StringRedisTemplate racingTemplate = spy(redisTemplate);
+        RedisCartStore otherNode = new RedisCartStore(redisTemplate, cartRepository, new CartConfigProperties());
+        AtomicBoolean raced = new AtomicBoolean();
+        lenient().doAnswer(invocation -> {
+            if (raced.compareAndSet(false, true)) {
+                otherNode.addItem(userId, item("prod-2", "10.00", 1));
+            }
+            return invocation.callRealMethod();
+        }).when(racingTemplate).execute(any(RedisScript.class), anyList(), any(Object[].class));
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new RedisCartStore(racingTemplate, cartRepository, new CartConfigProperties()));
+        proxyFactory.addAspect(new RetryOnConflictAspect(new CartConfigProperties(), meterRegistry));
+        CartStore retrying = proxyFactory.getProxy();
+
+        // Act
+        Cart cart = retrying.applyMutations(userId, List.of(
+                new CartMutation(CartMutation.Type.SET, "prod-1", "Product prod-1", new BigDecimal("10.00"), 3)));
+
+        // Assert - the first write was refused and the retry kept the concurrent item
+        assertEquals(3L, cart.getVersion());
+        assertEquals(List.of(3, 1), quantities(cart, "prod-1", "prod-2"));
+        assertEquals(1.0, meterRegistry.get("cart.conflicts")
+                .tag("operation", "UPDATE_CART_ITEMS").tag("outcome", "retried").counter().count());
+    }
+
+    @Test
+    void toFields_ThenToCart_RoundTripsCart() {
+        // Arrange
+        Cart cart = Cart.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .version(7L)
+                .items(new ArrayList<>())
+                .build();
+        cart.addItem(CartItem.builder()
+                .id(UUID.randomUUID())
+                .productId("prod-1")
+                .productName("Product 1")
+                .price(new BigDecimal("19.90"))
+                .quantity(2)
+                .build());
+
+        // Act
+        Map<String, String> fields = RedisCartStore.toFields(cart);
+        Cart read = RedisCartStore.toCart(userId, fields);
+
+        // Assert
+        assertEquals(cart.getId().toString(), fields.get(RedisCartStore.ID_FIELD));
+        assertEquals("7", fields.get(RedisCartStore.REVISION_FIELD));
+        assertEquals(cart, read);
+        assertEquals("19.90", read.getItems().get(0).getPrice().toPlainString());
+    }
+
+    @Test
+    void toCart_ScriptResult_ReadsItemRewrittenByScript() {
+        // Arrange: the add script re-encodes the item JSON and stores the price as sent
+        UUID cartId = UUID.randomUUID();
+        UUID itemId = UUID.randomUUID();
+        List<String> flat = List.of(
+                RedisCartStore.ID_FIELD, cartId.toString(),
+                "prod-1", "{\"id\":\"" + itemId + "\",\"quantity\":5,\"price\":\"12.50\",\"productName\":\"Product 1\"}",
+                RedisCartStore.REVISION_FIELD, "3");
+
+        // Act
+        Cart cart = RedisCartStore.toCart(userId, flat);
+
+        // Assert
+        assertEquals(cartId, cart.getId());
+        assertEquals(3L, cart.getVersion());
+        assertEquals(1, cart.getItems().size());
+        CartItem item = cart.getItems().get(0);
+        assertEquals(itemId, item.getId());
+        assertEquals("prod-1", item.getProductId());
+        assertEquals(5, item.getQuantity());
+        assertEquals(new BigDecimal("12.50"), item.getPrice());
+    }
+
+    private static List<Integer> quantities(Cart cart, String... productIds) {
+        return Arrays.stream(productIds)
+                .map(productId -> cart.getItems().stream()
+                        .filter(item -> item.getProductId().equals(productId))
+                        .findFirst().orElseThrow().getQuantity())
+                .toList();
+    }
+
+    private static CartItem item(String productId, String price, int quantity) {
+        return CartItem.builder()
+                .productId(productId)
+                .productName("Product " + productId)
+                .price(new BigDecimal(price))
+                .quantity(quantity)
+                .build();
+    }
+}
@@ -0,0 +1,30 @@
+package com.marketplace.common.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable view of the claims carried by a verified JWT.
+ * Produced once per token by {@code JwtUtil#parseVerified} so callers don't
+ * re-parse the token for every claim they need.
+ */
+@Value
+@Builder
+public class JwtClaims {
+
+    UUID userId;
+    String email;
+    List<String> roles;
+    Date expiration;
+
+    /**
+     * Check whether the token has expired relative to the current time.
+     */
+    public boolean isExpired() {
+        return expiration != null && expiration.before(new Date());
+    }
+}
@@ -1,6 +1,8 @@
 package com.marketplace.common.util;
 
+import com.marketplace.common.dto.JwtClaims;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.slf4j.Logger;
@@ -37,12 +39,63 @@ public class JwtUtil {
     @Value("${jwt.expiration:86400000}") // Default 24 hours in milliseconds
     private Long expiration;
 
+    // Built once on first use; both the key and the parser are immutable and thread-safe
+    private volatile SecretKey signingKey;
+    private volatile JwtParser jwtParser;
+
     /**
-     * Generate a secret key from the configured secret string
+     * Get the secret key derived from the configured secret string
      */
     private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+        SecretKey key = signingKey;
+        if (key == null) {
+            synchronized (this) {
+                key = signingKey;
+                if (key == null) {
+                    key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+                    signingKey = key;
+                }
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Get the shared parser configured with the signing key
+     */
+    private JwtParser getParser() {
+        JwtParser parser = jwtParser;
+        if (parser == null) {
+            synchronized (this) {
+                parser = jwtParser;
+                if (parser == null) {
+                    parser = Jwts.parser()
+                            .verifyWith(getSigningKey())
+                            .build();
+                    jwtParser = parser;
+                }
+            }
+        }
+        return parser;
+    }
+
+    /**
+     * Verify the token signature and expiry once and return all claims callers need.
+     *
+     * @throws io.jsonwebtoken.ExpiredJwtException if the token has expired
+     * @throws io.jsonwebtoken.JwtException        if the token is malformed or the signature is invalid
+     */
+    @SuppressWarnings("unchecked")
+    public JwtClaims parseVerified(String token) {
+        Claims claims = extractAllClaims(token);
+        String userIdStr = claims.get("userId", String.class);
+        List<String> roles = claims.get("roles", List.class);
+        return JwtClaims.builder()
+                .userId(userIdStr != null ? UUID.fromString(userIdStr) : null)
+                .email(claims.getSubject())
+                .roles(roles != null ? List.copyOf(roles) : List.of())
+                .expiration(claims.getExpiration())
+                .build();
     }
 
     /**
@@ -87,9 +140,7 @@ public class JwtUtil {
      * Extract all claims from JWT token
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
+        return getParser()
                 .parseSignedClaims(token)
                 .getPayload();
     }
@@ -0,0 +1,98 @@
+package com.marketplace.common.util;
+
+import com.marketplace.common.dto.JwtClaims;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-request cost of verifying a token the way the gateway filters used to
+ * (fresh key and parser for every claim) with the cached parser and a single {@link JwtUtil#parseVerified}.
+ * <p>
+ * Not part of the test suite. Run from the IDE via {@link #main(String[])} after {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET = "ThisIsAVeryLongSecretKeyForTestingPurposesThatIsAtLeast256BitsLong";
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86400000L);
+        token = jwtUtil.generateToken(UUID.randomUUID(), "bench@example.com", List.of("ROLE_USER"));
+    }
+
+    /**
+     * Previous filter path: validateToken + extractUserId + extractEmail, each rebuilding key and parser.
+     */
+    @Benchmark
+    public void legacyParsePerClaim(Blackhole bh) {
+        bh.consume(legacyClaims(token).getExpiration());
+        bh.consume(legacyClaims(token).get("userId", String.class));
+        bh.consume(legacyClaims(token).getSubject());
+    }
+
+    /**
+     * Same three calls against the cached parser.
+     */
+    @Benchmark
+    public void cachedParserPerClaim(Blackhole bh) {
+        bh.consume(jwtUtil.validateToken(token));
+        bh.consume(jwtUtil.extractUserId(token));
+        bh.consume(jwtUtil.extractEmail(token));
+    }
+
+    /**
+     * Current filter path: one verified parse per request.
+     */
+    @Benchmark
+    public JwtClaims parseVerifiedOnce() {
+        return jwtUtil.parseVerified(token);
+    }
+
+    private static Claims legacyClaims(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        return Jwts.parser()
+                .verifyWith(key)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtUtilBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -1,5 +1,8 @@
 package com.marketplace.common.util;
 
+import com.marketplace.common.dto.JwtClaims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -180,5 +183,57 @@ class JwtUtilTest {
 
         assertNull(userId);
     }
-}
 
+    @Test
+    void parseVerified_ValidToken_ReturnsAllClaims() {
+        UUID userId = UUID.randomUUID();
+        String email = "test@example.com";
+        List<String> roles = Arrays.asList("ROLE_USER", "ROLE_ADMIN");
+
+        String token = jwtUtil.generateToken(userId, email, roles);
+        JwtClaims claims = jwtUtil.parseVerified(token);
+
+        assertEquals(userId, claims.getUserId());
+        assertEquals(email, claims.getEmail());
+        assertEquals(roles, claims.getRoles());
+        assertTrue(claims.getExpiration().after(new Date()));
+        assertFalse(claims.isExpired());
+    }
+
+    @Test
+    void parseVerified_TokenWithoutUserId_ReturnsNullUserIdAndEmptyRoles() {
+        String token = jwtUtil.generateToken("test@example.com");
+
+        JwtClaims claims = jwtUtil.parseVerified(token);
+
+        assertNull(claims.getUserId());
+        assertTrue(claims.getRoles().isEmpty());
+    }
+
+    @Test
+    void parseVerified_ReturnsImmutableRoles() {
+        String token = jwtUtil.generateToken(UUID.randomUUID(), "test@example.com", Arrays.asList("ROLE_USER"));
+
+        JwtClaims claims = jwtUtil.parseVerified(token);
+
+        assertThrows(UnsupportedOperationException.class, () -> claims.getRoles().add("ROLE_ADMIN"));
+    }
+
+    @Test
+    void parseVerified_ExpiredToken_ThrowsExpiredJwtException() {
+        ReflectionTestUtils.setField(jwtUtil, "expiration", -1000L);
+        String token = jwtUtil.generateToken("test@example.com");
+
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.parseVerified(token));
+    }
+
+    @Test
+    void parseVerified_TokenSignedWithDifferentKey_ThrowsJwtException() {
+        JwtUtil otherJwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(otherJwtUtil, "secret", TEST_SECRET + "-different");
+        ReflectionTestUtils.setField(otherJwtUtil, "expiration", TEST_EXPIRATION);
+        String token = otherJwtUtil.generateToken("test@example.com");
+
+        assertThrows(JwtException.class, () -> jwtUtil.parseVerified(token));
+    }
+}
@@ -201,14 +201,7 @@ public class SeedProductsCommandImpl implements SeedProductsCommand {
 
     private void saveToElasticSearch(List<Product> products) {
         List<ProductSearchDoc> searchDocs = products.stream()
-                .map(p -> ProductSearchDoc.builder()
-                        .id(p.getId())
-                        .name(p.getName())
-                        .description(p.getDescription())
-                        .price(p.getPrice())
-                        .category(p.getCategory())
-                        .stock(p.getStock())
-                        .build())
+                .map(ProductSearchDoc::from)
                 .toList();
         productSearchRepository.saveAll(searchDocs);
     }
@@ -0,0 +1,292 @@
+package com.marketplace.product.codec;
+
+import com.marketplace.product.document.Product;
+import com.marketplace.product.service.CachedProduct;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Compact binary encoding of {@link CachedProduct}.
+ * <p>
+ * Layout: a version byte, a flags byte, then the body. The body holds the expiry and load
+ * time as varints, a presence bitmask and each non-null field in declaration order. Strings
+ * are stored as a varint length plus UTF-8 bytes. Prices are stored as zigzag varint cents.
+ * A price with more than two decimals falls back to scale plus unscaled bytes. A body at or
+ * above the compression threshold is LZ4-compressed if that makes it smaller.
+ * <p>
+ * Fields are never reordered or reused. New fields take the next presence bit, so older
+ * readers can reject entries they don't understand by version.
+ */
+public class BinaryProductCodec implements ProductCodec {
+
+    public static final byte VERSION = 1;
+
+    private static final int FLAG_COMPRESSED = 1;
+
+    private static final int HAS_ID = 1;
+    private static final int HAS_NAME = 1 << 1;
+    private static final int HAS_DESCRIPTION = 1 << 2;
+    private static final int HAS_PRICE = 1 << 3;
+    private static final int HAS_CATEGORY = 1 << 4;
+    private static final int HAS_STOCK = 1 << 5;
+    private static final int PRICE_ARBITRARY_SCALE = 1 << 6;
+
+    private static final int PRICE_SCALE = 2;
+    // Guards decompression against corrupt or hostile lengths
+    private static final int MAX_BODY_LENGTH = 1 << 20;
+
+    private final boolean compressionEnabled;
+    private final int compressionThreshold;
+    private final LZ4Compressor compressor;
+    private final LZ4SafeDecompressor decompressor;
+
+    public BinaryProductCodec(boolean compressionEnabled, int compressionThreshold) {
+        LZ4Factory factory = LZ4Factory.safeInstance();
+        this.compressionEnabled = compressionEnabled;
+        this.compressionThreshold = compressionThreshold;
+        this.compressor = factory.fastCompressor();
+        this.decompressor = factory.safeDecompressor();
+    }
+
+    @Override
+    public byte[] encode(CachedProduct entry) {
+        Writer body = new Writer(128);
+        body.varLong(entry.getExpiresAt());
+        body.varLong(entry.getLoadMillis());
+        writeProduct(body, entry.getProduct());
+
+        int flags = 0;
+        byte[] payload = body.toByteArray();
+        if (compressionEnabled && payload.length >= compressionThreshold) {
+            byte[] compressed = compressor.compress(payload);
+            if (compressed.length + 5 < payload.length) {
+                Writer framed = new Writer(compressed.length + 5);
+                framed.varLong(payload.length);
+                framed.bytes(compressed, compressed.length);
+                payload = framed.toByteArray();
+                flags |= FLAG_COMPRESSED;
+            }
+        }
+
+        byte[] out = new byte[payload.length + 2];
+        out[0] = VERSION;
+        out[1] = (byte) flags;
+        System.arraycopy(payload, 0, out, 2, payload.length);
+        return out;
+    }
+
+    @Override
+    public CachedProduct decode(byte[] bytes) {
+        if (!canDecode(bytes)) {
+            throw new IllegalArgumentException("Not a binary product entry");
+        }
+
+        Reader reader = new Reader(bytes, 2, bytes.length);
+        if ((bytes[1] & FLAG_COMPRESSED) != 0) {
+            int length = (int) reader.varLong();
+            if (length < 0 || length > MAX_BODY_LENGTH) {
+                throw new IllegalArgumentException("Invalid body length: " + length);
+            }
+            byte[] body = new byte[length];
+            int read = decompressor.decompress(bytes, reader.position, bytes.length - reader.position, body, 0);
+            if (read != length) {
+                throw new IllegalArgumentException("Truncated product entry");
+            }
+            reader = new Reader(body, 0, length);
+        }
+
+        return CachedProduct.builder()
+                .expiresAt(reader.varLong())
+                .loadMillis(reader.varLong())
+                .product(readProduct(reader))
+                .build();
+    }
+
+    @Override
+    public boolean canDecode(byte[] bytes) {
+        return bytes != null && bytes.length >= 2 && bytes[0] == VERSION;
+    }
+
+    private static void writeProduct(Writer out, Product product) {
+        BigDecimal price = product.getPrice();
+        long priceCents = 0;
+        int presence = presence(product.getId(), HAS_ID)
+                | presence(product.getName(), HAS_NAME)
+                | presence(product.getDescription(), HAS_DESCRIPTION)
+                | presence(price, HAS_PRICE)
+                | presence(product.getCategory(), HAS_CATEGORY)
+                | presence(product.getStock(), HAS_STOCK);
+        if (price != null) {
+            try {
+                priceCents = price.setScale(PRICE_SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+            } catch (ArithmeticException e) {
+                presence |= PRICE_ARBITRARY_SCALE;
+            }
+        }
+
+        out.varLong(presence);
+        if (product.getId() != null) {
+            out.string(product.getId());
+        }
+        if (product.getName() != null) {
+            out.string(product.getName());
+        }
+        if (product.getDescription() != null) {
+            out.string(product.getDescription());
+        }
+        if ((presence & PRICE_ARBITRARY_SCALE) != 0) {
+            byte[] unscaled = price.unscaledValue().toByteArray();
+            out.zigzag(price.scale());
+            out.varLong(unscaled.length);
+            out.bytes(unscaled, unscaled.length);
+        } else if (price != null) {
+            out.zigzag(priceCents);
+        }
+        if (product.getCategory() != null) {
+            out.string(product.getCategory());
+        }
+        if (product.getStock() != null) {
+            out.zigzag(product.getStock());
+        }
+    }
+
+    private static Product readProduct(Reader in) {
+        int presence = (int) in.varLong();
+        Product.ProductBuilder product = Product.builder();
+        if ((presence & HAS_ID) != 0) {
+            product.id(in.string());
+        }
+        if ((presence & HAS_NAME) != 0) {
+            product.name(in.string());
+        }
+        if ((presence & HAS_DESCRIPTION) != 0) {
+            product.description(in.string());
+        }
+        if ((presence & PRICE_ARBITRARY_SCALE) != 0) {
+            int scale = (int) in.zigzag();
+            byte[] unscaled = in.bytes((int) in.varLong());
+            product.price(new BigDecimal(new BigInteger(unscaled), scale));
+        } else if ((presence & HAS_PRICE) != 0) {
+            product.price(BigDecimal.valueOf(in.zigzag(), PRICE_SCALE));
+        }
+        if ((presence & HAS_CATEGORY) != 0) {
+            product.category(in.string());
+        }
+        if ((presence & HAS_STOCK) != 0) {
+            product.stock((int) in.zigzag());
+        }
+        return product.build();
+    }
+
+    private static int presence(Object value, int bit) {
+        return value != null ? bit : 0;
+    }
+
+    private static final class Writer {
+
+        private byte[] buffer;
+        private int size;
+
+        private Writer(int capacity) {
+            this.buffer = new byte[capacity];
+        }
+
+        private void varLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        private void zigzag(long value) {
+            varLong((value << 1) ^ (value >> 63));
+        }
+
+        private void string(String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            varLong(utf8.length);
+            bytes(utf8, utf8.length);
+        }
+
+        private void bytes(byte[] value, int length) {
+            ensure(length);
+            System.arraycopy(value, 0, buffer, size, length);
+            size += length;
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] buffer;
+        private final int limit;
+        private int position;
+
+        private Reader(byte[] buffer, int offset, int limit) {
+            this.buffer = buffer;
+            this.position = offset;
+            this.limit = limit;
+        }
+
+        private long varLong() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = next();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        private long zigzag() {
+            long value = varLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private String string() {
+            int length = (int) varLong();
+            checkAvailable(length);
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        private byte[] bytes(int length) {
+            checkAvailable(length);
+            byte[] value = Arrays.copyOfRange(buffer, position, position + length);
+            position += length;
+            return value;
+        }
+
+        private byte next() {
+            checkAvailable(1);
+            return buffer[position++];
+        }
+
+        private void checkAvailable(int length) {
+            if (length < 0 || position + length > limit) {
+                throw new IllegalArgumentException("Truncated product entry");
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.marketplace.product.codec;
+
+import com.marketplace.product.service.CachedProduct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * Redis value serializer for the product cache.
+ * <p>
+ * Cached products are written with the {@link ProductCodec} when the binary format is on.
+ * Anything else goes through the legacy JSON serializer. On read, the first byte selects the
+ * decoder: binary entries start with the codec version, and JSON always starts with a
+ * printable character. JSON entries written before the switch are still read while
+ * {@code readLegacyJson} is on. Otherwise they are treated as a miss.
+ */
+@Slf4j
+public class ProductCacheRedisSerializer implements RedisSerializer<Object> {
+
+    private final ProductCodec codec;
+    private final RedisSerializer<Object> legacySerializer;
+    private final boolean writeBinary;
+    private final boolean readLegacyJson;
+
+    public ProductCacheRedisSerializer(ProductCodec codec, RedisSerializer<Object> legacySerializer,
+                                       boolean writeBinary, boolean readLegacyJson) {
+        this.codec = codec;
+        this.legacySerializer = legacySerializer;
+        this.writeBinary = writeBinary;
+        this.readLegacyJson = readLegacyJson;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (writeBinary && value instanceof CachedProduct entry) {
+            return codec.encode(entry);
+        }
+        return legacySerializer.serialize(value);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (codec.canDecode(bytes)) {
+            try {
+                return codec.decode(bytes);
+            } catch (RuntimeException e) {
+                throw new SerializationException("Could not decode cached product", e);
+            }
+        }
+        if (!readLegacyJson) {
+            log.debug("Ignoring legacy JSON cache entry");
+            return null;
+        }
+        return legacySerializer.deserialize(bytes);
+    }
+}
@@ -0,0 +1,21 @@
+package com.marketplace.product.codec;
+
+import com.marketplace.product.service.CachedProduct;
+
+/**
+ * Encodes cached products to and from the bytes stored in Redis.
+ */
+public interface ProductCodec {
+
+    byte[] encode(CachedProduct entry);
+
+    /**
+     * @throws IllegalArgumentException if the bytes were not written by this codec
+     */
+    CachedProduct decode(byte[] bytes);
+
+    /**
+     * Whether the bytes look like they were written by this codec
+     */
+    boolean canDecode(byte[] bytes);
+}
@@ -0,0 +1,10 @@
+package com.marketplace.product.command;
+
+import com.marketplace.common.command.Command;
+import com.marketplace.product.dto.request.GetProductsByIdsRequest;
+import com.marketplace.product.dto.response.ProductResponse;
+
+import java.util.List;
+
+public interface GetProductsByIdsCommand extends Command<GetProductsByIdsRequest, List<ProductResponse>> {
+}
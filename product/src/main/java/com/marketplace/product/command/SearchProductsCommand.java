@@ -2,8 +2,7 @@ package com.marketplace.product.command;
 
 import com.marketplace.common.command.Command;
 import com.marketplace.product.dto.request.SearchProductsRequest;
-import com.marketplace.product.dto.response.ProductResponse;
-import org.springframework.data.domain.Page;
+import com.marketplace.product.dto.response.ProductSearchResponse;
 
-public interface SearchProductsCommand extends Command<SearchProductsRequest, Page<ProductResponse>> {
+public interface SearchProductsCommand extends Command<SearchProductsRequest, ProductSearchResponse> {
 }
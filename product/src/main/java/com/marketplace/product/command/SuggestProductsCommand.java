@@ -0,0 +1,10 @@
+package com.marketplace.product.command;
+
+import com.marketplace.common.command.Command;
+import com.marketplace.product.dto.request.SuggestProductsRequest;
+import com.marketplace.product.dto.response.ProductSuggestionResponse;
+
+import java.util.List;
+
+public interface SuggestProductsCommand extends Command<SuggestProductsRequest, List<ProductSuggestionResponse>> {
+}
@@ -25,20 +25,14 @@ public class GetProductByIdCommandImpl implements GetProductByIdCommand {
 
         log.info("Fetching product with ID: {}", productId);
 
-        // Try cache first
-        Product product = productCacheService.getProduct(productId)
-                .orElseGet(() -> {
-                    log.debug("Fetching product {} from database", productId);
-                    Product dbProduct = productRepository.findById(productId)
-                            .orElseThrow(() -> {
-                                log.warn("Product not found with ID: {}", productId);
-                                return new ResourceNotFoundException("Product", productId);
-                            });
-
-                    // Cache the result
-                    productCacheService.cacheProduct(dbProduct);
-
-                    return dbProduct;
+        // Cache first; concurrent misses share one database read
+        Product product = productCacheService.getOrLoad(productId, id -> {
+                    log.debug("Fetching product {} from database", id);
+                    return productRepository.findById(id);
+                })
+                .orElseThrow(() -> {
+                    log.warn("Product not found with ID: {}", productId);
+                    return new ResourceNotFoundException("Product", productId);
                 });
 
         return mapperService.map(product, com.marketplace.product.dto.response.ProductResponse.class);
@@ -0,0 +1,47 @@
+package com.marketplace.product.command.impl;
+
+import com.marketplace.common.mapper.MapperService;
+import com.marketplace.product.command.GetProductsByIdsCommand;
+import com.marketplace.product.document.Product;
+import com.marketplace.product.dto.request.GetProductsByIdsRequest;
+import com.marketplace.product.dto.response.ProductResponse;
+import com.marketplace.product.repository.ProductRepository;
+import com.marketplace.product.service.ProductCacheService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GetProductsByIdsCommandImpl implements GetProductsByIdsCommand {
+
+    private final ProductRepository productRepository;
+    private final ProductCacheService productCacheService;
+    private final MapperService mapperService;
+
+    @Override
+    public List<ProductResponse> execute(GetProductsByIdsRequest request) {
+        List<String> productIds = request.getProductIds();
+
+        log.info("Fetching {} products by ID", productIds.size());
+
+        // One MGET for the batch, then a single $in query for whatever was not cached
+        Map<String, Product> products = productCacheService.getOrLoadAll(productIds, missIds -> {
+            log.debug("Fetching {} products from database", missIds.size());
+            return productRepository.findAllById(missIds);
+        });
+
+        if (products.size() < productIds.size()) {
+            log.debug("{} of {} requested products were not found", productIds.size() - products.size(),
+                    productIds.size());
+        }
+
+        return products.values().stream()
+                .map(product -> mapperService.map(product, ProductResponse.class))
+                .toList();
+    }
+}
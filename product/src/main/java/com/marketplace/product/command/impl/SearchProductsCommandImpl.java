@@ -4,9 +4,13 @@ import com.marketplace.product.command.SearchProductsCommand;
 
 import com.marketplace.product.dto.request.SearchProductsRequest;
 
+import com.marketplace.product.dto.response.ProductSearchResponse;
+import com.marketplace.product.service.ProductSearchCacheService;
+import com.marketplace.product.service.ProductSearchResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.elasticsearch.core.TotalHitsRelation;
 import org.springframework.stereotype.Component;
 
 @Slf4j
@@ -14,27 +18,43 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class SearchProductsCommandImpl implements SearchProductsCommand {
 
-    private final com.marketplace.product.repository.ProductSearchRepository productSearchRepository;
+    private final com.marketplace.product.service.ProductSearchService productSearchService;
     private final com.marketplace.common.mapper.MapperService mapperService;
+    private final ProductSearchCacheService productSearchCacheService;
 
     @Override
-    public Page<com.marketplace.product.dto.response.ProductResponse> execute(SearchProductsRequest request) {
+    public ProductSearchResponse execute(SearchProductsRequest request) {
         var name = request.getName();
         var pageable = request.getPageable();
 
-        log.info("Searching products in ElasticSearch with name containing: '{}', page: {}", name,
-                pageable.getPageNumber());
+        log.info("Searching products in ElasticSearch for: '{}', category: {}, price: {}-{}, page: {}, cursor: {}",
+                name, request.getCategory(), request.getMinPrice(), request.getMaxPrice(), pageable.getPageNumber(),
+                request.getCursor() != null);
 
-        Page<com.marketplace.product.document.ProductSearchDoc> results;
-        if (name == null || name.trim().isEmpty()) {
-            log.debug("No search term provided, returning all products");
-            results = productSearchRepository.findAll(pageable);
-        } else {
-            results = productSearchRepository.findByNameOrDescriptionContaining(name, name, pageable);
-        }
+        return productSearchCacheService.getOrLoad(request, () -> search(request));
+    }
 
-        log.info("Found {} products matching search term", results.getTotalElements());
-        return results
-                .map(product -> mapperService.map(product, com.marketplace.product.dto.response.ProductResponse.class));
+    private ProductSearchResponse search(SearchProductsRequest request) {
+        ProductSearchResult result = productSearchService.search(request);
+        Page<com.marketplace.product.document.ProductSearchDoc> results = result.getPage();
+
+        boolean exact = result.getTotalHitsRelation() == null
+                || result.getTotalHitsRelation() == TotalHitsRelation.EQUAL_TO;
+
+        log.info("Found {}{} products matching search term", results.getTotalElements(), exact ? "" : "+");
+        return ProductSearchResponse.builder()
+                .content(results.getContent().stream()
+                        .map(product -> mapperService.map(product,
+                                com.marketplace.product.dto.response.ProductResponse.class))
+                        .toList())
+                .totalElements(results.getTotalElements())
+                .totalElementsRelation(exact ? "eq" : "gte")
+                .totalElementsLabel(exact ? String.valueOf(results.getTotalElements()) : results.getTotalElements() + "+")
+                .totalPages(results.getTotalPages())
+                .size(results.getSize())
+                .number(results.getNumber())
+                .nextCursor(result.getNextCursor())
+                .facets(result.getFacets())
+                .build();
     }
 }
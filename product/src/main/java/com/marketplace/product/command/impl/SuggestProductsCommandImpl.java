@@ -0,0 +1,25 @@
+package com.marketplace.product.command.impl;
+
+import com.marketplace.product.command.SuggestProductsCommand;
+import com.marketplace.product.dto.request.SuggestProductsRequest;
+import com.marketplace.product.dto.response.ProductSuggestionResponse;
+import com.marketplace.product.service.ProductSuggestService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SuggestProductsCommandImpl implements SuggestProductsCommand {
+
+    private final ProductSuggestService productSuggestService;
+
+    @Override
+    public List<ProductSuggestionResponse> execute(SuggestProductsRequest request) {
+        log.debug("Suggesting products for prefix: '{}'", request.getPrefix());
+        return productSuggestService.suggest(request.getPrefix(), request.getSize());
+    }
+}
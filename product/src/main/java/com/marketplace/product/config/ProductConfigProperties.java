@@ -4,6 +4,10 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
 /**
  * Configuration properties for Product Service
  */
@@ -14,17 +18,133 @@ public class ProductConfigProperties {
 
     private Search search = new Search();
     private Cache cache = new Cache();
+    private Indexer indexer = new Indexer();
 
     @Data
     public static class Search {
         private int defaultPageSize = 20;
         private int maxPageSize = 100;
         private boolean enableFuzzySearch = true;
+        // Relevance weight of a name match relative to a description match
+        private float nameBoost = 3.0f;
+        // Leading characters that must match exactly before fuzziness applies
+        private int fuzzyPrefixLength = 1;
+        private int fuzzyMaxExpansions = 50;
+        // Offset paging stops here; deeper pages must use the cursor
+        private int maxOffsetResults = 10000;
+        // How long a cursor stays valid between page requests
+        private Duration cursorKeepAlive = Duration.ofMinutes(1);
+        // exact counts every match; capped stops at track-total-hits-up-to; none skips counting
+        private TrackTotalHits trackTotalHits = TrackTotalHits.CAPPED;
+        private int trackTotalHitsUpTo = 10000;
+        private Facets facets = new Facets();
+        private Suggest suggest = new Suggest();
+        private ResultCache resultCache = new ResultCache();
+    }
+
+    @Data
+    public static class ResultCache {
+        private boolean enabled = true;
+        // Kept short so a change shows up even if the index generation is not bumped
+        private Duration ttl = Duration.ofSeconds(30);
+        // Deeper offset pages are rarely repeated and are not cached
+        private int maxCachedPages = 5;
+        // How often each node re-reads the index generation from Redis
+        private Duration generationCheckInterval = Duration.ofSeconds(1);
+        private boolean localEnabled = true;
+        private long localMaximumSize = 1000;
+        private Duration localTtl = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class Suggest {
+        private int defaultSize = 5;
+        private int maxSize = 10;
+        // Prefixes up to this length carry most type-ahead traffic and are cached in-process
+        private int cachedPrefixLength = 3;
+        private long cacheMaximumSize = 10000;
+        private Duration cacheTtl = Duration.ofMinutes(5);
+    }
+
+    @Data
+    public static class Facets {
+        // Most frequent categories returned in the category facet
+        private int categorySize = 20;
+        // Bucket edges of the price facet; below the first and above the last are open-ended
+        private List<BigDecimal> priceRanges = List.of(new BigDecimal("25"), new BigDecimal("50"),
+                new BigDecimal("100"), new BigDecimal("250"), new BigDecimal("500"), new BigDecimal("1000"));
+        private long cacheMaximumSize = 1000;
+        private Duration cacheTtl = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Indexer {
+        // Tails the products change stream; needs MongoDB running as a replica set
+        private boolean enabled = false;
+        private String collection = "products";
+        // Pending changes are sent in one bulk request at this size or after max-wait
+        private int bulkSize = 500;
+        private Duration maxWait = Duration.ofSeconds(1);
+        // Where the resume token of the last indexed change is kept
+        private String stateCollection = "search_indexer_state";
+        private Duration retryBackoff = Duration.ofSeconds(5);
+        private Reindex reindex = new Reindex();
+    }
+
+    @Data
+    public static class Reindex {
+        // Products read per cursor round trip and written per bulk request
+        private int batchSize = 1000;
+        // Applied to the new index once it is loaded; refresh and replicas are off while loading
+        private String refreshInterval = "1s";
+        private int replicas = 1;
+    }
+
+    public enum TrackTotalHits {
+        EXACT, CAPPED, NONE
     }
 
     @Data
     public static class Cache {
         private boolean enabled = true;
         private int ttlMinutes = 30;
+        private Local local = new Local();
+        // Redis channel used to tell every node to drop its in-process copy of a product
+        private String invalidationChannel = "product:invalidate";
+        private Stampede stampede = new Stampede();
+        private Codec codec = new Codec();
+    }
+
+    @Data
+    public static class Codec {
+        // "binary" writes the compact format, "json" keeps writing the old JSON entries
+        private String format = "binary";
+        // Keep reading JSON entries written before the switch until they expire
+        private boolean readLegacyJson = true;
+        private boolean compressionEnabled = true;
+        // Entries smaller than this are never compressed
+        private int compressionThreshold = 512;
+    }
+
+    @Data
+    public static class Stampede {
+        // Scales early refresh; 0 disables it, above 1 refreshes earlier
+        private double earlyRefreshBeta = 1.0;
+        // How long past its TTL an entry is kept so it can be served while reloading
+        private Duration staleTtl = Duration.ofMinutes(5);
+        // How long a request waits for a reload before it is served the stale entry
+        private Duration staleWaitTimeout = Duration.ofMillis(200);
+        // Cross-node lock so only one node loads a missing product
+        private boolean lockEnabled = false;
+        private Duration lockTtl = Duration.ofSeconds(5);
+        private Duration lockWait = Duration.ofMillis(500);
+    }
+
+    @Data
+    public static class Local {
+        private boolean enabled = true;
+        private long maximumSize = 10000;
+        // Upper bound on staleness if an invalidation message is missed
+        private Duration ttl = Duration.ofMinutes(1);
     }
 }
@@ -16,6 +16,9 @@ public final class ProductConstants {
         public static final String PRODUCT_NOT_FOUND = "Product not found with ID: %s";
         public static final String INVALID_PRICE = "Price must be greater than 0";
         public static final String INVALID_STOCK = "Stock cannot be negative";
+        public static final String INVALID_CURSOR = "Search cursor is malformed";
+        public static final String CURSOR_EXPIRED = "Search cursor has expired, start the search again";
+        public static final String OFFSET_WINDOW_EXCEEDED = "Pages beyond the first %d results need the cursor parameter";
 
         private ErrorMessages() {
         }
@@ -32,6 +35,9 @@ public final class ProductConstants {
         public static final String CATEGORY_REQUIRED = "Category is required";
         public static final String STOCK_REQUIRED = "Stock is required";
         public static final String STOCK_MIN = "Stock cannot be negative";
+        public static final String PRODUCT_IDS_REQUIRED = "At least one product ID is required";
+        public static final String PRODUCT_IDS_MAX = "At most 100 product IDs can be requested at once";
+        public static final String PRODUCT_ID_BLANK = "Product IDs cannot be blank";
 
         private ValidationMessages() {
         }
@@ -4,21 +4,30 @@ import com.marketplace.common.controller.BaseCommandController;
 import com.marketplace.common.dto.ApiResponse;
 
 import com.marketplace.product.command.GetProductByIdCommand;
+import com.marketplace.product.command.GetProductsByIdsCommand;
 import com.marketplace.product.command.SearchProductsCommand;
+import com.marketplace.product.command.SuggestProductsCommand;
 import com.marketplace.product.dto.request.GetProductByIdRequest;
+import com.marketplace.product.dto.request.GetProductsByIdsRequest;
 import com.marketplace.product.dto.request.SearchProductsRequest;
+import com.marketplace.product.dto.request.SuggestProductsRequest;
 import com.marketplace.product.dto.response.ProductResponse;
+import com.marketplace.product.dto.response.ProductSearchResponse;
+import com.marketplace.product.dto.response.ProductSuggestionResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
+import java.util.List;
+
 /**
  * REST controller for product operations.
  * Provides endpoints for searching and retrieving product details.
@@ -32,23 +41,34 @@ public class ProductController extends BaseCommandController {
     private static final int MAX_PAGE_SIZE = 100;
 
     /**
-     * Search products by name with pagination.
+     * Search products by name with pagination, ranked by relevance.
      *
-     * @param name Search term for product name (case-insensitive, partial match)
+     * @param name Search term for product name and description (case-insensitive, partial words and typos match)
+     * @param category Optional exact category filter
+     * @param minPrice Optional lower price bound
+     * @param maxPrice Optional upper price bound
      * @param page Page number (0-indexed)
      * @param size Page size (max 100)
+     * @param cursor Cursor for deep paging; when present, page is ignored
+     * @param facets Whether to include category and price-range facet counts
      * @return Paginated list of matching products
      */
-    @Operation(summary = "Search products", description = "Search products by name with pagination support")
+    @Operation(summary = "Search products", description = "Search products by name with optional category/price filters and pagination")
     @ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Products found"),
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid pagination parameters")
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid pagination parameters, expired cursor or page beyond the offset window")
     })
     @GetMapping("/search")
-    public ResponseEntity<ApiResponse<Page<ProductResponse>>> searchProducts(
+    public ResponseEntity<ApiResponse<ProductSearchResponse>> searchProducts(
             @Parameter(description = "Search term for product name") @RequestParam(required = false, defaultValue = "") String name,
+            @Parameter(description = "Exact category filter") @RequestParam(required = false) String category,
+            @Parameter(description = "Minimum price (inclusive)") @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Maximum price (inclusive)") @RequestParam(required = false) BigDecimal maxPrice,
             @Parameter(description = "Page number (0-indexed)") @RequestParam(defaultValue = "0") int page,
-            @Parameter(description = "Page size (max 100)") @RequestParam(defaultValue = "10") int size) {
+            @Parameter(description = "Page size (max 100)") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Cursor from the previous page's nextCursor; pass it empty to start a cursor scroll")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Also return category and price-range counts") @RequestParam(defaultValue = "false") boolean facets) {
 
         // Validate and cap page size to prevent excessive memory usage
         int validatedSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
@@ -63,10 +83,37 @@ public class ProductController extends BaseCommandController {
         Pageable pageable = PageRequest.of(validatedPage, validatedSize);
         SearchProductsRequest request = SearchProductsRequest.builder()
                 .name(name)
+                .category(category)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
                 .pageable(pageable)
+                .cursor(cursor)
+                .includeFacets(facets)
                 .build();
 
-        Page<ProductResponse> response = execute(SearchProductsCommand.class, request);
+        ProductSearchResponse response = execute(SearchProductsCommand.class, request);
+        return okResponse(response);
+    }
+
+    /**
+     * Suggest product names for a typed prefix.
+     *
+     * @param prefix Beginning of any word in the product name (case-insensitive)
+     * @param size Number of suggestions (max 10)
+     * @return Matching products, best first
+     */
+    @Operation(summary = "Suggest products", description = "Autocomplete product names from a typed prefix")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Suggestions returned")
+    })
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse<List<ProductSuggestionResponse>>> suggestProducts(
+            @Parameter(description = "Typed prefix") @RequestParam(defaultValue = "") String prefix,
+            @Parameter(description = "Number of suggestions (max 10)") @RequestParam(defaultValue = "5") int size) {
+        log.debug("Suggest products request - prefix: '{}', size: {}", prefix, size);
+
+        SuggestProductsRequest request = SuggestProductsRequest.builder().prefix(prefix).size(size).build();
+        List<ProductSuggestionResponse> response = execute(SuggestProductsCommand.class, request);
         return okResponse(response);
     }
 
@@ -90,4 +137,24 @@ public class ProductController extends BaseCommandController {
         ProductResponse response = execute(GetProductByIdCommand.class, request);
         return okResponse(response);
     }
+
+    /**
+     * Get several products by ID in one call.
+     *
+     * @param request Product IDs (max 100)
+     * @return Details of the products found, in request order; unknown IDs are skipped
+     */
+    @Operation(summary = "Get products by IDs", description = "Retrieve details of up to 100 products in request order")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Products found"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Missing or too many product IDs")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<List<ProductResponse>>> getProductsByIds(
+            @Valid @RequestBody GetProductsByIdsRequest request) {
+        log.info("Batch get products request for {} IDs", request.getProductIds().size());
+
+        List<ProductResponse> response = execute(GetProductsByIdsCommand.class, request);
+        return okResponse(response);
+    }
 }
@@ -5,23 +5,35 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.CompletionField;
 import org.springframework.data.elasticsearch.annotations.Document;
 import org.springframework.data.elasticsearch.annotations.Field;
 import org.springframework.data.elasticsearch.annotations.FieldType;
+import org.springframework.data.elasticsearch.annotations.InnerField;
+import org.springframework.data.elasticsearch.annotations.MultiField;
+import org.springframework.data.elasticsearch.annotations.Setting;
+import org.springframework.data.elasticsearch.core.suggest.Completion;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(indexName = "products")
+@Setting(settingPath = "/elasticsearch/product-settings.json")
 public class ProductSearchDoc {
 
     @Id
     private String id;
 
-    @Field(type = FieldType.Text, analyzer = "standard")
+    // name.ngram indexes prefixes so partial words match without wildcard queries
+    @MultiField(
+            mainField = @Field(type = FieldType.Text, analyzer = "standard"),
+            otherFields = @InnerField(suffix = "ngram", type = FieldType.Text,
+                    analyzer = "edge_ngram_analyzer", searchAnalyzer = "standard"))
     private String name;
 
     @Field(type = FieldType.Text, analyzer = "standard")
@@ -35,4 +47,42 @@ public class ProductSearchDoc {
 
     @Field(type = FieldType.Integer)
     private Integer stock;
+
+    // Autocomplete input: the name and each trailing run of its words
+    @CompletionField(maxInputLength = 100)
+    private Completion suggest;
+
+    private static final int MAX_SUGGEST_INPUTS = 5;
+
+    /**
+     * Build the search document for a product. Every indexing path should go through here
+     * so the derived fields stay consistent.
+     */
+    public static ProductSearchDoc from(Product product) {
+        return ProductSearchDoc.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .description(product.getDescription())
+                .price(product.getPrice())
+                .category(product.getCategory())
+                .stock(product.getStock())
+                .suggest(suggestFor(product.getName()))
+                .build();
+    }
+
+    /**
+     * The completion suggester only matches from the start of an input, so "lap" finds
+     * "Gaming Laptop" through its "Laptop" input.
+     */
+    static Completion suggestFor(String name) {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        String[] words = name.trim().split("\\s+");
+        List<String> inputs = new ArrayList<>();
+        for (int i = 0; i < words.length && inputs.size() < MAX_SUGGEST_INPUTS; i++) {
+            inputs.add(String.join(" ", List.of(words).subList(i, words.length)));
+        }
+        return new Completion(inputs);
+    }
 }
@@ -0,0 +1,23 @@
+package com.marketplace.product.dto.request;
+
+import com.marketplace.product.constant.ProductConstants;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GetProductsByIdsRequest {
+
+    @NotEmpty(message = ProductConstants.ValidationMessages.PRODUCT_IDS_REQUIRED)
+    @Size(max = 100, message = ProductConstants.ValidationMessages.PRODUCT_IDS_MAX)
+    private List<@NotBlank(message = ProductConstants.ValidationMessages.PRODUCT_ID_BLANK) String> productIds;
+}
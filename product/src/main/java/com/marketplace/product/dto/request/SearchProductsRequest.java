@@ -6,11 +6,20 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.domain.Pageable;
 
+import java.math.BigDecimal;
+
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class SearchProductsRequest {
     private String name;
+    private String category;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
     private Pageable pageable;
+    // Null for offset paging; empty starts a cursor scroll, otherwise the previous nextCursor
+    private String cursor;
+    // Also return category and price-range counts for the filtered result set
+    private boolean includeFacets;
 }
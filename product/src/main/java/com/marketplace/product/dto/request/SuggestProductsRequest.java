@@ -0,0 +1,15 @@
+package com.marketplace.product.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestProductsRequest {
+    private String prefix;
+    private int size;
+}
@@ -0,0 +1,15 @@
+package com.marketplace.product.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryFacetResponse {
+    private String category;
+    private long count;
+}
@@ -0,0 +1,20 @@
+package com.marketplace.product.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceRangeFacetResponse {
+    // Inclusive lower bound; null for the lowest bucket
+    private BigDecimal from;
+    // Exclusive upper bound; null for the highest bucket
+    private BigDecimal to;
+    private long count;
+}
@@ -0,0 +1,28 @@
+package com.marketplace.product.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchResponse {
+    private List<ProductResponse> content;
+    private long totalElements;
+    // "eq" when totalElements is exact, "gte" when it is a lower bound
+    private String totalElementsRelation;
+    // Display form of the total, e.g. "42" or "10000+"
+    private String totalElementsLabel;
+    private int totalPages;
+    private int size;
+    private int number;
+    // Pass back as ?cursor= for the next page; null on the last page or in offset mode
+    private String nextCursor;
+    // Only when facets were requested
+    private SearchFacetsResponse facets;
+}
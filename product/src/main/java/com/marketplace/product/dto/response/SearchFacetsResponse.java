@@ -0,0 +1,17 @@
+package com.marketplace.product.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchFacetsResponse {
+    private List<CategoryFacetResponse> categories;
+    private List<PriceRangeFacetResponse> priceRanges;
+}
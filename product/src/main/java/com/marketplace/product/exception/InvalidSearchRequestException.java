@@ -0,0 +1,19 @@
+package com.marketplace.product.exception;
+
+import com.marketplace.common.exception.BaseException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Exception thrown when a search asks for a page the index can't serve, such as a
+ * malformed or expired cursor or an offset past the paging window
+ */
+public class InvalidSearchRequestException extends BaseException {
+
+    public InvalidSearchRequestException(String message) {
+        super(message, HttpStatus.BAD_REQUEST.value(), "INVALID_SEARCH_REQUEST");
+    }
+
+    public InvalidSearchRequestException(String message, Throwable cause) {
+        super(message, cause, HttpStatus.BAD_REQUEST.value(), "INVALID_SEARCH_REQUEST");
+    }
+}
@@ -0,0 +1,11 @@
+package com.marketplace.product.indexer;
+
+/**
+ * A search index write that failed and may succeed if retried.
+ */
+public class IndexingException extends RuntimeException {
+
+    public IndexingException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
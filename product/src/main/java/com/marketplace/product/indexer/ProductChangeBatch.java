@@ -0,0 +1,101 @@
+package com.marketplace.product.indexer;
+
+import com.marketplace.product.document.Product;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Changes read from the stream but not yet indexed. A later change to a product replaces
+ * the earlier one, so a burst of updates is indexed once.
+ */
+class ProductChangeBatch {
+
+    /**
+     * @param product the current product, or null when it was deleted
+     * @param eventMillis when the change was made in MongoDB
+     */
+    record Change(String productId, Product product, long eventMillis) {
+    }
+
+    private final Map<String, Change> changes = new LinkedHashMap<>();
+    private BsonDocument resumeToken;
+    private long startedAt;
+
+    /**
+     * @param change the change, or null for an event that only advances the stream
+     */
+    void add(Change change, BsonDocument resumeToken, long now) {
+        if (this.resumeToken == null) {
+            startedAt = now;
+        }
+        if (change != null) {
+            changes.remove(change.productId());
+            changes.put(change.productId(), change);
+        }
+        this.resumeToken = resumeToken;
+    }
+
+    boolean isDue(long now, int maxSize, long maxWaitMillis) {
+        return resumeToken != null && (changes.size() >= maxSize || now - startedAt >= maxWaitMillis);
+    }
+
+    boolean isEmpty() {
+        return resumeToken == null;
+    }
+
+    Collection<Change> changes() {
+        return changes.values();
+    }
+
+    /**
+     * @return products to write keyed by id, null for deleted ones
+     */
+    Map<String, Product> products() {
+        Map<String, Product> products = new LinkedHashMap<>();
+        changes.values().forEach(change -> products.put(change.productId(), change.product()));
+        return products;
+    }
+
+    BsonDocument resumeToken() {
+        return resumeToken;
+    }
+
+    /**
+     * @return the change to index, or null for events that don't change a product
+     */
+    static Change changeOf(ChangeStreamDocument<Document> event, MongoConverter converter) {
+        String productId = event.getDocumentKey() != null ? productId(event.getDocumentKey().get("_id")) : null;
+        if (productId == null) {
+            return null;
+        }
+
+        long eventMillis = event.getWallTime() != null
+                ? event.getWallTime().getValue()
+                : event.getClusterTime() != null ? event.getClusterTime().getTime() * 1000L : System.currentTimeMillis();
+        return switch (event.getOperationTypeString()) {
+            case "insert", "update", "replace" -> new Change(productId,
+                    // Null when the product was deleted before the update was looked up
+                    event.getFullDocument() != null ? converter.read(Product.class, event.getFullDocument()) : null,
+                    eventMillis);
+            case "delete" -> new Change(productId, null, eventMillis);
+            default -> null;
+        };
+    }
+
+    private static String productId(BsonValue id) {
+        if (id == null) {
+            return null;
+        }
+        if (id.isObjectId()) {
+            return id.asObjectId().getValue().toHexString();
+        }
+        return id.isString() ? id.asString().getValue() : null;
+    }
+}
@@ -0,0 +1,222 @@
+package com.marketplace.product.indexer;
+
+import com.marketplace.product.config.ProductConfigProperties;
+import com.marketplace.product.document.Product;
+import com.marketplace.product.service.ProductCacheService;
+import com.marketplace.product.service.ProductSearchCacheService;
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the product search index in sync with MongoDB by tailing the change stream of the
+ * products collection.
+ * <p>
+ * Changes are collected into a {@link ProductChangeBatch} and sent to Elasticsearch in one
+ * bulk request once {@code bulk-size} are pending or {@code max-wait} has passed. After a
+ * batch is indexed, the changed products are evicted from the product cache, the search
+ * result cache generation is bumped, and the resume token of the last change is saved.
+ * A restart or a failed batch replays the stream from the saved token, so a change can be
+ * indexed twice but never skipped.
+ * <p>
+ * If the saved token is no longer in the oplog, the stream starts from the current time.
+ * The index has then missed changes and needs a full reindex.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "product.indexer", name = "enabled", havingValue = "true")
+public class ProductChangeStreamIndexer {
+
+    static final String PIPELINE = "product-search";
+
+    // Server error codes for a resume token that can no longer be used
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+    private static final int CHANGE_STREAM_FATAL_ERROR = 280;
+    // How often the position of an idle stream is saved so its token stays in the oplog
+    private static final long IDLE_CHECKPOINT_MILLIS = 30_000;
+
+    private final MongoTemplate mongoTemplate;
+    private final ProductIndexWriter indexWriter;
+    private final ResumeTokenStore resumeTokenStore;
+    private final ProductCacheService productCacheService;
+    private final ProductSearchCacheService productSearchCacheService;
+    private final ProductConfigProperties.Indexer config;
+
+    private final Counter indexed;
+    private final Counter deleted;
+    private final Counter failed;
+    private final Counter errors;
+    private final Timer bulkTimer;
+    private final Timer lag;
+
+    private volatile boolean running;
+    private Thread worker;
+    private long checkpointedAt;
+
+    public ProductChangeStreamIndexer(MongoTemplate mongoTemplate,
+                                      ProductIndexWriter indexWriter,
+                                      ResumeTokenStore resumeTokenStore,
+                                      ProductCacheService productCacheService,
+                                      ProductSearchCacheService productSearchCacheService,
+                                      ProductConfigProperties properties,
+                                      MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.indexWriter = indexWriter;
+        this.resumeTokenStore = resumeTokenStore;
+        this.productCacheService = productCacheService;
+        this.productSearchCacheService = productSearchCacheService;
+        this.config = properties.getIndexer();
+
+        this.indexed = Counter.builder("product.indexer.changes")
+                .tag("operation", "index")
+                .description("Product changes written to the search index")
+                .register(meterRegistry);
+        this.deleted = Counter.builder("product.indexer.changes")
+                .tag("operation", "delete")
+                .description("Product changes written to the search index")
+                .register(meterRegistry);
+        this.failed = Counter.builder("product.indexer.failures")
+                .description("Product changes the search index rejected")
+                .register(meterRegistry);
+        this.errors = Counter.builder("product.indexer.errors")
+                .description("Stream or bulk errors that caused a batch to be replayed")
+                .register(meterRegistry);
+        this.bulkTimer = Timer.builder("product.indexer.bulk")
+                .description("Duration of bulk requests to the search index")
+                .register(meterRegistry);
+        this.lag = Timer.builder("product.indexer.lag")
+                .description("Time from a change in MongoDB to its write to the search index")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        worker = Thread.ofVirtual().name("product-indexer").start(this::run);
+        log.info("Product search indexer started on collection {}", config.getCollection());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.join(config.getMaxWait().multipliedBy(2).toMillis());
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = openStream()) {
+                tail(cursor);
+            } catch (MongoCommandException e) {
+                if (e.getErrorCode() == CHANGE_STREAM_HISTORY_LOST || e.getErrorCode() == CHANGE_STREAM_FATAL_ERROR) {
+                    log.error("Resume token is no longer in the oplog; indexing from now on. Run a full reindex: {}",
+                            e.getMessage());
+                    resumeTokenStore.clear(PIPELINE);
+                } else {
+                    backOff(e);
+                }
+            } catch (Exception e) {
+                backOff(e);
+            }
+        }
+        log.info("Product search indexer stopped");
+    }
+
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> openStream() {
+        ChangeStreamIterable<Document> stream = mongoTemplate.getCollection(config.getCollection())
+                .watch()
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .batchSize(config.getBulkSize())
+                .maxAwaitTime(config.getMaxWait().toMillis(), TimeUnit.MILLISECONDS);
+        Optional<BsonDocument> token = resumeTokenStore.load(PIPELINE);
+        // startAfter, unlike resumeAfter, can also continue past an invalidate event
+        token.ifPresent(stream::startAfter);
+        log.info("Opening products change stream {}", token.isPresent() ? "from saved position" : "from now");
+        return stream.cursor();
+    }
+
+    private void tail(MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor) {
+        ProductChangeBatch batch = new ProductChangeBatch();
+        long maxWaitMillis = config.getMaxWait().toMillis();
+        while (running) {
+            ChangeStreamDocument<Document> event = cursor.tryNext();
+            long now = System.currentTimeMillis();
+            if (event != null) {
+                batch.add(toChange(event), event.getResumeToken(), now);
+            }
+
+            if (batch.isDue(now, config.getBulkSize(), maxWaitMillis)) {
+                flush(batch);
+                batch = new ProductChangeBatch();
+            } else if (batch.isEmpty() && now - checkpointedAt >= IDLE_CHECKPOINT_MILLIS
+                    && cursor.getResumeToken() != null) {
+                resumeTokenStore.save(PIPELINE, cursor.getResumeToken());
+                checkpointedAt = now;
+            }
+        }
+        // Unflushed changes are replayed from the saved token on the next start
+    }
+
+    /**
+     * Index the batch, drop the changed products from the caches and save the stream position.
+     */
+    void flush(ProductChangeBatch batch) {
+        Map<String, Product> products = batch.products();
+
+        if (!products.isEmpty()) {
+            int rejected = bulkTimer.record(() -> indexWriter.write(indexWriter.defaultIndex(), products));
+            long now = System.currentTimeMillis();
+            for (ProductChangeBatch.Change change : batch.changes()) {
+                (change.product() != null ? indexed : deleted).increment();
+                lag.record(Duration.ofMillis(Math.max(0, now - change.eventMillis())));
+                productCacheService.evictProduct(change.productId());
+            }
+            failed.increment(rejected);
+            productSearchCacheService.bumpGeneration();
+            log.debug("Indexed {} product changes", products.size());
+        }
+
+        resumeTokenStore.save(PIPELINE, batch.resumeToken());
+        checkpointedAt = System.currentTimeMillis();
+    }
+
+    ProductChangeBatch.Change toChange(ChangeStreamDocument<Document> event) {
+        ProductChangeBatch.Change change = ProductChangeBatch.changeOf(event, mongoTemplate.getConverter());
+        if (change == null) {
+            log.warn("Skipping {} event on products change stream", event.getOperationTypeString());
+        }
+        return change;
+    }
+
+    private void backOff(Exception e) {
+        errors.increment();
+        log.error("Product search indexer failed, retrying in {}: {}", config.getRetryBackoff(), e.getMessage());
+        try {
+            Thread.sleep(config.getRetryBackoff().toMillis());
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
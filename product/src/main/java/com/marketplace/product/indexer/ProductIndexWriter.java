@@ -0,0 +1,90 @@
+package com.marketplace.product.indexer;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import com.marketplace.product.document.Product;
+import com.marketplace.product.document.ProductSearchDoc;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.convert.ElasticsearchConverter;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Writes products to a search index with one {@code _bulk} request per call.
+ * <p>
+ * Documents are mapped with the same converter the repositories use, so the source matches
+ * what {@code ProductSearchRepository.save} would write. Rejected or failed shard writes
+ * (429 and 5xx) throw, so the caller can retry the whole batch. Other item failures, such as
+ * a mapping error, would fail again on retry; they are logged and counted instead.
+ */
+@Slf4j
+@Component
+public class ProductIndexWriter {
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final ElasticsearchConverter converter;
+    private final String defaultIndex;
+
+    public ProductIndexWriter(ElasticsearchClient elasticsearchClient, ElasticsearchOperations elasticsearchOperations) {
+        this.elasticsearchClient = elasticsearchClient;
+        this.converter = elasticsearchOperations.getElasticsearchConverter();
+        this.defaultIndex = elasticsearchOperations.getIndexCoordinatesFor(ProductSearchDoc.class).getIndexName();
+    }
+
+    /**
+     * Name the product search index is read and written through.
+     */
+    public String defaultIndex() {
+        return defaultIndex;
+    }
+
+    /**
+     * @param products products to index keyed by id; a null product deletes the document
+     * @return number of documents that could not be written and should not be retried
+     * @throws IndexingException when the request fails or a write may succeed on retry
+     */
+    public int write(String index, Map<String, Product> products) {
+        if (products.isEmpty()) {
+            return 0;
+        }
+
+        BulkRequest.Builder bulk = new BulkRequest.Builder().index(index);
+        products.forEach((id, product) -> {
+            if (product == null) {
+                bulk.operations(op -> op.delete(d -> d.id(id)));
+            } else {
+                Map<String, Object> source = converter.mapObject(ProductSearchDoc.from(product));
+                bulk.operations(op -> op.index(i -> i.id(id).document(source)));
+            }
+        });
+
+        BulkResponse response;
+        try {
+            response = elasticsearchClient.bulk(bulk.build());
+        } catch (IOException e) {
+            throw new IndexingException("Bulk request to " + index + " failed", e);
+        }
+        if (!response.errors()) {
+            return 0;
+        }
+
+        int failed = 0;
+        for (BulkResponseItem item : response.items()) {
+            if (item.error() == null) {
+                continue;
+            }
+            if (item.status() == 429 || item.status() >= 500) {
+                throw new IndexingException("Bulk write of product " + item.id() + " to " + index
+                        + " failed with status " + item.status() + ": " + item.error().reason(), null);
+            }
+            log.error("Could not index product {} into {}: {}", item.id(), index, item.error().reason());
+            failed++;
+        }
+        return failed;
+    }
+}
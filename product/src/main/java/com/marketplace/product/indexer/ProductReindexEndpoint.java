@@ -0,0 +1,36 @@
+package com.marketplace.product.indexer;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/searchreindex}: GET reports the last reindex, POST starts or resumes one.
+ */
+@Component
+@Endpoint(id = "searchreindex")
+@RequiredArgsConstructor
+public class ProductReindexEndpoint {
+
+    private final ProductReindexer productReindexer;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", productReindexer.isRunning());
+        status.put("state", productReindexer.findState());
+        return status;
+    }
+
+    @WriteOperation
+    public Map<String, Object> start() {
+        boolean started = productReindexer.start();
+        return Map.of("started", started,
+                "message", started ? "Reindex started" : "A reindex is already running on this node");
+    }
+}
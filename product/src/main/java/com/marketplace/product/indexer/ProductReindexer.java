@@ -0,0 +1,338 @@
+package com.marketplace.product.indexer;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.indices.update_aliases.Action;
+import com.marketplace.product.config.ProductConfigProperties;
+import com.marketplace.product.document.Product;
+import com.marketplace.product.document.ProductSearchDoc;
+import com.marketplace.product.service.ProductSearchCacheService;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonTimestamp;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.index.Settings;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Rebuilds the product search index without downtime.
+ * <p>
+ * Searches and writes go through the {@code products} alias. A run creates the next
+ * {@code products_vN} index with refresh and replicas off and streams every product into it
+ * in {@code _id} order with a cursor. Progress is saved after each bulk request. The index
+ * settings are then restored and the alias is moved to the new index in one atomic
+ * {@code _aliases} call. An index still named {@code products} from before aliases were used
+ * is removed in that same call.
+ * <p>
+ * Products changed during the load may be missed by the cursor. After the swap, the
+ * products change stream is replayed from the time the run began. This needs a replica set;
+ * on a standalone server the step is skipped. The previous index is kept for rollback.
+ * <p>
+ * A run that crashed is resumed by starting it again. It continues after the last saved
+ * product, and every later step can safely be repeated.
+ */
+@Slf4j
+@Component
+public class ProductReindexer {
+
+    static final String STATE_ID = "product-reindex";
+    static final String VERSION_SEPARATOR = "_v";
+
+    private static final long PROGRESS_LOG_MILLIS = 10_000;
+
+    private final MongoTemplate mongoTemplate;
+    private final ElasticsearchClient elasticsearchClient;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ProductIndexWriter indexWriter;
+    private final ProductSearchCacheService productSearchCacheService;
+    private final ProductConfigProperties.Indexer config;
+    private final Counter reindexed;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public ProductReindexer(MongoTemplate mongoTemplate,
+                            ElasticsearchClient elasticsearchClient,
+                            ElasticsearchOperations elasticsearchOperations,
+                            ProductIndexWriter indexWriter,
+                            ProductSearchCacheService productSearchCacheService,
+                            ProductConfigProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.elasticsearchClient = elasticsearchClient;
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.indexWriter = indexWriter;
+        this.productSearchCacheService = productSearchCacheService;
+        this.config = properties.getIndexer();
+        this.reindexed = Counter.builder("product.reindex.documents")
+                .description("Products written to the new index by a full reindex")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Start a reindex in the background, or resume the one that was interrupted.
+     *
+     * @return false if a reindex is already running on this node
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread.ofVirtual().name("product-reindex").start(() -> {
+            try {
+                run();
+            } catch (Exception e) {
+                log.error("Product reindex failed: {}", e.getMessage(), e);
+                ReindexState state = findState();
+                if (state != null) {
+                    state.setStatus(ReindexState.Status.FAILED);
+                    state.setError(e.getMessage());
+                    saveState(state);
+                }
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public ReindexState findState() {
+        return mongoTemplate.findById(STATE_ID, ReindexState.class, config.getStateCollection());
+    }
+
+    void run() throws IOException {
+        ReindexState state = findState();
+        if (state == null || state.getStatus() == ReindexState.Status.COMPLETED) {
+            state = begin();
+        } else {
+            log.info("Resuming reindex into {} after {} products", state.getTargetIndex(), state.getIndexed());
+            state.setStatus(ReindexState.Status.RUNNING);
+            state.setError(null);
+        }
+
+        load(state);
+        restoreSettings(state.getTargetIndex());
+        swapAlias(indexWriter.defaultIndex(), state.getTargetIndex());
+        catchUp(state);
+        productSearchCacheService.bumpGeneration();
+
+        state.setStatus(ReindexState.Status.COMPLETED);
+        saveState(state);
+        log.info("Reindex complete: {} products in {}, alias {} swapped",
+                state.getIndexed(), state.getTargetIndex(), indexWriter.defaultIndex());
+    }
+
+    private ReindexState begin() throws IOException {
+        String alias = indexWriter.defaultIndex();
+        Set<String> existing = elasticsearchClient.indices()
+                .get(g -> g.index(alias + VERSION_SEPARATOR + "*").allowNoIndices(true).ignoreUnavailable(true))
+                .result().keySet();
+        String target = alias + VERSION_SEPARATOR + nextVersion(alias, existing);
+
+        IndexOperations docOps = elasticsearchOperations.indexOps(ProductSearchDoc.class);
+        Settings settings = docOps.createSettings(ProductSearchDoc.class);
+        // Nothing searches the new index until the swap, so skip refreshes and replica copies
+        settings.put("index.refresh_interval", "-1");
+        settings.put("index.number_of_replicas", 0);
+        elasticsearchOperations.indexOps(IndexCoordinates.of(target))
+                .create(settings, docOps.createMapping(ProductSearchDoc.class));
+        log.info("Created {} for reindex", target);
+
+        Instant now = Instant.now();
+        ReindexState state = ReindexState.builder()
+                .id(STATE_ID)
+                .status(ReindexState.Status.RUNNING)
+                .targetIndex(target)
+                .startOperationTime(operationTime())
+                .startedAt(now)
+                .build();
+        saveState(state);
+        return state;
+    }
+
+    private void load(ReindexState state) {
+        ProductConfigProperties.Reindex reindex = config.getReindex();
+        MongoCollection<Document> products = mongoTemplate.getCollection(config.getCollection());
+        Bson filter = state.getLastProductId() != null ? Filters.gt("_id", state.getLastProductId()) : Filters.empty();
+
+        long startedAt = System.currentTimeMillis();
+        long startCount = state.getIndexed();
+        long loggedAt = startedAt;
+        Map<String, Product> batch = new LinkedHashMap<>();
+        Object lastId = null;
+        try (MongoCursor<Document> cursor = products.find(filter)
+                .sort(Sorts.ascending("_id"))
+                .batchSize(reindex.getBatchSize())
+                .cursor()) {
+            while (cursor.hasNext()) {
+                Document document = cursor.next();
+                Product product = mongoTemplate.getConverter().read(Product.class, document);
+                batch.put(product.getId(), product);
+                lastId = document.get("_id");
+                if (batch.size() >= reindex.getBatchSize() || !cursor.hasNext()) {
+                    writeBatch(state, batch, lastId, startedAt, startCount);
+                    batch.clear();
+                    if (System.currentTimeMillis() - loggedAt >= PROGRESS_LOG_MILLIS) {
+                        log.info("Reindexed {} products into {} ({} docs/sec)", state.getIndexed(),
+                                state.getTargetIndex(), Math.round(state.getDocsPerSecond()));
+                        loggedAt = System.currentTimeMillis();
+                    }
+                }
+            }
+        }
+    }
+
+    private void writeBatch(ReindexState state, Map<String, Product> batch, Object lastId,
+                            long startedAt, long startCount) {
+        int rejected = indexWriter.write(state.getTargetIndex(), batch);
+        if (rejected > 0) {
+            log.warn("{} products were rejected by {}", rejected, state.getTargetIndex());
+        }
+        reindexed.increment(batch.size());
+        state.setIndexed(state.getIndexed() + batch.size());
+        state.setLastProductId(lastId);
+        long elapsed = Math.max(1, System.currentTimeMillis() - startedAt);
+        state.setDocsPerSecond((state.getIndexed() - startCount) * 1000.0 / elapsed);
+        saveState(state);
+    }
+
+    private void restoreSettings(String index) throws IOException {
+        ProductConfigProperties.Reindex reindex = config.getReindex();
+        elasticsearchClient.indices().putSettings(p -> p
+                .index(index)
+                .settings(s -> s
+                        .refreshInterval(t -> t.time(reindex.getRefreshInterval()))
+                        .numberOfReplicas(String.valueOf(reindex.getReplicas()))));
+        elasticsearchClient.indices().refresh(r -> r.index(index));
+    }
+
+    private void swapAlias(String alias, String target) throws IOException {
+        Collection<String> aliased = List.of();
+        boolean legacyIndex = false;
+        if (elasticsearchClient.indices().existsAlias(e -> e.name(alias)).value()) {
+            aliased = elasticsearchClient.indices().getAlias(g -> g.name(alias)).result().keySet();
+        } else {
+            legacyIndex = elasticsearchClient.indices().exists(e -> e.index(alias)).value();
+        }
+
+        List<Action> actions = aliasActions(alias, target, aliased, legacyIndex);
+        elasticsearchClient.indices().updateAliases(u -> u.actions(actions));
+        log.info("Alias {} now points to {} (was {})", alias, target,
+                legacyIndex ? "index " + alias : aliased.isEmpty() ? "unset" : aliased);
+    }
+
+    /**
+     * Replay changes made since the run began, so products edited while the cursor was
+     * reading are current in the new index.
+     */
+    private void catchUp(ReindexState state) {
+        if (state.getStartOperationTime() == null) {
+            log.warn("MongoDB did not report an operation time; skipping change replay after reindex");
+            return;
+        }
+
+        MongoCollection<Document> products = mongoTemplate.getCollection(config.getCollection());
+        int replayed = 0;
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = products.watch()
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .startAtOperationTime(new BsonTimestamp(state.getStartOperationTime()))
+                .maxAwaitTime(config.getMaxWait().toMillis(), TimeUnit.MILLISECONDS)
+                .cursor()) {
+            ProductChangeBatch batch = new ProductChangeBatch();
+            ChangeStreamDocument<Document> event;
+            while ((event = cursor.tryNext()) != null) {
+                batch.add(ProductChangeBatch.changeOf(event, mongoTemplate.getConverter()),
+                        event.getResumeToken(), System.currentTimeMillis());
+                if (batch.changes().size() >= config.getReindex().getBatchSize()) {
+                    replayed += replay(state.getTargetIndex(), batch);
+                    batch = new ProductChangeBatch();
+                }
+            }
+            replayed += replay(state.getTargetIndex(), batch);
+        } catch (MongoException e) {
+            log.warn("Could not replay changes made during the reindex: {}", e.getMessage());
+            return;
+        }
+        log.info("Replayed {} changes made during the reindex", replayed);
+    }
+
+    private int replay(String index, ProductChangeBatch batch) {
+        Map<String, Product> products = batch.products();
+        indexWriter.write(index, products);
+        return products.size();
+    }
+
+    private Long operationTime() {
+        try {
+            Object operationTime = mongoTemplate.executeCommand(new Document("hello", 1)).get("operationTime");
+            return operationTime instanceof BsonTimestamp timestamp ? timestamp.getValue() : null;
+        } catch (MongoException e) {
+            log.warn("Could not read MongoDB operation time: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void saveState(ReindexState state) {
+        state.setUpdatedAt(Instant.now());
+        mongoTemplate.save(state, config.getStateCollection());
+    }
+
+    static int nextVersion(String alias, Collection<String> indices) {
+        int latest = 0;
+        String prefix = alias + VERSION_SEPARATOR;
+        for (String index : indices) {
+            if (index.startsWith(prefix)) {
+                try {
+                    latest = Math.max(latest, Integer.parseInt(index.substring(prefix.length())));
+                } catch (NumberFormatException e) {
+                    // Not one of ours, e.g. products_v2-old
+                }
+            }
+        }
+        return latest + 1;
+    }
+
+    /**
+     * One atomic {@code _aliases} request: point the alias at {@code target} only, and drop a
+     * pre-alias index that holds the alias name.
+     */
+    static List<Action> aliasActions(String alias, String target, Collection<String> aliased, boolean legacyIndex) {
+        List<Action> actions = new ArrayList<>();
+        for (String index : aliased) {
+            if (!index.equals(target)) {
+                actions.add(Action.of(a -> a.remove(r -> r.index(index).alias(alias))));
+            }
+        }
+        if (legacyIndex) {
+            actions.add(Action.of(a -> a.removeIndex(r -> r.index(alias))));
+        }
+        actions.add(Action.of(a -> a.add(r -> r.index(target).alias(alias).isWriteIndex(true))));
+        return actions;
+    }
+}
@@ -0,0 +1,48 @@
+package com.marketplace.product.indexer;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+
+import java.time.Instant;
+
+/**
+ * Progress of a full reindex, saved after every bulk request so a crashed run can continue
+ * from the last indexed product.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReindexState {
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    @Id
+    private String id;
+
+    private Status status;
+
+    // Versioned index being loaded, e.g. products_v3
+    private String targetIndex;
+
+    // _id of the last product written; the next run reads products after it
+    private Object lastProductId;
+
+    private long indexed;
+
+    private double docsPerSecond;
+
+    // MongoDB operation time when the run began; changes since then are replayed after the swap
+    private Long startOperationTime;
+
+    private Instant startedAt;
+
+    private Instant updatedAt;
+
+    private String error;
+}
@@ -0,0 +1,53 @@
+package com.marketplace.product.indexer;
+
+import com.marketplace.product.config.ProductConfigProperties;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import org.bson.BsonDateTime;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Keeps the change stream resume token of each indexing pipeline in MongoDB, one document
+ * per pipeline, so indexing continues where it stopped after a restart.
+ */
+@Component
+public class ResumeTokenStore {
+
+    private static final String TOKEN_FIELD = "resumeToken";
+
+    private final MongoTemplate mongoTemplate;
+    private final ProductConfigProperties properties;
+
+    public ResumeTokenStore(MongoTemplate mongoTemplate, ProductConfigProperties properties) {
+        this.mongoTemplate = mongoTemplate;
+        this.properties = properties;
+    }
+
+    public Optional<BsonDocument> load(String pipeline) {
+        BsonDocument state = collection().find(Filters.eq("_id", pipeline)).first();
+        return state != null && state.isDocument(TOKEN_FIELD)
+                ? Optional.of(state.getDocument(TOKEN_FIELD))
+                : Optional.empty();
+    }
+
+    public void save(String pipeline, BsonDocument resumeToken) {
+        BsonDocument state = new BsonDocument("_id", new BsonString(pipeline))
+                .append(TOKEN_FIELD, resumeToken)
+                .append("updatedAt", new BsonDateTime(System.currentTimeMillis()));
+        collection().replaceOne(Filters.eq("_id", pipeline), state, new ReplaceOptions().upsert(true));
+    }
+
+    public void clear(String pipeline) {
+        collection().deleteOne(Filters.eq("_id", pipeline));
+    }
+
+    private MongoCollection<BsonDocument> collection() {
+        return mongoTemplate.getDb().getCollection(properties.getIndexer().getStateCollection(), BsonDocument.class);
+    }
+}
@@ -0,0 +1,47 @@
+package com.marketplace.product.service;
+
+import com.marketplace.product.document.Product;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Redis entry for a cached product, with the timing data needed for early refresh and
+ * stale-while-revalidate.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CachedProduct {
+
+    private Product product;
+
+    /**
+     * Epoch millis after which the entry is stale and should be reloaded
+     */
+    private long expiresAt;
+
+    /**
+     * How long the load that produced this entry took, in millis
+     */
+    private long loadMillis;
+
+    public boolean isStale(long now) {
+        return now >= expiresAt;
+    }
+
+    /**
+     * Probabilistic early expiration (XFetch): the chance of refreshing rises as the entry
+     * nears expiry, and slower loads start refreshing earlier.
+     *
+     * @param random uniform value in (0, 1]
+     */
+    public boolean shouldRefreshEarly(long now, double beta, double random) {
+        if (beta <= 0 || loadMillis <= 0) {
+            return false;
+        }
+        return now - loadMillis * beta * Math.log(random) >= expiresAt;
+    }
+}
@@ -1,58 +1,537 @@
 package com.marketplace.product.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.marketplace.product.config.ProductConfigProperties;
 import com.marketplace.product.document.Product;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 
+/**
+ * Two-tier product cache: a bounded in-process L1 in front of the shared Redis L2.
+ * <p>
+ * Hot products are served from L1 with no network I/O. An L2 hit is copied into L1. Evicting
+ * a product removes it from both tiers and publishes the id on the invalidation channel, so
+ * every node drops its L1 copy. L1 entries also expire after a short TTL, which bounds
+ * staleness if a node misses a message.
+ * <p>
+ * {@link #getOrLoad} keeps an expiring entry from turning into a burst of database queries:
+ * <ul>
+ *   <li>concurrent misses for a product on one node share a single load;</li>
+ *   <li>with the lock enabled, only one node loads a missing product and the others wait
+ *       for it to appear in Redis;</li>
+ *   <li>entries are refreshed in the background shortly before they expire, with a
+ *       probability that grows near expiry (XFetch);</li>
+ *   <li>an entry past its TTL is kept a little longer and served if the reload is slow.</li>
+ * </ul>
+ * {@link #getOrLoadAll} serves a batch with one {@code MGET}, one database query for the
+ * misses and one pipelined write to back-fill them.
+ * <p>
+ * Cached products are shared instances and must not be modified by callers.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class ProductCacheService {
 
+    static final String L1_CACHE_NAME = "product.l1";
+    static final String L2_CACHE_NAME = "product.l2";
+
+    private static final String PRODUCT_KEY_PREFIX = "product:";
+    private static final String LOCK_KEY_PREFIX = "lock:product:";
+    private static final long LOCK_POLL_MILLIS = 25;
+
+    private static final RedisScript<Long> RELEASE_LOCK_SCRIPT = RedisScript.of(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
     private final RedisTemplate<String, Object> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
     private final ProductConfigProperties properties;
+    private final Cache<String, Product> localCache;
+    private final Map<String, CompletableFuture<Optional<Product>>> inFlightLoads = new ConcurrentHashMap<>();
+    private final ExecutorService refreshExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
-    private static final String PRODUCT_KEY_PREFIX = "product:";
+    private final Counter l2Hits;
+    private final Counter l2Misses;
+    private final Counter l2Evictions;
+    private final Counter loads;
+    private final Counter earlyRefreshes;
+    private final Counter staleServed;
+    private final Counter lockContended;
+
+    public ProductCacheService(RedisTemplate<String, Object> redisTemplate,
+                               StringRedisTemplate stringRedisTemplate,
+                               RedisMessageListenerContainer listenerContainer,
+                               ProductConfigProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.properties = properties;
+
+        ProductConfigProperties.Local local = properties.getCache().getLocal();
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(local.getMaximumSize())
+                .expireAfterWrite(local.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, L1_CACHE_NAME);
+
+        // Same meter names as the Caffeine binder so both tiers line up in one query
+        this.l2Hits = Counter.builder("cache.gets")
+                .tag("cache", L2_CACHE_NAME).tag("result", "hit")
+                .register(meterRegistry);
+        this.l2Misses = Counter.builder("cache.gets")
+                .tag("cache", L2_CACHE_NAME).tag("result", "miss")
+                .register(meterRegistry);
+        this.l2Evictions = Counter.builder("cache.evictions")
+                .tag("cache", L2_CACHE_NAME)
+                .register(meterRegistry);
 
-    public Optional<Product> getProduct(String productId) {
+        this.loads = Counter.builder("product.cache.loads")
+                .description("Products loaded from the database into the cache")
+                .register(meterRegistry);
+        this.earlyRefreshes = Counter.builder("product.cache.refreshes")
+                .tag("trigger", "early")
+                .description("Background reloads started before the entry expired")
+                .register(meterRegistry);
+        this.staleServed = Counter.builder("product.cache.stale.served")
+                .description("Requests served an expired entry because the reload was slow or failed")
+                .register(meterRegistry);
+        this.lockContended = Counter.builder("product.cache.lock.contended")
+                .description("Misses that waited for another node to load the product")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Subscribe to invalidation messages from other nodes
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribe() {
+        String channel = properties.getCache().getInvalidationChannel();
+        listenerContainer.addMessageListener((message, pattern) -> onInvalidation(message),
+                new ChannelTopic(channel));
+        log.info("Listening for product cache invalidations on {}", channel);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Return the product from the cache, loading it with {@code loader} when it is missing or
+     * expired. Only one load per product runs at a time on this node.
+     *
+     * @return the product, or empty if the loader did not find it
+     */
+    public Optional<Product> getOrLoad(String productId, Function<String, Optional<Product>> loader) {
         if (!properties.getCache().isEnabled()) {
-            return Optional.empty();
+            return loader.apply(productId);
         }
 
+        if (isLocalEnabled()) {
+            Product local = localCache.getIfPresent(productId);
+            if (local != null) {
+                log.debug("L1 cache HIT for product: {}", productId);
+                return Optional.of(local);
+            }
+        }
+
+        CachedProduct cached = readRemote(productId);
+        if (cached == null) {
+            log.debug("Cache MISS for product: {}", productId);
+            l2Misses.increment();
+            return join(load(productId, loader, true));
+        }
+
+        l2Hits.increment();
+        long now = System.currentTimeMillis();
+        ProductConfigProperties.Stampede stampede = properties.getCache().getStampede();
+
+        if (!cached.isStale(now)) {
+            if (cached.shouldRefreshEarly(now, stampede.getEarlyRefreshBeta(), 1.0 - ThreadLocalRandom.current().nextDouble())) {
+                log.debug("Refreshing product {} ahead of expiry", productId);
+                earlyRefreshes.increment();
+                load(productId, loader, false);
+            }
+            putLocal(productId, cached.getProduct());
+            return Optional.of(cached.getProduct());
+        }
+
+        // Expired but still within the stale window: give the reload a moment, then fall back
+        CompletableFuture<Optional<Product>> reload = load(productId, loader, false);
         try {
-            String key = PRODUCT_KEY_PREFIX + productId;
-            Object cached = redisTemplate.opsForValue().get(key);
-            if (cached instanceof Product) {
-                log.debug("Cache HIT for product: {}", productId);
-                return Optional.of((Product) cached);
+            return reload.get(stampede.getStaleWaitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.debug("Reload of product {} is slow, serving stale entry", productId);
+        } catch (Exception e) {
+            log.error("Reload of product {} failed, serving stale entry: {}", productId, e.getMessage());
+        }
+        staleServed.increment();
+        return Optional.of(cached.getProduct());
+    }
+
+    /**
+     * Return every product found for {@code productIds}, reading Redis once for all of them.
+     * The misses and expired entries are handed to {@code loader} in a single call and the
+     * products it returns are written back in one pipeline.
+     *
+     * @return found products keyed by id, in the order of {@code productIds}; unknown ids
+     *         are absent
+     */
+    public Map<String, Product> getOrLoadAll(Collection<String> productIds,
+                                             Function<Collection<String>, Iterable<Product>> loader) {
+        Set<String> ids = new LinkedHashSet<>(productIds);
+        Map<String, Product> found = new LinkedHashMap<>();
+        if (!properties.getCache().isEnabled()) {
+            loader.apply(ids).forEach(product -> found.put(product.getId(), product));
+            return orderBy(ids, found);
+        }
+
+        List<String> remoteIds = new ArrayList<>();
+        for (String id : ids) {
+            Product local = isLocalEnabled() ? localCache.getIfPresent(id) : null;
+            if (local != null) {
+                found.put(id, local);
+            } else {
+                remoteIds.add(id);
+            }
+        }
+
+        List<String> missIds = new ArrayList<>();
+        List<Object> remote = readRemote(remoteIds);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < remoteIds.size(); i++) {
+            String id = remoteIds.get(i);
+            CachedProduct cached = toCachedProduct(remote.get(i));
+            // Expired entries are reloaded with the misses rather than one by one
+            if (cached != null && !cached.isStale(now)) {
+                l2Hits.increment();
+                putLocal(id, cached.getProduct());
+                found.put(id, cached.getProduct());
+            } else {
+                l2Misses.increment();
+                missIds.add(id);
             }
+        }
+
+        if (!missIds.isEmpty()) {
+            log.debug("Batch cache MISS for {} of {} products", missIds.size(), ids.size());
+            long start = System.currentTimeMillis();
+            List<Product> loaded = new ArrayList<>();
+            loader.apply(missIds).forEach(loaded::add);
+            loads.increment(loaded.size());
+            cacheProducts(loaded, System.currentTimeMillis() - start);
+            loaded.forEach(product -> found.put(product.getId(), product));
+        }
+        return orderBy(ids, found);
+    }
+
+    /**
+     * Remove a changed product from both tiers on every node.
+     */
+    public void evictProduct(String productId) {
+        try {
+            // L2 first, so a concurrent read can't copy the old value back into L1
+            redisTemplate.delete(PRODUCT_KEY_PREFIX + productId);
+            l2Evictions.increment();
+            localCache.invalidate(productId);
+            stringRedisTemplate.convertAndSend(properties.getCache().getInvalidationChannel(), productId);
+            log.debug("Evicted product: {} and published invalidation", productId);
         } catch (Exception e) {
-            log.error("Error retrieving product from cache: {}", e.getMessage());
+            localCache.invalidate(productId);
+            log.error("Error evicting product from cache: {}", e.getMessage());
+        }
+    }
+
+    void onInvalidation(Message message) {
+        String productId = new String(message.getBody(), StandardCharsets.UTF_8);
+        localCache.invalidate(productId);
+        log.debug("L1 cache invalidated for product: {}", productId);
+    }
+
+    /**
+     * Start a load for the product, or join the one already running on this node.
+     *
+     * @param inline run the load on the calling thread when this call starts it
+     */
+    private CompletableFuture<Optional<Product>> load(String productId,
+                                                      Function<String, Optional<Product>> loader,
+                                                      boolean inline) {
+        CompletableFuture<Optional<Product>> future = new CompletableFuture<>();
+        CompletableFuture<Optional<Product>> existing = inFlightLoads.putIfAbsent(productId, future);
+        if (existing != null) {
+            return existing;
         }
 
-        log.debug("Cache MISS for product: {}", productId);
-        return Optional.empty();
+        Runnable task = () -> {
+            try {
+                future.complete(loadThroughLock(productId, loader));
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                inFlightLoads.remove(productId, future);
+            }
+        };
+        if (inline) {
+            task.run();
+        } else {
+            refreshExecutor.execute(task);
+        }
+        return future;
     }
 
-    public void cacheProduct(Product product) {
+    private Optional<Product> loadThroughLock(String productId, Function<String, Optional<Product>> loader) {
+        ProductConfigProperties.Stampede stampede = properties.getCache().getStampede();
+        if (!stampede.isLockEnabled()) {
+            return loadAndCache(productId, loader);
+        }
+
+        String lockKey = LOCK_KEY_PREFIX + productId;
+        String lockToken = UUID.randomUUID().toString();
+        if (tryLock(lockKey, lockToken, stampede.getLockTtl())) {
+            try {
+                return loadAndCache(productId, loader);
+            } finally {
+                releaseLock(lockKey, lockToken);
+            }
+        }
+
+        // Another node is loading it; wait for the entry it writes
+        lockContended.increment();
+        long deadline = System.currentTimeMillis() + stampede.getLockWait().toMillis();
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(LOCK_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            CachedProduct cached = readRemote(productId);
+            if (cached != null && !cached.isStale(System.currentTimeMillis())) {
+                putLocal(productId, cached.getProduct());
+                return Optional.of(cached.getProduct());
+            }
+        }
+
+        log.debug("Timed out waiting for product {} to be loaded by another node", productId);
+        return loadAndCache(productId, loader);
+    }
+
+    private Optional<Product> loadAndCache(String productId, Function<String, Optional<Product>> loader) {
+        long start = System.currentTimeMillis();
+        Optional<Product> product = loader.apply(productId);
+        loads.increment();
+        if (product.isPresent()) {
+            cacheProduct(product.get(), System.currentTimeMillis() - start);
+        } else {
+            dropStaleEntry(productId);
+        }
+        return product;
+    }
+
+    private void cacheProduct(Product product, long loadMillis) {
         if (!properties.getCache().isEnabled() || product == null || product.getId() == null) {
             return;
         }
 
+        putLocal(product.getId(), product);
+
         try {
             String key = PRODUCT_KEY_PREFIX + product.getId();
-            long ttl = properties.getCache().getTtlMinutes();
-            redisTemplate.opsForValue().set(key, product, Duration.ofMinutes(ttl));
-            log.debug("Cached product: {} with TTL: {} minutes", product.getId(), ttl);
+            redisTemplate.opsForValue().set(key, newEntry(product, loadMillis), remoteTtl());
+            log.debug("Cached product: {} with TTL: {}", product.getId(), ttl());
         } catch (Exception e) {
             log.error("Error caching product: {}", e.getMessage());
         }
     }
-}
 
+    /**
+     * Write a batch of products to both tiers, sending the Redis writes in one pipeline.
+     */
+    private void cacheProducts(List<Product> products, long loadMillis) {
+        Map<String, CachedProduct> entries = new LinkedHashMap<>();
+        for (Product product : products) {
+            if (product != null && product.getId() != null) {
+                putLocal(product.getId(), product);
+                entries.put(PRODUCT_KEY_PREFIX + product.getId(), newEntry(product, loadMillis));
+            }
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        try {
+            Duration keepFor = remoteTtl();
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                    entries.forEach((key, entry) -> ops.opsForValue().set(key, entry, keepFor));
+                    return null;
+                }
+            });
+            log.debug("Cached {} products in one pipeline", entries.size());
+        } catch (Exception e) {
+            log.error("Error caching products: {}", e.getMessage());
+        }
+    }
+
+    private void dropStaleEntry(String productId) {
+        localCache.invalidate(productId);
+        try {
+            redisTemplate.delete(PRODUCT_KEY_PREFIX + productId);
+        } catch (Exception e) {
+            log.error("Error removing product from cache: {}", e.getMessage());
+        }
+    }
+
+    private CachedProduct newEntry(Product product, long loadMillis) {
+        return CachedProduct.builder()
+                .product(product)
+                .expiresAt(System.currentTimeMillis() + ttl().toMillis())
+                .loadMillis(loadMillis)
+                .build();
+    }
+
+    private Duration ttl() {
+        return Duration.ofMinutes(properties.getCache().getTtlMinutes());
+    }
+
+    /**
+     * Redis keeps the entry past its TTL so it can be served while it is reloaded.
+     */
+    private Duration remoteTtl() {
+        return ttl().plus(properties.getCache().getStampede().getStaleTtl());
+    }
+
+    private CachedProduct readRemote(String productId) {
+        try {
+            return toCachedProduct(redisTemplate.opsForValue().get(PRODUCT_KEY_PREFIX + productId));
+        } catch (Exception e) {
+            log.error("Error retrieving product from cache: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Read many entries with one {@code MGET}. On error every id counts as a miss.
+     */
+    private List<Object> readRemote(List<String> productIds) {
+        List<Object> values = null;
+        if (!productIds.isEmpty()) {
+            try {
+                values = redisTemplate.opsForValue().multiGet(
+                        productIds.stream().map(id -> PRODUCT_KEY_PREFIX + id).toList());
+            } catch (Exception e) {
+                log.error("Error retrieving products from cache: {}", e.getMessage());
+            }
+        }
+        if (values == null || values.size() != productIds.size()) {
+            values = new ArrayList<>(productIds.size());
+            for (int i = 0; i < productIds.size(); i++) {
+                values.add(null);
+            }
+        }
+        return values;
+    }
+
+    private static CachedProduct toCachedProduct(Object cached) {
+        if (cached instanceof CachedProduct entry) {
+            return entry;
+        }
+        if (cached instanceof Product product) {
+            // Entry written before expiry metadata was stored; Redis TTL still applies
+            return CachedProduct.builder().product(product).expiresAt(Long.MAX_VALUE).build();
+        }
+        return null;
+    }
+
+    private static Map<String, Product> orderBy(Set<String> ids, Map<String, Product> found) {
+        Map<String, Product> ordered = new LinkedHashMap<>();
+        for (String id : ids) {
+            Product product = found.get(id);
+            if (product != null) {
+                ordered.put(id, product);
+            }
+        }
+        return ordered;
+    }
+
+    private boolean tryLock(String lockKey, String lockToken, Duration ttl) {
+        try {
+            return Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(lockKey, lockToken, ttl));
+        } catch (Exception e) {
+            // Without Redis there is nothing to coordinate on; load locally
+            log.error("Error acquiring product load lock: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    private void releaseLock(String lockKey, String lockToken) {
+        try {
+            stringRedisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(lockKey), lockToken);
+        } catch (Exception e) {
+            log.error("Error releasing product load lock: {}", e.getMessage());
+        }
+    }
+
+    private void putLocal(String productId, Product product) {
+        if (isLocalEnabled()) {
+            localCache.put(productId, product);
+        }
+    }
+
+    private boolean isLocalEnabled() {
+        return properties.getCache().getLocal().isEnabled();
+    }
+
+    private static Optional<Product> join(CompletableFuture<Optional<Product>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.marketplace.product.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.marketplace.product.config.ProductConfigProperties;
+import com.marketplace.product.dto.request.SearchProductsRequest;
+import com.marketplace.product.dto.response.ProductSearchResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Cache of search result pages, in Redis with an optional in-process L1 in front.
+ * <p>
+ * Entries are keyed by the normalized request (term, filters, page or cursor, size, facets)
+ * and by the current index generation. A counter in Redis holds the generation, and
+ * {@link #bumpGeneration()} increments it when products change. Old entries then become
+ * unreachable and expire on their own short TTL. Each node re-reads the generation at most
+ * once per {@code generation-check-interval}, so an L1 hit needs no network I/O.
+ * <p>
+ * A request that opens a cursor is never cached. Its response holds a point-in-time that
+ * must not be shared between clients. Offset pages beyond {@code max-cached-pages} are
+ * not cached either.
+ * <p>
+ * Lookups are counted per query class (browse, filter, term, cursor) in
+ * {@code product.search.cache.gets}, so hit ratios can be compared by class.
+ */
+@Slf4j
+@Service
+public class ProductSearchCacheService {
+
+    static final String L1_CACHE_NAME = "product.search.l1";
+    static final String GENERATION_KEY = "search:generation";
+
+    private static final String RESULT_KEY_PREFIX = "search:result:";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ProductConfigProperties.ResultCache config;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, ProductSearchResponse> localCache;
+    private final Map<String, Counter> lookups = new ConcurrentHashMap<>();
+
+    private volatile long generation;
+    private volatile long generationReadAt = Long.MIN_VALUE;
+
+    public ProductSearchCacheService(StringRedisTemplate stringRedisTemplate,
+                                     ProductConfigProperties properties,
+                                     MeterRegistry meterRegistry) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.config = properties.getSearch().getResultCache();
+        this.meterRegistry = meterRegistry;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(config.getLocalMaximumSize())
+                .expireAfterWrite(config.getLocalTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, L1_CACHE_NAME);
+    }
+
+    /**
+     * Return the cached page for {@code request}, running {@code loader} and caching its
+     * result on a miss. Cache failures fall through to the loader.
+     */
+    public ProductSearchResponse getOrLoad(SearchProductsRequest request, Supplier<ProductSearchResponse> loader) {
+        if (!isCacheable(request)) {
+            return loader.get();
+        }
+
+        String queryClass = queryClass(request);
+        String key = RESULT_KEY_PREFIX + currentGeneration() + ':' + DigestUtils.md5DigestAsHex(
+                cacheKey(request).getBytes(StandardCharsets.UTF_8));
+
+        if (config.isLocalEnabled()) {
+            ProductSearchResponse local = localCache.getIfPresent(key);
+            if (local != null) {
+                record(queryClass, "hit", "l1");
+                return local;
+            }
+        }
+
+        ProductSearchResponse remote = readRemote(key);
+        if (remote != null) {
+            record(queryClass, "hit", "l2");
+            putLocal(key, remote);
+            return remote;
+        }
+
+        record(queryClass, "miss", "none");
+        ProductSearchResponse response = loader.get();
+        writeRemote(key, response);
+        putLocal(key, response);
+        return response;
+    }
+
+    /**
+     * Make every cached page unreachable on all nodes. Call after products are written to
+     * the search index.
+     */
+    public void bumpGeneration() {
+        try {
+            Long next = stringRedisTemplate.opsForValue().increment(GENERATION_KEY);
+            if (next != null) {
+                generation = next;
+                generationReadAt = System.currentTimeMillis();
+            }
+            log.debug("Search index generation bumped to {}", next);
+        } catch (Exception e) {
+            log.error("Error bumping search index generation: {}", e.getMessage());
+        }
+        localCache.invalidateAll();
+    }
+
+    long currentGeneration() {
+        long now = System.currentTimeMillis();
+        if (now - generationReadAt < config.getGenerationCheckInterval().toMillis()) {
+            return generation;
+        }
+        try {
+            String value = stringRedisTemplate.opsForValue().get(GENERATION_KEY);
+            generation = value != null ? Long.parseLong(value) : 0;
+        } catch (Exception e) {
+            // Keep the last known generation; L1 entries still expire on their own TTL
+            log.error("Error reading search index generation: {}", e.getMessage());
+        }
+        generationReadAt = now;
+        return generation;
+    }
+
+    private boolean isCacheable(SearchProductsRequest request) {
+        if (!config.isEnabled()) {
+            return false;
+        }
+        if (request.getCursor() != null) {
+            return !request.getCursor().isBlank();
+        }
+        return request.getPageable().getPageNumber() < config.getMaxCachedPages();
+    }
+
+    static String cacheKey(SearchProductsRequest request) {
+        String position = request.getCursor() != null
+                ? "c:" + request.getCursor()
+                : "p:" + request.getPageable().getPageNumber();
+        return ProductSearchService.facetKey(request) + '|' + position
+                + '|' + request.getPageable().getPageSize() + '|' + request.isIncludeFacets();
+    }
+
+    static String queryClass(SearchProductsRequest request) {
+        if (request.getCursor() != null) {
+            return "cursor";
+        }
+        boolean hasTerm = request.getName() != null && !request.getName().isBlank();
+        if (hasTerm) {
+            return "term";
+        }
+        boolean hasFilter = (request.getCategory() != null && !request.getCategory().isBlank())
+                || request.getMinPrice() != null || request.getMaxPrice() != null;
+        return hasFilter ? "filter" : "browse";
+    }
+
+    private ProductSearchResponse readRemote(String key) {
+        try {
+            String json = stringRedisTemplate.opsForValue().get(key);
+            return json != null ? MAPPER.readValue(json, ProductSearchResponse.class) : null;
+        } catch (Exception e) {
+            log.error("Error retrieving search results from cache: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRemote(String key, ProductSearchResponse response) {
+        try {
+            stringRedisTemplate.opsForValue().set(key, MAPPER.writeValueAsString(response), config.getTtl());
+        } catch (Exception e) {
+            log.error("Error caching search results: {}", e.getMessage());
+        }
+    }
+
+    private void putLocal(String key, ProductSearchResponse response) {
+        if (config.isLocalEnabled()) {
+            localCache.put(key, response);
+        }
+    }
+
+    private void record(String queryClass, String result, String tier) {
+        lookups.computeIfAbsent(queryClass + '|' + result + '|' + tier, k -> Counter.builder("product.search.cache.gets")
+                        .tag("class", queryClass)
+                        .tag("result", result)
+                        .tag("tier", tier)
+                        .description("Search result cache lookups by query class")
+                        .register(meterRegistry))
+                .increment();
+    }
+}
@@ -0,0 +1,26 @@
+package com.marketplace.product.service;
+
+import com.marketplace.product.document.ProductSearchDoc;
+import com.marketplace.product.dto.response.SearchFacetsResponse;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.elasticsearch.core.TotalHitsRelation;
+
+/**
+ * One page of search documents plus the cursor for the page after it, if any, and
+ * whether the page total is exact.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchResult {
+    private Page<ProductSearchDoc> page;
+    private String nextCursor;
+    // GREATER_THAN_OR_EQUAL_TO or OFF when the page total is only a lower bound
+    private TotalHitsRelation totalHitsRelation;
+    private SearchFacetsResponse facets;
+}
@@ -0,0 +1,391 @@
+package com.marketplace.product.service;
+
+import co.elastic.clients.elasticsearch._types.SortOptions;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.aggregations.AggregationRange;
+import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.MultiMatchQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.Operator;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch._types.query_dsl.TextQueryType;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.marketplace.product.config.ProductConfigProperties;
+import com.marketplace.product.constant.ProductConstants;
+import com.marketplace.product.document.ProductSearchDoc;
+import com.marketplace.product.dto.request.SearchProductsRequest;
+import com.marketplace.product.dto.response.CategoryFacetResponse;
+import com.marketplace.product.dto.response.PriceRangeFacetResponse;
+import com.marketplace.product.dto.response.SearchFacetsResponse;
+import com.marketplace.product.exception.InvalidSearchRequestException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.UncategorizedElasticsearchException;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregation;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.TotalHitsRelation;
+import org.springframework.data.elasticsearch.core.query.Query.PointInTime;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Relevance-ranked product search.
+ * <p>
+ * The search term is matched with a {@code multi_match} over the name, its edge n-gram
+ * subfield and the description, with name matches boosted. The n-gram subfield matches
+ * partial words from the inverted index, so no wildcard query is needed. Typos are
+ * tolerated when fuzzy search is enabled. Category and price bounds go in the bool
+ * {@code filter} clause: they don't affect the score, and Elasticsearch can cache them.
+ * <p>
+ * Offset paging serves the first {@code max-offset-results} hits. Deeper pages use a
+ * cursor: the first cursor request opens a point-in-time, and each page continues with
+ * {@code search_after} from the last hit. The sort is score, then the point-in-time
+ * shard-doc tiebreaker. Each page costs the same however deep it is, and the results
+ * stay consistent while the index changes.
+ * <p>
+ * Total hits follow {@code product.search.track-total-hits}. Past the cap, or with counting
+ * off, the total is a lower bound and the result says so.
+ * <p>
+ * Facets (category counts and price buckets) come back from the same request as the hits.
+ * They are cached briefly per normalized term and filters, so paging through a result set
+ * aggregates it only once.
+ */
+@Slf4j
+@Service
+public class ProductSearchService {
+
+    static final String FACET_CACHE_NAME = "product.search.facets";
+    static final String CATEGORY_FACET = "categories";
+    static final String PRICE_FACET = "price_ranges";
+
+    static final String NAME_FIELD = "name";
+    static final String NAME_NGRAM_FIELD = "name.ngram";
+    static final String DESCRIPTION_FIELD = "description";
+    static final String CATEGORY_FIELD = "category";
+    static final String PRICE_FIELD = "price";
+    static final String SHARD_DOC_FIELD = "_shard_doc";
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ProductConfigProperties properties;
+    private final Cache<String, SearchFacetsResponse> facetCache;
+
+    public ProductSearchService(ElasticsearchOperations elasticsearchOperations,
+                                ProductConfigProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.properties = properties;
+
+        ProductConfigProperties.Facets facets = properties.getSearch().getFacets();
+        this.facetCache = Caffeine.newBuilder()
+                .maximumSize(facets.getCacheMaximumSize())
+                .expireAfterWrite(facets.getCacheTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, facetCache, FACET_CACHE_NAME);
+    }
+
+    public ProductSearchResult search(SearchProductsRequest request) {
+        if (request.getCursor() != null) {
+            return searchByCursor(request);
+        }
+
+        Pageable pageable = request.getPageable();
+        int maxOffsetResults = properties.getSearch().getMaxOffsetResults();
+        if ((long) (pageable.getPageNumber() + 1) * pageable.getPageSize() > maxOffsetResults) {
+            throw new InvalidSearchRequestException(
+                    String.format(ProductConstants.ErrorMessages.OFFSET_WINDOW_EXCEEDED, maxOffsetResults));
+        }
+
+        SearchFacetsResponse facets = cachedFacets(request);
+        boolean aggregateFacets = request.isIncludeFacets() && facets == null;
+        SearchHits<ProductSearchDoc> hits = elasticsearchOperations.search(buildQuery(request, aggregateFacets),
+                ProductSearchDoc.class);
+        if (aggregateFacets) {
+            facets = collectFacets(request, hits);
+        }
+
+        List<ProductSearchDoc> content = hits.getSearchHits().stream().map(SearchHit::getContent).toList();
+        long total = hits.getTotalHitsRelation() == TotalHitsRelation.OFF
+                ? lowerBound(pageable.getOffset(), content.size(), pageable.getPageSize())
+                : hits.getTotalHits();
+        return ProductSearchResult.builder()
+                .page(new PageImpl<>(content, pageable, total))
+                .totalHitsRelation(relation(hits.getTotalHitsRelation()))
+                .facets(facets)
+                .build();
+    }
+
+    NativeQuery buildQuery(SearchProductsRequest request, boolean aggregateFacets) {
+        NativeQueryBuilder query = queryBuilder(request).withPageable(request.getPageable());
+        trackTotalHits(query);
+        if (aggregateFacets) {
+            aggregateFacets(query);
+        }
+        return query.build();
+    }
+
+    private ProductSearchResult searchByCursor(SearchProductsRequest request) {
+        int size = request.getPageable().getPageSize();
+        SearchCursor cursor = request.getCursor().isEmpty() ? openCursor(request) : SearchCursor.decode(request.getCursor());
+        Duration keepAlive = properties.getSearch().getCursorKeepAlive();
+
+        NativeQueryBuilder query = queryBuilder(criteria(cursor))
+                .withPointInTime(new PointInTime(cursor.getPitId(), keepAlive))
+                .withSort(SortOptions.of(o -> o.score(score -> score.order(SortOrder.Desc))),
+                        SortOptions.of(o -> o.field(f -> f.field(SHARD_DOC_FIELD).order(SortOrder.Asc))))
+                .withPageable(PageRequest.of(0, size));
+        // Facets describe the whole result set, so only the first page computes them
+        boolean firstPage = cursor.getSearchAfter().isEmpty();
+        SearchFacetsResponse facets = firstPage ? cachedFacets(request) : null;
+        boolean aggregateFacets = firstPage && request.isIncludeFacets() && facets == null;
+        if (firstPage) {
+            trackTotalHits(query);
+            if (aggregateFacets) {
+                aggregateFacets(query);
+            }
+        } else {
+            // The total was counted on the first page and travels in the cursor
+            query.withSearchAfter(cursor.getSearchAfter()).withTrackTotalHits(false);
+        }
+
+        SearchHits<ProductSearchDoc> hits;
+        try {
+            hits = elasticsearchOperations.search(query.build(), ProductSearchDoc.class);
+        } catch (UncategorizedElasticsearchException e) {
+            if (Integer.valueOf(404).equals(e.getStatusCode())) {
+                throw new InvalidSearchRequestException(ProductConstants.ErrorMessages.CURSOR_EXPIRED, e);
+            }
+            throw e;
+        }
+
+        if (aggregateFacets) {
+            facets = collectFacets(request, hits);
+        }
+
+        List<ProductSearchDoc> content = hits.getSearchHits().stream().map(SearchHit::getContent).toList();
+        if (firstPage) {
+            cursor.setTotalElements(hits.getTotalHits());
+            cursor.setTotalHitsRelation(relation(hits.getTotalHitsRelation()));
+        }
+        long offset = (long) cursor.getPage() * size;
+        long total = cursor.getTotalHitsRelation() == TotalHitsRelation.OFF
+                ? lowerBound(offset, content.size(), size)
+                : Math.max(cursor.getTotalElements(), offset + content.size());
+        Page<ProductSearchDoc> page = new PageImpl<>(content, PageRequest.of(cursor.getPage(), size), total);
+        TotalHitsRelation totalHitsRelation = relation(cursor.getTotalHitsRelation());
+
+        // The point-in-time id can change between requests; always continue from the latest
+        String pitId = hits.getPointInTimeId() != null ? hits.getPointInTimeId() : cursor.getPitId();
+        if (content.size() < size) {
+            closePointInTime(pitId);
+            return ProductSearchResult.builder().page(page).totalHitsRelation(totalHitsRelation).facets(facets).build();
+        }
+
+        cursor.setPitId(pitId);
+        cursor.setSearchAfter(hits.getSearchHit(content.size() - 1).getSortValues());
+        cursor.setPage(cursor.getPage() + 1);
+        return ProductSearchResult.builder()
+                .page(page)
+                .totalHitsRelation(totalHitsRelation)
+                .nextCursor(cursor.encode())
+                .facets(facets)
+                .build();
+    }
+
+    private SearchFacetsResponse cachedFacets(SearchProductsRequest request) {
+        return request.isIncludeFacets() ? facetCache.getIfPresent(facetKey(request)) : null;
+    }
+
+    private SearchFacetsResponse collectFacets(SearchProductsRequest request, SearchHits<ProductSearchDoc> hits) {
+        SearchFacetsResponse facets = readFacets(hits);
+        facetCache.put(facetKey(request), facets);
+        return facets;
+    }
+
+    /**
+     * Category counts and price buckets over the filtered result set, computed in the same
+     * request as the hits.
+     */
+    private void aggregateFacets(NativeQueryBuilder query) {
+        ProductConfigProperties.Facets facets = properties.getSearch().getFacets();
+        List<AggregationRange> ranges = new ArrayList<>();
+        Double from = null;
+        for (BigDecimal edge : facets.getPriceRanges()) {
+            Double lower = from;
+            ranges.add(AggregationRange.of(r -> r.from(lower).to(edge.doubleValue())));
+            from = edge.doubleValue();
+        }
+        Double last = from;
+        ranges.add(AggregationRange.of(r -> r.from(last)));
+
+        query.withAggregation(CATEGORY_FACET, Aggregation.of(a -> a
+                        .terms(t -> t.field(CATEGORY_FIELD).size(facets.getCategorySize()))))
+                .withAggregation(PRICE_FACET, Aggregation.of(a -> a
+                        .range(r -> r.field(PRICE_FIELD).ranges(ranges))));
+    }
+
+    private static SearchFacetsResponse readFacets(SearchHits<ProductSearchDoc> hits) {
+        List<CategoryFacetResponse> categories = new ArrayList<>();
+        List<PriceRangeFacetResponse> priceRanges = new ArrayList<>();
+        if (hits.getAggregations() instanceof ElasticsearchAggregations aggregations) {
+            ElasticsearchAggregation categoryFacet = aggregations.get(CATEGORY_FACET);
+            if (categoryFacet != null && categoryFacet.aggregation().getAggregate().isSterms()) {
+                categoryFacet.aggregation().getAggregate().sterms().buckets().array().forEach(bucket ->
+                        categories.add(CategoryFacetResponse.builder()
+                                .category(bucket.key().stringValue())
+                                .count(bucket.docCount())
+                                .build()));
+            }
+            ElasticsearchAggregation priceFacet = aggregations.get(PRICE_FACET);
+            if (priceFacet != null && priceFacet.aggregation().getAggregate().isRange()) {
+                priceFacet.aggregation().getAggregate().range().buckets().array().forEach(bucket ->
+                        priceRanges.add(PriceRangeFacetResponse.builder()
+                                .from(bucket.from() != null ? BigDecimal.valueOf(bucket.from()) : null)
+                                .to(bucket.to() != null ? BigDecimal.valueOf(bucket.to()) : null)
+                                .count(bucket.docCount())
+                                .build()));
+            }
+        }
+        return SearchFacetsResponse.builder().categories(categories).priceRanges(priceRanges).build();
+    }
+
+    /**
+     * Requests that differ only in case, spacing, page or cursor share one facet entry.
+     */
+    static String facetKey(SearchProductsRequest request) {
+        String term = request.getName() != null
+                ? request.getName().trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT)
+                : "";
+        return term + '|' + Objects.toString(request.getCategory(), "")
+                + '|' + plain(request.getMinPrice()) + '|' + plain(request.getMaxPrice());
+    }
+
+    private static String plain(BigDecimal value) {
+        return value != null ? value.stripTrailingZeros().toPlainString() : "";
+    }
+
+    /**
+     * Exact counting visits every match and prevents early termination, so by default the
+     * count stops at a cap and deeper totals are reported as a lower bound.
+     */
+    private void trackTotalHits(NativeQueryBuilder query) {
+        ProductConfigProperties.Search search = properties.getSearch();
+        switch (search.getTrackTotalHits()) {
+            case EXACT -> query.withTrackTotalHits(true);
+            case CAPPED -> query.withTrackTotalHitsUpTo(search.getTrackTotalHitsUpTo());
+            case NONE -> query.withTrackTotalHits(false);
+        }
+    }
+
+    /**
+     * Without a count, report what has been seen, plus one when the page is full so the
+     * client knows to ask for the next page.
+     */
+    private static long lowerBound(long offset, int returned, int pageSize) {
+        return offset + returned + (returned == pageSize ? 1 : 0);
+    }
+
+    private static TotalHitsRelation relation(TotalHitsRelation relation) {
+        // Cursors issued before totals were tracked carry no relation; their total was exact
+        return relation != null ? relation : TotalHitsRelation.EQUAL_TO;
+    }
+
+    private SearchCursor openCursor(SearchProductsRequest request) {
+        String pitId = elasticsearchOperations.openPointInTime(
+                elasticsearchOperations.getIndexCoordinatesFor(ProductSearchDoc.class),
+                properties.getSearch().getCursorKeepAlive());
+        log.debug("Opened point-in-time for cursor search: '{}'", request.getName());
+        return SearchCursor.builder()
+                .pitId(pitId)
+                .searchAfter(List.of())
+                .name(request.getName())
+                .category(request.getCategory())
+                .minPrice(request.getMinPrice())
+                .maxPrice(request.getMaxPrice())
+                .build();
+    }
+
+    private void closePointInTime(String pitId) {
+        try {
+            elasticsearchOperations.closePointInTime(pitId);
+        } catch (Exception e) {
+            // It expires on its own after the keep-alive
+            log.error("Error closing search point-in-time: {}", e.getMessage());
+        }
+    }
+
+    private static SearchProductsRequest criteria(SearchCursor cursor) {
+        return SearchProductsRequest.builder()
+                .name(cursor.getName())
+                .category(cursor.getCategory())
+                .minPrice(cursor.getMinPrice())
+                .maxPrice(cursor.getMaxPrice())
+                .build();
+    }
+
+    private NativeQueryBuilder queryBuilder(SearchProductsRequest request) {
+        BoolQuery.Builder bool = new BoolQuery.Builder();
+
+        String term = request.getName() != null ? request.getName().trim() : "";
+        if (term.isEmpty()) {
+            bool.must(m -> m.matchAll(all -> all));
+        } else {
+            bool.must(m -> m.multiMatch(multiMatch(term)));
+        }
+        bool.filter(filters(request));
+
+        return NativeQuery.builder().withQuery(q -> q.bool(bool.build()));
+    }
+
+    private MultiMatchQuery multiMatch(String term) {
+        ProductConfigProperties.Search search = properties.getSearch();
+        MultiMatchQuery.Builder multiMatch = new MultiMatchQuery.Builder()
+                .query(term)
+                .fields(NAME_FIELD + "^" + search.getNameBoost(), NAME_NGRAM_FIELD, DESCRIPTION_FIELD)
+                .type(TextQueryType.BestFields)
+                .operator(Operator.And);
+        if (search.isEnableFuzzySearch()) {
+            multiMatch.fuzziness("AUTO")
+                    .prefixLength(search.getFuzzyPrefixLength())
+                    .maxExpansions(search.getFuzzyMaxExpansions());
+        }
+        return multiMatch.build();
+    }
+
+    private List<Query> filters(SearchProductsRequest request) {
+        List<Query> filters = new ArrayList<>();
+        if (request.getCategory() != null && !request.getCategory().isBlank()) {
+            filters.add(Query.of(q -> q.term(t -> t.field(CATEGORY_FIELD).value(request.getCategory()))));
+        }
+        if (request.getMinPrice() != null || request.getMaxPrice() != null) {
+            filters.add(Query.of(q -> q.range(r -> r.number(n -> {
+                n.field(PRICE_FIELD);
+                if (request.getMinPrice() != null) {
+                    n.gte(request.getMinPrice().doubleValue());
+                }
+                if (request.getMaxPrice() != null) {
+                    n.lte(request.getMaxPrice().doubleValue());
+                }
+                return n;
+            }))));
+        }
+        return filters;
+    }
+}
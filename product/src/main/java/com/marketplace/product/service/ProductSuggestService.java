@@ -0,0 +1,119 @@
+package com.marketplace.product.service;
+
+import co.elastic.clients.elasticsearch.core.search.Suggester;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.marketplace.product.config.ProductConfigProperties;
+import com.marketplace.product.document.ProductSearchDoc;
+import com.marketplace.product.dto.response.ProductSuggestionResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.data.elasticsearch.core.suggest.response.CompletionSuggestion;
+import org.springframework.data.elasticsearch.core.suggest.response.Suggest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Product name autocomplete backed by the completion suggester on
+ * {@link ProductSearchDoc#getSuggest()}.
+ * <p>
+ * The suggester is served from an in-memory FST, so a lookup never scores documents and
+ * only the id and name of each match are fetched. Short prefixes take most type-ahead
+ * traffic, so prefixes up to {@code cached-prefix-length} characters are cached
+ * in-process. Caffeine's admission policy keeps the most frequent ones. Concurrent
+ * misses for a prefix share one lookup.
+ */
+@Slf4j
+@Service
+public class ProductSuggestService {
+
+    static final String CACHE_NAME = "product.suggest";
+    static final String SUGGESTION_NAME = "product-name";
+    static final String SUGGEST_FIELD = "suggest";
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ProductConfigProperties.Suggest config;
+    private final Cache<String, List<ProductSuggestionResponse>> prefixCache;
+
+    public ProductSuggestService(ElasticsearchOperations elasticsearchOperations,
+                                 ProductConfigProperties properties,
+                                 MeterRegistry meterRegistry) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.config = properties.getSearch().getSuggest();
+        this.prefixCache = Caffeine.newBuilder()
+                .maximumSize(config.getCacheMaximumSize())
+                .expireAfterWrite(config.getCacheTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, prefixCache, CACHE_NAME);
+    }
+
+    /**
+     * @param size number of suggestions; 0 or less uses the default, capped at the maximum
+     */
+    public List<ProductSuggestionResponse> suggest(String prefix, int size) {
+        String normalized = prefix != null ? prefix.trim().toLowerCase(Locale.ROOT) : "";
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        int limit = size > 0 ? Math.min(size, config.getMaxSize()) : config.getDefaultSize();
+
+        if (normalized.length() <= config.getCachedPrefixLength()) {
+            return prefixCache.get(normalized + '|' + limit, key -> lookup(normalized, limit));
+        }
+        return lookup(normalized, limit);
+    }
+
+    private List<ProductSuggestionResponse> lookup(String prefix, int limit) {
+        SearchHits<ProductSearchDoc> hits = elasticsearchOperations.search(buildQuery(prefix, limit), ProductSearchDoc.class);
+        return readSuggestions(hits.getSuggest());
+    }
+
+    NativeQuery buildQuery(String prefix, int limit) {
+        return NativeQuery.builder()
+                .withSuggester(Suggester.of(s -> s.suggesters(SUGGESTION_NAME, f -> f
+                        .prefix(prefix)
+                        .completion(c -> c.field(SUGGEST_FIELD).size(limit).skipDuplicates(true)))))
+                .withSourceFilter(new FetchSourceFilter(new String[]{"id", "name"}, null))
+                .withMaxResults(0)
+                .build();
+    }
+
+    private static List<ProductSuggestionResponse> readSuggestions(Suggest suggest) {
+        if (suggest == null || suggest.getSuggestion(SUGGESTION_NAME) == null) {
+            return List.of();
+        }
+
+        // Several inputs of one product can match the same prefix; list each product once
+        Map<String, ProductSuggestionResponse> suggestions = new LinkedHashMap<>();
+        for (Suggest.Suggestion.Entry<? extends Suggest.Suggestion.Entry.Option> entry
+                : suggest.getSuggestion(SUGGESTION_NAME).getEntries()) {
+            for (Suggest.Suggestion.Entry.Option option : entry.getOptions()) {
+                if (option instanceof CompletionSuggestion.Entry.Option<?> completion
+                        && completion.getSearchHit() != null
+                        && completion.getSearchHit().getContent() instanceof ProductSearchDoc doc) {
+                    suggestions.putIfAbsent(doc.getId(), toResponse(completion.getSearchHit(), doc));
+                }
+            }
+        }
+        return new ArrayList<>(suggestions.values());
+    }
+
+    private static ProductSuggestionResponse toResponse(SearchHit<?> hit, ProductSearchDoc doc) {
+        return ProductSuggestionResponse.builder()
+                .id(doc.getId() != null ? doc.getId() : hit.getId())
+                .name(doc.getName())
+                .build();
+    }
+}
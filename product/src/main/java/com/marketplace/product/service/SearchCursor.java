@@ -0,0 +1,61 @@
+package com.marketplace.product.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketplace.product.constant.ProductConstants;
+import com.marketplace.product.exception.InvalidSearchRequestException;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.elasticsearch.core.TotalHitsRelation;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Position in a cursor-paged search: the point-in-time, the sort values of the last hit
+ * and the criteria of the original search. Clients get it as an opaque Base64 token, so
+ * later pages don't need to repeat the search parameters.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchCursor {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private String pitId;
+    private List<Object> searchAfter;
+    private int page;
+    private String name;
+    private String category;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    // Counted on the first page only
+    private long totalElements;
+    private TotalHitsRelation totalHitsRelation;
+
+    public String encode() {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(this));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot encode search cursor", e);
+        }
+    }
+
+    public static SearchCursor decode(String token) {
+        try {
+            SearchCursor cursor = MAPPER.readValue(Base64.getUrlDecoder().decode(token), SearchCursor.class);
+            if (cursor.getPitId() == null || cursor.getSearchAfter() == null) {
+                throw new InvalidSearchRequestException(ProductConstants.ErrorMessages.INVALID_CURSOR);
+            }
+            return cursor;
+        } catch (IllegalArgumentException | IOException e) {
+            throw new InvalidSearchRequestException(ProductConstants.ErrorMessages.INVALID_CURSOR, e);
+        }
+    }
+}
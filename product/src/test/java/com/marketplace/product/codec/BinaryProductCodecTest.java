@@ -0,0 +1,111 @@
+package com.marketplace.product.codec;
+
+import com.marketplace.product.document.Product;
+import com.marketplace.product.service.CachedProduct;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryProductCodecTest {
+
+    private final BinaryProductCodec codec = new BinaryProductCodec(true, 512);
+
+    @Test
+    void encode_FullProduct_RoundTrips() {
+        // Arrange
+        CachedProduct entry = entry(product("Wireless Mouse", "Ergonomic mouse", new BigDecimal("129.99")));
+
+        // Act
+        CachedProduct decoded = codec.decode(codec.encode(entry));
+
+        // Assert
+        assertEquals(entry, decoded);
+    }
+
+    @Test
+    void encode_NullFields_RoundTrips() {
+        // Arrange
+        CachedProduct entry = entry(Product.builder().id("p-1").build());
+
+        // Act
+        CachedProduct decoded = codec.decode(codec.encode(entry));
+
+        // Assert
+        assertEquals(entry, decoded);
+    }
+
+    @Test
+    void encode_PriceWithMoreThanTwoDecimals_KeepsExactValue() {
+        // Arrange
+        CachedProduct entry = entry(product("Bulk Screws", "Per gram", new BigDecimal("0.0125")));
+
+        // Act
+        CachedProduct decoded = codec.decode(codec.encode(entry));
+
+        // Assert
+        assertEquals(new BigDecimal("0.0125"), decoded.getProduct().getPrice());
+    }
+
+    @Test
+    void encode_WholeNumberPrice_NormalizesToTwoDecimals() {
+        // Arrange
+        CachedProduct entry = entry(product("Cable", "USB-C", new BigDecimal("15")));
+
+        // Act
+        CachedProduct decoded = codec.decode(codec.encode(entry));
+
+        // Assert
+        assertEquals(new BigDecimal("15.00"), decoded.getProduct().getPrice());
+    }
+
+    @Test
+    void encode_LongDescription_IsCompressed() {
+        // Arrange
+        String description = "Stainless steel, dishwasher safe, 1.5 litre capacity. ".repeat(40);
+        CachedProduct entry = entry(product("Kettle", description, new BigDecimal("45.50")));
+
+        // Act
+        byte[] compressed = codec.encode(entry);
+        byte[] uncompressed = new BinaryProductCodec(false, 512).encode(entry);
+
+        // Assert
+        assertTrue(compressed.length < uncompressed.length / 4);
+        assertEquals(entry, codec.decode(compressed));
+    }
+
+    @Test
+    void decode_JsonOrTruncatedBytes_IsRejected() {
+        // Arrange
+        byte[] encoded = codec.encode(entry(product("Lamp", "Desk lamp", new BigDecimal("20.00"))));
+
+        // Act & Assert
+        assertFalse(codec.canDecode("{\"@class\":\"x\"}".getBytes()));
+        assertThrows(IllegalArgumentException.class,
+                () -> codec.decode(Arrays.copyOf(encoded, encoded.length - 3)));
+    }
+
+    private CachedProduct entry(Product product) {
+        return CachedProduct.builder()
+                .product(product)
+                .expiresAt(1_767_225_600_000L)
+                .loadMillis(12)
+                .build();
+    }
+
+    private Product product(String name, String description, BigDecimal price) {
+        return Product.builder()
+                .id("65f1c2a9e4b0a1b2c3d4e5f6")
+                .name(name)
+                .description(description)
+                .price(price)
+                .category("Electronics")
+                .stock(250)
+                .build();
+    }
+}
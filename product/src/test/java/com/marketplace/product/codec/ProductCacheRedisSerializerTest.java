@@ -0,0 +1,79 @@
+package com.marketplace.product.codec;
+
+import com.marketplace.product.config.RedisConfig;
+import com.marketplace.product.document.Product;
+import com.marketplace.product.service.CachedProduct;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ProductCacheRedisSerializerTest {
+
+    private final GenericJackson2JsonRedisSerializer legacy = RedisConfig.legacyJsonSerializer();
+    private final BinaryProductCodec codec = new BinaryProductCodec(true, 512);
+
+    @Test
+    void serialize_BinaryMode_WritesCodecFormat() {
+        // Arrange
+        ProductCacheRedisSerializer serializer = new ProductCacheRedisSerializer(codec, legacy, true, true);
+        CachedProduct entry = entry();
+
+        // Act
+        byte[] bytes = serializer.serialize(entry);
+
+        // Assert
+        assertEquals(BinaryProductCodec.VERSION, bytes[0]);
+        assertEquals(entry, serializer.deserialize(bytes));
+    }
+
+    @Test
+    void deserialize_LegacyJsonEntries_StillReadable() {
+        // Arrange
+        ProductCacheRedisSerializer serializer = new ProductCacheRedisSerializer(codec, legacy, true, true);
+        CachedProduct entry = entry();
+
+        // Act & Assert
+        assertEquals(entry, serializer.deserialize(legacy.serialize(entry)));
+        assertEquals(entry.getProduct(), serializer.deserialize(legacy.serialize(entry.getProduct())));
+    }
+
+    @Test
+    void deserialize_LegacyReadDisabled_TreatsJsonAsMiss() {
+        // Arrange
+        ProductCacheRedisSerializer serializer = new ProductCacheRedisSerializer(codec, legacy, true, false);
+
+        // Act & Assert
+        assertNull(serializer.deserialize(legacy.serialize(entry())));
+    }
+
+    @Test
+    void serialize_JsonMode_KeepsWritingJson() {
+        // Arrange
+        ProductCacheRedisSerializer serializer = new ProductCacheRedisSerializer(codec, legacy, false, true);
+
+        // Act
+        byte[] bytes = serializer.serialize(entry());
+
+        // Assert
+        assertEquals('{', bytes[0]);
+    }
+
+    private CachedProduct entry() {
+        return CachedProduct.builder()
+                .product(Product.builder()
+                        .id("p-1")
+                        .name("Desk Lamp")
+                        .description("LED desk lamp")
+                        .price(new BigDecimal("20.00"))
+                        .category("Home & Kitchen")
+                        .stock(10)
+                        .build())
+                .expiresAt(1_767_225_600_000L)
+                .loadMillis(3)
+                .build();
+    }
+}
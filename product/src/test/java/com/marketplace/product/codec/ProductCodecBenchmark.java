@@ -0,0 +1,100 @@
+package com.marketplace.product.codec;
+
+import com.marketplace.product.config.RedisConfig;
+import com.marketplace.product.document.Product;
+import com.marketplace.product.service.CachedProduct;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares encode/decode cost of the binary product codec with the default-typing JSON
+ * serializer used before it. Entry sizes for each format are printed at setup.
+ * <p>
+ * Not part of the test suite. Run from the IDE via {@link #main(String[])} after {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductCodecBenchmark {
+
+    @Param({"80", "2000"})
+    private int descriptionLength;
+
+    private GenericJackson2JsonRedisSerializer json;
+    private BinaryProductCodec binary;
+    private CachedProduct entry;
+    private byte[] jsonBytes;
+    private byte[] binaryBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        json = RedisConfig.legacyJsonSerializer();
+        binary = new BinaryProductCodec(true, 512);
+
+        String sentence = "Durable aluminium body with a matte finish and a two year warranty. ";
+        String description = sentence.repeat(descriptionLength / sentence.length() + 1).substring(0, descriptionLength);
+        entry = CachedProduct.builder()
+                .product(Product.builder()
+                        .id("65f1c2a9e4b0a1b2c3d4e5f6")
+                        .name("Ultralight Travel Backpack 30L")
+                        .description(description)
+                        .price(new BigDecimal("1249.90"))
+                        .category("Sports")
+                        .stock(342)
+                        .build())
+                .expiresAt(System.currentTimeMillis() + 1_800_000)
+                .loadMillis(4)
+                .build();
+
+        jsonBytes = json.serialize(entry);
+        binaryBytes = binary.encode(entry);
+        System.out.printf("%nDescription %d chars: json=%d bytes, binary=%d bytes%n",
+                descriptionLength, jsonBytes.length, binaryBytes.length);
+    }
+
+    @Benchmark
+    public byte[] jsonEncode() {
+        return json.serialize(entry);
+    }
+
+    @Benchmark
+    public Object jsonDecode() {
+        return json.deserialize(jsonBytes);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() {
+        return binary.encode(entry);
+    }
+
+    @Benchmark
+    public CachedProduct binaryDecode() {
+        return binary.decode(binaryBytes);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProductCodecBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
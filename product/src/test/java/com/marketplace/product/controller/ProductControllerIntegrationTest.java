@@ -11,21 +11,27 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.SearchHitsImpl;
+import org.springframework.data.elasticsearch.core.TotalHitsRelation;
+import org.springframework.data.elasticsearch.core.query.Query;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
@@ -42,6 +48,9 @@ class ProductControllerIntegrationTest {
     @MockBean
     private ProductSearchRepository productSearchRepository;
 
+    @MockBean
+    private ElasticsearchOperations elasticsearchOperations;
+
     @BeforeEach
     void setUp() {
         productRepository.deleteAll();
@@ -77,6 +86,38 @@ class ProductControllerIntegrationTest {
                 .andExpect(jsonPath("$.message").value("Product not found: non-existent-id"));
     }
 
+    @Test
+    void getProductsByIds_MixedIds_ReturnsFoundProductsInRequestOrder() throws Exception {
+        Product first = productRepository.save(Product.builder().name("First").price(new BigDecimal("10")).build());
+        Product second = productRepository.save(Product.builder().name("Second").price(new BigDecimal("20")).build());
+
+        mockMvc.perform(post("/api/product/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productIds\":[\"" + second.getId() + "\",\"non-existent-id\",\""
+                                + first.getId() + "\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data", hasSize(2)))
+                .andExpect(jsonPath("$.data[0].name").value("Second"))
+                .andExpect(jsonPath("$.data[1].name").value("First"));
+    }
+
+    @Test
+    void getProductsByIds_EmptyIds_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/product/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productIds\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getProductsByIds_NullId_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/product/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productIds\":[null,\" \"]}"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void searchProducts_NoParams_ReturnsAllProducts() throws Exception {
         productRepository.save(Product.builder().name("Product 1").price(new BigDecimal("10")).build());
@@ -88,8 +129,8 @@ class ProductControllerIntegrationTest {
         docs.add(ProductSearchDoc.builder().name("Product 2").price(new BigDecimal("20")).build());
         docs.add(ProductSearchDoc.builder().name("Product 3").price(new BigDecimal("30")).build());
 
-        when(productSearchRepository.findAll(any(Pageable.class)))
-                .thenReturn(new PageImpl<>(docs));
+        when(elasticsearchOperations.search(any(Query.class), eq(ProductSearchDoc.class)))
+                .thenReturn(searchHits(docs, docs.size()));
 
         mockMvc.perform(get("/api/product/search")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -97,7 +138,9 @@ class ProductControllerIntegrationTest {
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.data.content").isArray())
                 .andExpect(jsonPath("$.data.content", hasSize(3)))
-                .andExpect(jsonPath("$.data.totalElements").value(3));
+                .andExpect(jsonPath("$.data.totalElements").value(3))
+                .andExpect(jsonPath("$.data.totalElementsRelation").value("eq"))
+                .andExpect(jsonPath("$.data.totalElementsLabel").value("3"));
     }
 
     @Test
@@ -110,8 +153,8 @@ class ProductControllerIntegrationTest {
         docs.add(ProductSearchDoc.builder().name("Gaming Laptop").price(new BigDecimal("999")).build());
         docs.add(ProductSearchDoc.builder().name("Business Laptop").price(new BigDecimal("799")).build());
 
-        when(productSearchRepository.findByNameOrDescriptionContaining(any(), any(), any()))
-                .thenReturn(new PageImpl<>(docs));
+        when(elasticsearchOperations.search(any(Query.class), eq(ProductSearchDoc.class)))
+                .thenReturn(searchHits(docs, docs.size()));
 
         mockMvc.perform(get("/api/product/search")
                         .param("name", "laptop")
@@ -131,8 +174,8 @@ class ProductControllerIntegrationTest {
         docs.add(ProductSearchDoc.builder().name("iPhone Pro").price(new BigDecimal("999")).build());
         docs.add(ProductSearchDoc.builder().name("IPHONE Mini").price(new BigDecimal("799")).build());
 
-        when(productSearchRepository.findByNameOrDescriptionContaining(any(), any(), any()))
-                .thenReturn(new PageImpl<>(docs));
+        when(elasticsearchOperations.search(any(Query.class), eq(ProductSearchDoc.class)))
+                .thenReturn(searchHits(docs, docs.size()));
 
         mockMvc.perform(get("/api/product/search")
                         .param("name", "IPHONE")
@@ -145,8 +188,8 @@ class ProductControllerIntegrationTest {
     void searchProducts_NoMatches_ReturnsEmptyPage() throws Exception {
         productRepository.save(Product.builder().name("Mouse").price(new BigDecimal("29")).build());
 
-        when(productSearchRepository.findByNameOrDescriptionContaining(any(), any(), any()))
-                .thenReturn(new PageImpl<>(new ArrayList<>()));
+        when(elasticsearchOperations.search(any(Query.class), eq(ProductSearchDoc.class)))
+                .thenReturn(searchHits(new ArrayList<>(), 0));
 
         mockMvc.perform(get("/api/product/search")
                         .param("name", "keyboard")
@@ -173,15 +216,15 @@ class ProductControllerIntegrationTest {
 
         // Mock first page
         List<ProductSearchDoc> page1Docs = allDocs.subList(0, 5);
-        when(productSearchRepository.findAll(ArgumentMatchers
-                .argThat((Pageable p) -> p != null && p.getPageNumber() == 0)))
-                .thenReturn(new PageImpl<>(page1Docs, PageRequest.of(0, 5), 15));
+        when(elasticsearchOperations.search(ArgumentMatchers
+                .<Query>argThat(q -> q != null && q.getPageable().getPageNumber() == 0), eq(ProductSearchDoc.class)))
+                .thenReturn(searchHits(page1Docs, 15));
 
         // Mock second page
         List<ProductSearchDoc> page2Docs = allDocs.subList(5, 10);
-        when(productSearchRepository.findAll(ArgumentMatchers
-                .argThat((Pageable p) -> p != null && p.getPageNumber() == 1)))
-                .thenReturn(new PageImpl<>(page2Docs, PageRequest.of(1, 5), 15));
+        when(elasticsearchOperations.search(ArgumentMatchers
+                .<Query>argThat(q -> q != null && q.getPageable().getPageNumber() == 1), eq(ProductSearchDoc.class)))
+                .thenReturn(searchHits(page2Docs, 15));
 
         // First page
         mockMvc.perform(get("/api/product/search")
@@ -220,8 +263,8 @@ class ProductControllerIntegrationTest {
             }
         }
 
-        when(productSearchRepository.findAll(any(Pageable.class)))
-                .thenReturn(new PageImpl<>(docs, PageRequest.of(0, 10), 15));
+        when(elasticsearchOperations.search(any(Query.class), eq(ProductSearchDoc.class)))
+                .thenReturn(searchHits(docs, 15));
 
         mockMvc.perform(get("/api/product/search")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -241,8 +284,8 @@ class ProductControllerIntegrationTest {
         docs.add(ProductSearchDoc.builder().name("Phone Charger").price(new BigDecimal("29")).build());
         docs.add(ProductSearchDoc.builder().name("Microphone").price(new BigDecimal("99")).build());
 
-        when(productSearchRepository.findByNameOrDescriptionContaining(any(), any(), any()))
-                .thenReturn(new PageImpl<>(docs));
+        when(elasticsearchOperations.search(any(Query.class), eq(ProductSearchDoc.class)))
+                .thenReturn(searchHits(docs, docs.size()));
 
         mockMvc.perform(get("/api/product/search")
                         .param("name", "phone")
@@ -260,8 +303,8 @@ class ProductControllerIntegrationTest {
         docs.add(ProductSearchDoc.builder().name("Product A").price(new BigDecimal("10")).build());
         docs.add(ProductSearchDoc.builder().name("Product B").price(new BigDecimal("20")).build());
 
-        when(productSearchRepository.findAll(any(Pageable.class)))
-                .thenReturn(new PageImpl<>(docs));
+        when(elasticsearchOperations.search(any(Query.class), eq(ProductSearchDoc.class)))
+                .thenReturn(searchHits(docs, docs.size()));
 
         mockMvc.perform(get("/api/product/search")
                         .param("name", "")
@@ -288,4 +331,12 @@ class ProductControllerIntegrationTest {
                 .andExpect(jsonPath("$.data.price").value(149.99))
                 .andExpect(jsonPath("$.data.category").value("Category A"));
     }
+
+    private static SearchHits<ProductSearchDoc> searchHits(List<ProductSearchDoc> docs, long total) {
+        List<SearchHit<ProductSearchDoc>> hits = docs.stream()
+                .map(doc -> new SearchHit<>("products", doc.getId(), null, 1.0f, null, null, null, null, null, null, doc))
+                .toList();
+        return new SearchHitsImpl<>(total, TotalHitsRelation.EQUAL_TO, 1.0f, Duration.ZERO, null, null, hits,
+                null, null, null);
+    }
 }
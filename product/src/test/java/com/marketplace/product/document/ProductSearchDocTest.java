@@ -0,0 +1,45 @@
+package com.marketplace.product.document;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.core.suggest.Completion;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ProductSearchDocTest {
+
+    @Test
+    void from_Product_CopiesFieldsAndBuildsSuggestInputs() {
+        // Arrange
+        Product product = Product.builder()
+                .id("p1")
+                .name("Wireless Gaming  Laptop")
+                .description("Fast")
+                .price(new BigDecimal("999.00"))
+                .category("Electronics")
+                .stock(3)
+                .build();
+
+        // Act
+        ProductSearchDoc doc = ProductSearchDoc.from(product);
+
+        // Assert
+        assertEquals("p1", doc.getId());
+        assertEquals("Electronics", doc.getCategory());
+        assertArrayEquals(new String[]{"Wireless Gaming Laptop", "Gaming Laptop", "Laptop"}, doc.getSuggest().getInput());
+    }
+
+    @Test
+    void suggestFor_LongName_CapsInputs() {
+        // Act
+        Completion completion = ProductSearchDoc.suggestFor("a b c d e f g");
+
+        // Assert
+        assertEquals(5, completion.getInput().length);
+        assertEquals("e f g", completion.getInput()[4]);
+        assertNull(ProductSearchDoc.suggestFor(" "));
+    }
+}
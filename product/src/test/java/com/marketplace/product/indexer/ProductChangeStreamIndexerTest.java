@@ -0,0 +1,183 @@
+package com.marketplace.product.indexer;
+
+import com.marketplace.product.config.ProductConfigProperties;
+import com.marketplace.product.document.Product;
+import com.marketplace.product.service.ProductCacheService;
+import com.marketplace.product.service.ProductSearchCacheService;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDateTime;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonObjectId;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductChangeStreamIndexerTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ProductIndexWriter indexWriter;
+
+    @Mock
+    private ResumeTokenStore resumeTokenStore;
+
+    @Mock
+    private ProductCacheService productCacheService;
+
+    @Mock
+    private ProductSearchCacheService productSearchCacheService;
+
+    private MeterRegistry meterRegistry;
+    private ProductChangeStreamIndexer indexer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        lenient().when(mongoTemplate.getConverter()).thenReturn(converter);
+        lenient().when(indexWriter.defaultIndex()).thenReturn("products");
+        indexer = new ProductChangeStreamIndexer(mongoTemplate, indexWriter, resumeTokenStore, productCacheService,
+                productSearchCacheService, new ProductConfigProperties(), meterRegistry);
+    }
+
+    @Test
+    void flush_RepeatedChanges_IndexesLatestOnceAndSavesToken() {
+        // Arrange
+        ProductChangeBatch batch = new ProductChangeBatch();
+        batch.add(indexer.toChange(event("insert", "p1", product("p1", "Old name"), 1)), token(1), 0);
+        batch.add(indexer.toChange(event("delete", "p2", null, 2)), token(2), 0);
+        batch.add(indexer.toChange(event("update", "p1", product("p1", "New name"), 3)), token(3), 0);
+
+        // Act
+        indexer.flush(batch);
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, Product>> written = ArgumentCaptor.forClass(Map.class);
+        verify(indexWriter).write(eq("products"), written.capture());
+        assertEquals(List.of("p2", "p1"), new ArrayList<>(written.getValue().keySet()));
+        assertNull(written.getValue().get("p2"));
+        assertEquals("New name", written.getValue().get("p1").getName());
+
+        verify(productCacheService).evictProduct("p1");
+        verify(productCacheService).evictProduct("p2");
+        verify(productSearchCacheService, times(1)).bumpGeneration();
+        verify(resumeTokenStore).save(ProductChangeStreamIndexer.PIPELINE, token(3));
+        assertEquals(1.0, meterRegistry.get("product.indexer.changes").tag("operation", "index").counter().count());
+        assertEquals(1.0, meterRegistry.get("product.indexer.changes").tag("operation", "delete").counter().count());
+        assertEquals(2, meterRegistry.get("product.indexer.lag").timer().count());
+    }
+
+    @Test
+    void flush_BulkFails_KeepsPreviousToken() {
+        // Arrange
+        when(indexWriter.write(anyString(), anyMap())).thenThrow(new IndexingException("rejected", null));
+        ProductChangeBatch batch = new ProductChangeBatch();
+        batch.add(indexer.toChange(event("insert", "p1", product("p1", "Laptop"), 1)), token(1), 0);
+
+        // Act & Assert
+        assertThrows(IndexingException.class, () -> indexer.flush(batch));
+        verify(resumeTokenStore, never()).save(anyString(), any());
+        verify(productCacheService, never()).evictProduct(anyString());
+    }
+
+    @Test
+    void flush_OnlyNonProductEvents_SavesTokenWithoutWriting() {
+        // Arrange
+        ProductChangeBatch batch = new ProductChangeBatch();
+        batch.add(indexer.toChange(event("drop", null, null, 1)), token(1), 0);
+
+        // Act
+        indexer.flush(batch);
+
+        // Assert
+        verify(indexWriter, never()).write(anyString(), anyMap());
+        verify(productSearchCacheService, never()).bumpGeneration();
+        verify(resumeTokenStore).save(ProductChangeStreamIndexer.PIPELINE, token(1));
+    }
+
+    @Test
+    void toChange_UpdateOfDeletedProductWithObjectId_IsDelete() {
+        // Arrange
+        ObjectId id = new ObjectId();
+        ChangeStreamDocument<Document> event = new ChangeStreamDocument<>("update", token(1), null, null, null, null,
+                new BsonDocument("_id", new BsonObjectId(id)), null, null, null, null, new BsonDateTime(1000), null, null);
+
+        // Act
+        ProductChangeBatch.Change change = indexer.toChange(event);
+
+        // Assert
+        assertEquals(id.toHexString(), change.productId());
+        assertNull(change.product());
+        assertEquals(1000, change.eventMillis());
+    }
+
+    @Test
+    void isDue_BySizeOrElapsedTime() {
+        // Arrange
+        ProductChangeBatch batch = new ProductChangeBatch();
+
+        // Act & Assert
+        assertFalse(batch.isDue(5_000, 2, 1_000));
+        batch.add(new ProductChangeBatch.Change("p1", null, 0), token(1), 100);
+        assertFalse(batch.isDue(500, 2, 1_000));
+        assertTrue(batch.isDue(1_100, 2, 1_000));
+        batch.add(new ProductChangeBatch.Change("p2", null, 0), token(2), 200);
+        assertTrue(batch.isDue(200, 2, 1_000));
+    }
+
+    private static ChangeStreamDocument<Document> event(String operation, String id, Document fullDocument, int sequence) {
+        BsonDocument key = id != null ? new BsonDocument("_id", new BsonString(id)) : null;
+        return new ChangeStreamDocument<>(operation, token(sequence), null, null, fullDocument, null, key,
+                null, null, null, null, new BsonDateTime(System.currentTimeMillis()), null, null);
+    }
+
+    private static Document product(String id, String name) {
+        return new Document("_id", id).append("name", name).append("price", "19.99").append("stock", 3);
+    }
+
+    private static BsonDocument token(int sequence) {
+        return new BsonDocument("_data", new BsonInt32(sequence));
+    }
+}
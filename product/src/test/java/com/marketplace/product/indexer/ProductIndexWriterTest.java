@@ -0,0 +1,115 @@
+package com.marketplace.product.indexer;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.core.bulk.OperationType;
+import com.marketplace.product.document.Product;
+import com.marketplace.product.document.ProductSearchDoc;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.convert.ElasticsearchCustomConversions;
+import org.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductIndexWriterTest {
+
+    @Mock
+    private ElasticsearchClient elasticsearchClient;
+
+    @Mock
+    private ElasticsearchOperations elasticsearchOperations;
+
+    private ProductIndexWriter indexWriter;
+
+    @BeforeEach
+    void setUp() {
+        ElasticsearchCustomConversions conversions = new ElasticsearchCustomConversions(List.of());
+        SimpleElasticsearchMappingContext mappingContext = new SimpleElasticsearchMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingElasticsearchConverter converter = new MappingElasticsearchConverter(mappingContext);
+        converter.setConversions(conversions);
+        converter.afterPropertiesSet();
+        when(elasticsearchOperations.getElasticsearchConverter()).thenReturn(converter);
+        when(elasticsearchOperations.getIndexCoordinatesFor(ProductSearchDoc.class)).thenReturn(IndexCoordinates.of("products"));
+        indexWriter = new ProductIndexWriter(elasticsearchClient, elasticsearchOperations);
+    }
+
+    @Test
+    void write_IndexAndDelete_SendsOneBulkRequest() throws IOException {
+        // Arrange
+        when(elasticsearchClient.bulk(any(BulkRequest.class))).thenReturn(response());
+        Map<String, Product> products = new LinkedHashMap<>();
+        products.put("p1", Product.builder().id("p1").name("Gaming Laptop").price(new BigDecimal("999.00")).build());
+        products.put("p2", null);
+
+        // Act
+        int failed = indexWriter.write("products", products);
+
+        // Assert
+        ArgumentCaptor<BulkRequest> captor = ArgumentCaptor.forClass(BulkRequest.class);
+        verify(elasticsearchClient).bulk(captor.capture());
+        BulkRequest request = captor.getValue();
+        assertEquals(0, failed);
+        assertEquals("products", request.index());
+        assertEquals(2, request.operations().size());
+        assertTrue(request.operations().get(0).isIndex());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> source = (Map<String, Object>) request.operations().get(0).index().document();
+        assertEquals("Gaming Laptop", source.get("name"));
+        assertTrue(source.containsKey("suggest"));
+        assertEquals("p2", request.operations().get(1).delete().id());
+    }
+
+    @Test
+    void write_MappingError_IsCountedNotThrown() throws IOException {
+        // Arrange
+        when(elasticsearchClient.bulk(any(BulkRequest.class))).thenReturn(response(failure("p1", 400)));
+
+        // Act
+        int failed = indexWriter.write("products", Map.of("p1", Product.builder().id("p1").name("Laptop").build()));
+
+        // Assert
+        assertEquals(1, failed);
+    }
+
+    @Test
+    void write_Rejected_ThrowsForRetry() throws IOException {
+        // Arrange
+        when(elasticsearchClient.bulk(any(BulkRequest.class))).thenReturn(response(failure("p1", 429)));
+
+        // Act & Assert
+        assertThrows(IndexingException.class,
+                () -> indexWriter.write("products", Map.of("p1", Product.builder().id("p1").name("Laptop").build())));
+    }
+
+    private static BulkResponse response(BulkResponseItem... failures) {
+        return BulkResponse.of(r -> r.took(1).errors(failures.length > 0).items(List.of(failures)));
+    }
+
+    private static BulkResponseItem failure(String id, int status) {
+        return BulkResponseItem.of(i -> i.operationType(OperationType.Index).index("products").id(id).status(status)
+                .error(e -> e.type("error").reason("failed")));
+    }
+}
@@ -0,0 +1,57 @@
+package com.marketplace.product.indexer;
+
+import co.elastic.clients.elasticsearch.indices.update_aliases.Action;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductReindexerTest {
+
+    @Test
+    void nextVersion_IgnoresForeignIndices() {
+        // Act & Assert
+        assertEquals(1, ProductReindexer.nextVersion("products", List.of()));
+        assertEquals(4, ProductReindexer.nextVersion("products",
+                List.of("products_v1", "products_v3", "products_v2-old", "products_archive")));
+    }
+
+    @Test
+    void aliasActions_AliasOnPreviousVersion_MovesItAtomically() {
+        // Act
+        List<Action> actions = ProductReindexer.aliasActions("products", "products_v3",
+                List.of("products_v2"), false);
+
+        // Assert
+        assertEquals(2, actions.size());
+        assertEquals("products_v2", actions.get(0).remove().index());
+        assertEquals("products", actions.get(0).remove().alias());
+        assertEquals("products_v3", actions.get(1).add().index());
+        assertTrue(actions.get(1).add().isWriteIndex());
+    }
+
+    @Test
+    void aliasActions_LegacyConcreteIndex_IsRemovedInSameRequest() {
+        // Act
+        List<Action> actions = ProductReindexer.aliasActions("products", "products_v1", List.of(), true);
+
+        // Assert
+        assertEquals(2, actions.size());
+        assertTrue(actions.get(0).isRemoveIndex());
+        assertEquals("products", actions.get(0).removeIndex().index());
+        assertEquals("products", actions.get(1).add().alias());
+    }
+
+    @Test
+    void aliasActions_ResumedAfterSwap_OnlyReaddsTarget() {
+        // Act
+        List<Action> actions = ProductReindexer.aliasActions("products", "products_v3",
+                List.of("products_v3"), false);
+
+        // Assert
+        assertEquals(1, actions.size());
+        assertTrue(actions.get(0).isAdd());
+    }
+}
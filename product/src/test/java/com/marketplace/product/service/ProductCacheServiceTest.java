@@ -0,0 +1,375 @@
+package com.marketplace.product.service;
+
+import com.marketplace.product.config.ProductConfigProperties;
+import com.marketplace.product.document.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCacheServiceTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> stringValueOperations;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private ProductConfigProperties properties;
+    private MeterRegistry meterRegistry;
+    private ProductCacheService productCacheService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ProductConfigProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        productCacheService = new ProductCacheService(redisTemplate, stringRedisTemplate, listenerContainer,
+                properties, meterRegistry);
+    }
+
+    @Test
+    void getOrLoad_L2Hit_ServesRepeatReadsFromL1() {
+        // Arrange
+        Product product = product("p-1");
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("product:p-1")).thenReturn(product);
+
+        // Act
+        Optional<Product> first = productCacheService.getOrLoad("p-1", id -> Optional.empty());
+        Optional<Product> second = productCacheService.getOrLoad("p-1", id -> Optional.empty());
+
+        // Assert
+        assertSame(product, first.orElseThrow());
+        assertSame(product, second.orElseThrow());
+        verify(valueOperations, times(1)).get("product:p-1");
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", "product.l1").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", "product.l2").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void getOrLoad_MissInBothTiers_CountsL2Miss() {
+        // Arrange
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        // Act
+        Optional<Product> result = productCacheService.getOrLoad("p-1", id -> Optional.empty());
+
+        // Assert
+        assertTrue(result.isEmpty());
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", "product.l2").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void evictProduct_CachedProduct_DeletesBothTiersAndPublishes() {
+        // Arrange
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        productCacheService.getOrLoad("p-1", id -> Optional.of(product(id)));
+
+        // Act
+        productCacheService.evictProduct("p-1");
+
+        // Assert - the next read misses both tiers
+        verify(redisTemplate).delete("product:p-1");
+        verify(stringRedisTemplate).convertAndSend("product:invalidate", "p-1");
+        assertTrue(productCacheService.getOrLoad("p-1", id -> Optional.empty()).isEmpty());
+    }
+
+    @Test
+    void onInvalidation_MessageFromOtherNode_DropsL1Copy() {
+        // Arrange
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        productCacheService.getOrLoad("p-1", id -> Optional.of(product(id)));
+
+        // Act
+        productCacheService.onInvalidation(new DefaultMessage(
+                "product:invalidate".getBytes(StandardCharsets.UTF_8), "p-1".getBytes(StandardCharsets.UTF_8)));
+
+        // Assert - the next read goes back to Redis
+        productCacheService.getOrLoad("p-1", id -> Optional.empty());
+        verify(valueOperations, times(2)).get("product:p-1");
+    }
+
+    @Test
+    void getOrLoad_HerdOfConcurrentMisses_QueriesDatabaseOncePerKey() throws Exception {
+        // Arrange - a cold cache and a slow database, hit by 200 requests across 4 products
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        Map<String, AtomicInteger> queries = new ConcurrentHashMap<>();
+        int threads = 200;
+        int keys = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // Act
+        List<Future<Optional<Product>>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                String productId = "p-" + (i % keys);
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return productCacheService.getOrLoad(productId, id -> {
+                        queries.computeIfAbsent(id, k -> new AtomicInteger()).incrementAndGet();
+                        sleep(100);
+                        return Optional.of(product(id));
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<Optional<Product>> result : results) {
+                assertTrue(result.get(10, TimeUnit.SECONDS).isPresent());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert - one database query per product instead of one per request
+        assertEquals(keys, queries.size());
+        queries.values().forEach(count -> assertEquals(1, count.get()));
+        assertEquals(keys, meterRegistry.get("product.cache.loads").counter().count());
+    }
+
+    @Test
+    void getOrLoad_NotFound_ReturnsEmpty() {
+        // Arrange
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        // Act
+        Optional<Product> result = productCacheService.getOrLoad("missing", id -> Optional.empty());
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(valueOperations, never()).set(anyString(), any(), any(Duration.class));
+    }
+
+    @Test
+    void getOrLoad_Miss_StoresEntryWithStaleWindow() {
+        // Arrange
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        // Act
+        productCacheService.getOrLoad("p-1", id -> Optional.of(product(id)));
+
+        // Assert
+        verify(valueOperations).set(eq("product:p-1"), any(CachedProduct.class),
+                eq(Duration.ofMinutes(30).plus(Duration.ofMinutes(5))));
+    }
+
+    @Test
+    void getOrLoad_StaleEntryAndSlowDatabase_ServesStale() {
+        // Arrange
+        properties.getCache().getLocal().setEnabled(false);
+        Product stale = product("p-1");
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("product:p-1")).thenReturn(CachedProduct.builder()
+                .product(stale)
+                .expiresAt(System.currentTimeMillis() - 1000)
+                .build());
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Act
+        Optional<Product> result = productCacheService.getOrLoad("p-1", id -> {
+            await(release);
+            return Optional.of(product(id));
+        });
+        release.countDown();
+
+        // Assert
+        assertSame(stale, result.orElseThrow());
+        assertEquals(1.0, meterRegistry.get("product.cache.stale.served").counter().count());
+    }
+
+    @Test
+    void getOrLoad_EntryNearExpiry_RefreshesInBackground() throws InterruptedException {
+        // Arrange - an entry whose last load took long enough that early refresh is near certain
+        Product cached = product("p-1");
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("product:p-1")).thenReturn(CachedProduct.builder()
+                .product(cached)
+                .expiresAt(System.currentTimeMillis() + 60_000)
+                .loadMillis(1_000_000_000L)
+                .build());
+        CountDownLatch refreshed = new CountDownLatch(1);
+
+        // Act
+        Optional<Product> result = productCacheService.getOrLoad("p-1", id -> {
+            refreshed.countDown();
+            return Optional.of(product(id));
+        });
+
+        // Assert - the cached value is served right away and the reload runs behind it
+        assertSame(cached, result.orElseThrow());
+        assertTrue(refreshed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void getOrLoad_LockHeldByOtherNode_WaitsForItsEntry() {
+        // Arrange
+        properties.getCache().getStampede().setLockEnabled(true);
+        Product loadedElsewhere = product("p-1");
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(stringRedisTemplate.opsForValue()).thenReturn(stringValueOperations);
+        when(stringValueOperations.setIfAbsent(eq("lock:product:p-1"), anyString(), any(Duration.class)))
+                .thenReturn(false);
+        when(valueOperations.get("product:p-1"))
+                .thenReturn(null)
+                .thenReturn(CachedProduct.builder()
+                        .product(loadedElsewhere)
+                        .expiresAt(System.currentTimeMillis() + 60_000)
+                        .build());
+        AtomicInteger queries = new AtomicInteger();
+
+        // Act
+        Optional<Product> result = productCacheService.getOrLoad("p-1", id -> {
+            queries.incrementAndGet();
+            return Optional.of(product(id));
+        });
+
+        // Assert
+        assertSame(loadedElsewhere, result.orElseThrow());
+        assertEquals(0, queries.get());
+    }
+
+    @Test
+    void getOrLoadAll_MixedHitsAndMisses_LoadsMissesOnceInRequestOrder() {
+        // Arrange
+        Product cached = product("p-2");
+        Product stale = product("p-3");
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(List.of("product:p-1", "product:p-2", "product:p-3", "product:unknown")))
+                .thenReturn(Arrays.asList(null, cached,
+                        CachedProduct.builder().product(stale).expiresAt(1).build(), null));
+        List<Collection<String>> queries = new ArrayList<>();
+
+        // Act
+        Map<String, Product> result = productCacheService.getOrLoadAll(
+                List.of("p-1", "p-2", "p-3", "p-1", "unknown"), ids -> {
+                    queries.add(List.copyOf(ids));
+                    return ids.stream().filter(id -> !id.equals("unknown")).map(this::product).toList();
+                });
+
+        // Assert
+        assertEquals(List.of("p-1", "p-2", "p-3"), List.copyOf(result.keySet()));
+        assertSame(cached, result.get("p-2"));
+        assertEquals(List.of(List.of("p-1", "p-3", "unknown")), queries);
+        verify(redisTemplate).executePipelined(any(SessionCallback.class));
+        assertEquals(2.0, meterRegistry.get("product.cache.loads").counter().count());
+    }
+
+    @Test
+    void getOrLoadAll_AllInL1_SkipsRedisAndDatabase() {
+        // Arrange
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        productCacheService.getOrLoad("p-1", id -> Optional.of(product(id)));
+
+        // Act
+        Map<String, Product> result = productCacheService.getOrLoadAll(List.of("p-1"), ids -> {
+            throw new AssertionError("Database should not be queried");
+        });
+
+        // Assert
+        assertEquals(1, result.size());
+        verify(valueOperations, never()).multiGet(any());
+    }
+
+    @Test
+    void getOrLoadAll_RedisDown_LoadsEverythingFromDatabase() {
+        // Arrange
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(any())).thenThrow(new RuntimeException("Redis down"));
+
+        // Act
+        Map<String, Product> result = productCacheService.getOrLoadAll(List.of("p-1", "p-2"),
+                ids -> ids.stream().map(this::product).toList());
+
+        // Assert
+        assertEquals(List.of("p-1", "p-2"), List.copyOf(result.keySet()));
+    }
+
+    @Test
+    void shouldRefreshEarly_CloserToExpiry_MoreLikely() {
+        // Arrange
+        CachedProduct entry = CachedProduct.builder().expiresAt(10_000).loadMillis(100).build();
+
+        // Act & Assert - with random = e^-1 the refresh window is one load time wide
+        double random = Math.exp(-1);
+        assertTrue(entry.shouldRefreshEarly(9_950, 1.0, random));
+        assertFalse(entry.shouldRefreshEarly(9_800, 1.0, random));
+        assertFalse(entry.shouldRefreshEarly(9_950, 0.0, random));
+    }
+
+    private Product product(String id) {
+        return Product.builder()
+                .id(id)
+                .name("Product " + id)
+                .price(new BigDecimal("10.00"))
+                .category("Electronics")
+                .stock(5)
+                .build();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
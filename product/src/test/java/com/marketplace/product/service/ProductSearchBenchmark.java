@@ -0,0 +1,172 @@
+package com.marketplace.product.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import com.marketplace.product.config.ProductConfigProperties;
+import com.marketplace.product.document.Product;
+import com.marketplace.product.document.ProductSearchDoc;
+import com.marketplace.product.dto.request.SearchProductsRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.client.ClientConfiguration;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchClients;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchTemplate;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the previous derived {@code findByNameOrDescriptionContaining} query ({@code *term*}
+ * query_string on both fields) with the {@code multi_match} query built by
+ * {@link ProductSearchService}, at 50k and 1M documents. Also measures the completion suggester
+ * query built by {@link ProductSuggestService} with 2-3 character prefixes, without its prefix cache.
+ * <p>
+ * Needs an Elasticsearch node at {@code ELASTICSEARCH_URIS} (default localhost:9200). Each
+ * size is seeded once into its own {@code products-bench-*} index and reused on later runs;
+ * delete indices seeded before the {@code suggest} field existed.
+ * Reports the sampled latency distribution (p50/p99 in the JMH output).
+ * Not part of the test suite. Run from the IDE via {@link #main(String[])} after {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(4)
+@Fork(1)
+public class ProductSearchBenchmark {
+
+    private static final String[] WORDS = {
+            "laptop", "phone", "wireless", "gaming", "keyboard", "monitor", "cotton", "shirt",
+            "running", "shoes", "kitchen", "blender", "novel", "history", "yoga", "camera",
+            "leather", "wallet", "coffee", "speaker", "charger", "backpack", "desk", "lamp"};
+    private static final String[] CATEGORIES = {"Electronics", "Clothing", "Books", "Home & Kitchen", "Sports"};
+    private static final int BATCH_SIZE = 5_000;
+
+    @Param({"50000", "1000000"})
+    private int documents;
+
+    private ElasticsearchTemplate template;
+    private IndexCoordinates index;
+    private ProductSearchService searchService;
+    private ProductSuggestService suggestService;
+
+    @Setup
+    public void setUp() {
+        String uri = System.getenv().getOrDefault("ELASTICSEARCH_URIS", "localhost:9200")
+                .replaceFirst("^https?://", "");
+        ElasticsearchClient client = ElasticsearchClients.createImperative(ClientConfiguration.create(uri));
+        template = new ElasticsearchTemplate(client);
+        index = IndexCoordinates.of("products-bench-" + documents);
+        searchService = new ProductSearchService(template, new ProductConfigProperties(), new SimpleMeterRegistry());
+        suggestService = new ProductSuggestService(template, new ProductConfigProperties(), new SimpleMeterRegistry());
+
+        IndexOperations indexOps = template.indexOps(index);
+        if (!indexOps.exists()) {
+            IndexOperations docOps = template.indexOps(ProductSearchDoc.class);
+            indexOps.create(docOps.createSettings(ProductSearchDoc.class), docOps.createMapping(ProductSearchDoc.class));
+            seed();
+            indexOps.refresh();
+        }
+    }
+
+    /**
+     * Previous SearchProductsCommandImpl logic: what the derived query sends to Elasticsearch.
+     */
+    @Benchmark
+    public SearchHits<ProductSearchDoc> containingWildcard() {
+        String term = randomWord();
+        NativeQuery query = NativeQuery.builder()
+                .withQuery(q -> q.bool(b -> b
+                        .should(wildcard("name", term))
+                        .should(wildcard("description", term))))
+                .withPageable(PageRequest.of(0, 10))
+                .build();
+        return template.search(query, ProductSearchDoc.class, index);
+    }
+
+    @Benchmark
+    public SearchHits<ProductSearchDoc> multiMatch() {
+        SearchProductsRequest request = SearchProductsRequest.builder()
+                .name(randomWord())
+                .pageable(PageRequest.of(0, 10))
+                .build();
+        return template.search(searchService.buildQuery(request, false), ProductSearchDoc.class, index);
+    }
+
+    @Benchmark
+    public SearchHits<ProductSearchDoc> completionSuggest() {
+        String prefix = randomWord().substring(0, 2 + ThreadLocalRandom.current().nextInt(2));
+        return template.search(suggestService.buildQuery(prefix, 5), ProductSearchDoc.class, index);
+    }
+
+    private static Query wildcard(String field, String term) {
+        return Query.of(q -> q.queryString(s -> s
+                .fields(field)
+                .query("*" + term + "*")
+                .analyzeWildcard(true)));
+    }
+
+    private void seed() {
+        Random random = new Random(42);
+        List<ProductSearchDoc> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < documents; i++) {
+            batch.add(ProductSearchDoc.from(Product.builder()
+                    .id("bench-" + i)
+                    .name(words(random, 3))
+                    .description(words(random, 20))
+                    .price(BigDecimal.valueOf(random.nextInt(100_000), 2))
+                    .category(CATEGORIES[random.nextInt(CATEGORIES.length)])
+                    .stock(random.nextInt(500))
+                    .build()));
+            if (batch.size() == BATCH_SIZE) {
+                template.save(batch, index);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            template.save(batch, index);
+        }
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append(i == 0 ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    private static String randomWord() {
+        return WORDS[ThreadLocalRandom.current().nextInt(WORDS.length)];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProductSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,166 @@
+package com.marketplace.product.service;
+
+import com.marketplace.product.config.ProductConfigProperties;
+import com.marketplace.product.dto.request.SearchProductsRequest;
+import com.marketplace.product.dto.response.ProductResponse;
+import com.marketplace.product.dto.response.ProductSearchResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSearchCacheServiceTest {
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private ProductConfigProperties properties;
+    private MeterRegistry meterRegistry;
+    private ProductSearchCacheService cacheService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ProductConfigProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        cacheService = new ProductSearchCacheService(stringRedisTemplate, properties, meterRegistry);
+    }
+
+    @Test
+    void getOrLoad_Miss_CachesInRedisAndServesRepeatFromL1() {
+        // Arrange
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        ProductSearchResponse first = cacheService.getOrLoad(request(" Laptop ", 0),
+                () -> { loads.incrementAndGet(); return response("p1"); });
+        ProductSearchResponse second = cacheService.getOrLoad(request("laptop", 0),
+                () -> { loads.incrementAndGet(); return response("p2"); });
+
+        // Assert
+        assertEquals(1, loads.get());
+        assertEquals(first, second);
+        verify(valueOperations).set(anyString(), anyString(), eq(Duration.ofSeconds(30)));
+        assertEquals(1.0, lookups("term", "miss"));
+        assertEquals(1.0, lookups("term", "hit"));
+    }
+
+    @Test
+    void getOrLoad_RemoteHit_SkipsLoader() {
+        // Arrange
+        properties.getSearch().getResultCache().setLocalEnabled(false);
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(anyString())).thenAnswer(invocation ->
+                ProductSearchCacheService.GENERATION_KEY.equals(invocation.getArgument(0))
+                        ? "7"
+                        : "{\"content\":[{\"id\":\"p1\",\"price\":19.99}],\"totalElements\":1,\"size\":10}");
+
+        // Act
+        ProductSearchResponse result = cacheService.getOrLoad(request("", 0), () -> {
+            throw new AssertionError("loader should not run");
+        });
+
+        // Assert
+        assertEquals("p1", result.getContent().get(0).getId());
+        assertEquals(new BigDecimal("19.99"), result.getContent().get(0).getPrice());
+        assertEquals(1.0, lookups("browse", "hit"));
+    }
+
+    @Test
+    void bumpGeneration_ChangesKey_ReloadsPage() {
+        // Arrange
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.increment(ProductSearchCacheService.GENERATION_KEY)).thenReturn(1L);
+        AtomicInteger loads = new AtomicInteger();
+        ArgumentCaptor<String> keys = ArgumentCaptor.forClass(String.class);
+
+        // Act
+        cacheService.getOrLoad(request("laptop", 0), () -> { loads.incrementAndGet(); return response("p1"); });
+        cacheService.bumpGeneration();
+        cacheService.getOrLoad(request("laptop", 0), () -> { loads.incrementAndGet(); return response("p1"); });
+
+        // Assert
+        assertEquals(2, loads.get());
+        verify(valueOperations, times(2)).set(keys.capture(), anyString(), any(Duration.class));
+        assertTrue(keys.getAllValues().get(0).startsWith("search:result:0:"));
+        assertTrue(keys.getAllValues().get(1).startsWith("search:result:1:"));
+    }
+
+    @Test
+    void getOrLoad_OpeningCursorOrDeepPage_BypassesCache() {
+        // Arrange
+        SearchProductsRequest opening = request("laptop", 0);
+        opening.setCursor("");
+
+        // Act
+        cacheService.getOrLoad(opening, () -> response("p1"));
+        cacheService.getOrLoad(request("laptop", 5), () -> response("p1"));
+
+        // Assert
+        verify(stringRedisTemplate, never()).opsForValue();
+    }
+
+    @Test
+    void cacheKey_DifferentFiltersOrSize_DoNotCollide() {
+        // Arrange
+        SearchProductsRequest filtered = request("laptop", 0);
+        filtered.setMinPrice(new BigDecimal("10.0"));
+        SearchProductsRequest sameFilter = request("LAPTOP", 0);
+        sameFilter.setMinPrice(new BigDecimal("10"));
+
+        // Act & Assert
+        assertEquals(ProductSearchCacheService.cacheKey(filtered), ProductSearchCacheService.cacheKey(sameFilter));
+        assertNotEquals(ProductSearchCacheService.cacheKey(filtered),
+                ProductSearchCacheService.cacheKey(request("laptop", 0)));
+        assertEquals("filter", ProductSearchCacheService.queryClass(
+                SearchProductsRequest.builder().category("Books").pageable(PageRequest.of(0, 10)).build()));
+    }
+
+    private double lookups(String queryClass, String result) {
+        return meterRegistry.find("product.search.cache.gets")
+                .tag("class", queryClass).tag("result", result)
+                .counters().stream().mapToDouble(c -> c.count()).sum();
+    }
+
+    private static SearchProductsRequest request(String name, int page) {
+        return SearchProductsRequest.builder()
+                .name(name)
+                .pageable(PageRequest.of(page, 10))
+                .build();
+    }
+
+    private static ProductSearchResponse response(String id) {
+        return ProductSearchResponse.builder()
+                .content(List.of(ProductResponse.builder().id(id).build()))
+                .totalElements(1)
+                .size(10)
+                .build();
+    }
+}
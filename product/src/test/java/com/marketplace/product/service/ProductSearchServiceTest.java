@@ -0,0 +1,312 @@
+package com.marketplace.product.service;
+
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.RangeBucket;
+import co.elastic.clients.elasticsearch._types.aggregations.StringTermsBucket;
+import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.MultiMatchQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import com.marketplace.product.config.ProductConfigProperties;
+import com.marketplace.product.document.ProductSearchDoc;
+import com.marketplace.product.dto.request.SearchProductsRequest;
+import com.marketplace.product.dto.response.SearchFacetsResponse;
+import com.marketplace.product.exception.InvalidSearchRequestException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.SearchHitsImpl;
+import org.springframework.data.elasticsearch.core.TotalHitsRelation;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSearchServiceTest {
+
+    @Mock
+    private ElasticsearchOperations elasticsearchOperations;
+
+    private ProductConfigProperties properties;
+    private ProductSearchService productSearchService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ProductConfigProperties();
+        productSearchService = new ProductSearchService(elasticsearchOperations, properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void buildQuery_SearchTerm_BoostsNameAndUsesNgramSubfield() {
+        // Act
+        MultiMatchQuery multiMatch = boolQuery(request("laptop")).must().get(0).multiMatch();
+
+        // Assert
+        assertEquals("laptop", multiMatch.query());
+        assertEquals(List.of("name^3.0", "name.ngram", "description"), multiMatch.fields());
+        assertEquals("AUTO", multiMatch.fuzziness());
+        assertEquals(1, multiMatch.prefixLength());
+    }
+
+    @Test
+    void buildQuery_FuzzySearchDisabled_OmitsFuzziness() {
+        // Arrange
+        properties.getSearch().setEnableFuzzySearch(false);
+
+        // Act
+        MultiMatchQuery multiMatch = boolQuery(request("laptop")).must().get(0).multiMatch();
+
+        // Assert
+        assertNull(multiMatch.fuzziness());
+    }
+
+    @Test
+    void buildQuery_BlankTerm_MatchesAll() {
+        // Act
+        BoolQuery bool = boolQuery(request("  "));
+
+        // Assert
+        assertTrue(bool.must().get(0).isMatchAll());
+        assertTrue(bool.filter().isEmpty());
+    }
+
+    @Test
+    void buildQuery_CategoryAndPrice_GoInFilterContext() {
+        // Arrange
+        SearchProductsRequest request = request("laptop");
+        request.setCategory("Electronics");
+        request.setMinPrice(new BigDecimal("100"));
+        request.setMaxPrice(new BigDecimal("500.50"));
+
+        // Act
+        BoolQuery bool = boolQuery(request);
+
+        // Assert
+        assertEquals(1, bool.must().size());
+        List<Query> filters = bool.filter();
+        assertEquals(2, filters.size());
+        assertEquals("Electronics", filters.get(0).term().value().stringValue());
+        assertEquals(100.0, filters.get(1).range().number().gte());
+        assertEquals(500.5, filters.get(1).range().number().lte());
+    }
+
+    @Test
+    void buildQuery_DefaultPolicy_CapsTotalHitCount() {
+        // Act
+        NativeQuery query = productSearchService.buildQuery(request("laptop"), false);
+
+        // Assert
+        assertEquals(10000, query.getTrackTotalHitsUpTo());
+        assertNull(query.getTrackTotalHits());
+    }
+
+    @Test
+    void search_CountingDisabled_ReportsLowerBound() {
+        // Arrange
+        properties.getSearch().setTrackTotalHits(ProductConfigProperties.TrackTotalHits.NONE);
+        SearchProductsRequest request = request("");
+        request.setPageable(PageRequest.of(3, 2));
+        when(elasticsearchOperations.search(any(NativeQuery.class), eq(ProductSearchDoc.class)))
+                .thenReturn(hits(null, TotalHitsRelation.OFF, 0, hit("g", 1.0f, 1L), hit("h", 1.0f, 2L)));
+
+        // Act
+        ProductSearchResult result = productSearchService.search(request);
+
+        // Assert
+        ArgumentCaptor<NativeQuery> query = ArgumentCaptor.forClass(NativeQuery.class);
+        verify(elasticsearchOperations).search(query.capture(), eq(ProductSearchDoc.class));
+        assertEquals(Boolean.FALSE, query.getValue().getTrackTotalHits());
+        assertEquals(TotalHitsRelation.OFF, result.getTotalHitsRelation());
+        // Six hits on earlier pages, two here and a full page, so at least one more
+        assertEquals(9, result.getPage().getTotalElements());
+        assertTrue(result.getPage().hasNext());
+    }
+
+    @Test
+    void search_WithFacets_AggregatesOnceThenServesFromCache() {
+        // Arrange
+        SearchProductsRequest request = request("Laptop");
+        request.setIncludeFacets(true);
+        when(elasticsearchOperations.search(any(NativeQuery.class), eq(ProductSearchDoc.class)))
+                .thenReturn(hitsWithFacets());
+
+        // Act
+        ProductSearchResult first = productSearchService.search(request);
+        request.setName("  laptop ");
+        request.setPageable(PageRequest.of(1, 10));
+        ProductSearchResult second = productSearchService.search(request);
+
+        // Assert
+        SearchFacetsResponse facets = first.getFacets();
+        assertEquals("Electronics", facets.getCategories().get(0).getCategory());
+        assertEquals(4, facets.getCategories().get(0).getCount());
+        assertNull(facets.getPriceRanges().get(0).getFrom());
+        assertEquals(new BigDecimal("25.0"), facets.getPriceRanges().get(0).getTo());
+        assertEquals(3, facets.getPriceRanges().get(0).getCount());
+        assertSame(facets, second.getFacets());
+
+        ArgumentCaptor<NativeQuery> queries = ArgumentCaptor.forClass(NativeQuery.class);
+        verify(elasticsearchOperations, times(2)).search(queries.capture(), eq(ProductSearchDoc.class));
+        assertEquals(7, queries.getAllValues().get(0).getAggregations()
+                .get(ProductSearchService.PRICE_FACET).range().ranges().size());
+        assertTrue(queries.getAllValues().get(1).getAggregations().isEmpty());
+    }
+
+    @Test
+    void facetKey_DifferentFilters_DoNotShareEntry() {
+        // Arrange
+        SearchProductsRequest cheap = request("laptop");
+        cheap.setMaxPrice(new BigDecimal("500.00"));
+        SearchProductsRequest samePrice = request(" LAPTOP");
+        samePrice.setMaxPrice(new BigDecimal("500"));
+        SearchProductsRequest expensive = request("laptop");
+        expensive.setMinPrice(new BigDecimal("500"));
+
+        // Act & Assert
+        assertEquals(ProductSearchService.facetKey(cheap), ProductSearchService.facetKey(samePrice));
+        assertNotEquals(ProductSearchService.facetKey(cheap), ProductSearchService.facetKey(expensive));
+    }
+
+    @Test
+    void search_OffsetBeyondWindow_RequiresCursor() {
+        // Arrange
+        SearchProductsRequest request = SearchProductsRequest.builder()
+                .pageable(PageRequest.of(100, 100))
+                .build();
+
+        // Act & Assert
+        assertThrows(InvalidSearchRequestException.class, () -> productSearchService.search(request));
+        verifyNoInteractions(elasticsearchOperations);
+    }
+
+    @Test
+    void search_EmptyCursor_OpensPointInTimeAndReturnsNextCursor() {
+        // Arrange
+        SearchProductsRequest request = request("laptop");
+        request.setPageable(PageRequest.of(0, 2));
+        request.setCursor("");
+        when(elasticsearchOperations.getIndexCoordinatesFor(ProductSearchDoc.class))
+                .thenReturn(IndexCoordinates.of("products"));
+        when(elasticsearchOperations.openPointInTime(any(IndexCoordinates.class), any(Duration.class)))
+                .thenReturn("pit-1");
+        when(elasticsearchOperations.search(any(NativeQuery.class), eq(ProductSearchDoc.class)))
+                .thenReturn(hits("pit-2", 5, hit("a", 2.0f, 7L), hit("b", 1.5f, 9L)));
+
+        // Act
+        ProductSearchResult result = productSearchService.search(request);
+
+        // Assert
+        SearchCursor next = SearchCursor.decode(result.getNextCursor());
+        assertEquals("pit-2", next.getPitId());
+        assertEquals(List.of(1.5, 9), next.getSearchAfter());
+        assertEquals(1, next.getPage());
+        assertEquals("laptop", next.getName());
+        assertEquals(5, result.getPage().getTotalElements());
+    }
+
+    @Test
+    void search_CursorLastPage_ClosesPointInTime() {
+        // Arrange
+        String cursor = SearchCursor.builder()
+                .pitId("pit-1").searchAfter(List.of(1.5, 9)).page(2).name("laptop")
+                .totalElements(5).totalHitsRelation(TotalHitsRelation.EQUAL_TO)
+                .build().encode();
+        SearchProductsRequest request = request("ignored");
+        request.setPageable(PageRequest.of(0, 2));
+        request.setCursor(cursor);
+        when(elasticsearchOperations.search(any(NativeQuery.class), eq(ProductSearchDoc.class)))
+                .thenReturn(hits("pit-1", TotalHitsRelation.OFF, 0, hit("e", 1.0f, 12L)));
+
+        // Act
+        ProductSearchResult result = productSearchService.search(request);
+
+        // Assert
+        ArgumentCaptor<NativeQuery> query = ArgumentCaptor.forClass(NativeQuery.class);
+        verify(elasticsearchOperations).search(query.capture(), eq(ProductSearchDoc.class));
+        assertEquals("pit-1", query.getValue().getPointInTime().id());
+        assertEquals(List.of(1.5, 9), query.getValue().getSearchAfter());
+        assertEquals(Boolean.FALSE, query.getValue().getTrackTotalHits());
+        assertEquals(5, result.getPage().getTotalElements());
+        assertEquals("laptop", query.getValue().getQuery().bool().must().get(0).multiMatch().query());
+        assertNull(result.getNextCursor());
+        assertEquals(2, result.getPage().getNumber());
+        verify(elasticsearchOperations).closePointInTime("pit-1");
+    }
+
+    @Test
+    void search_MalformedCursor_ThrowsInvalidSearchRequest() {
+        // Arrange
+        SearchProductsRequest request = request("laptop");
+        request.setCursor("not-a-cursor");
+
+        // Act & Assert
+        assertThrows(InvalidSearchRequestException.class, () -> productSearchService.search(request));
+    }
+
+    private BoolQuery boolQuery(SearchProductsRequest request) {
+        NativeQuery query = productSearchService.buildQuery(request, false);
+        return query.getQuery().bool();
+    }
+
+    private static SearchProductsRequest request(String name) {
+        return SearchProductsRequest.builder()
+                .name(name)
+                .pageable(PageRequest.of(0, 10))
+                .build();
+    }
+
+    private static SearchHit<ProductSearchDoc> hit(String id, float score, long shardDoc) {
+        ProductSearchDoc doc = ProductSearchDoc.builder().id(id).name("Product " + id).build();
+        return new SearchHit<>("products", id, null, score, new Object[]{(double) score, shardDoc},
+                null, null, null, null, null, doc);
+    }
+
+    @SafeVarargs
+    private static SearchHits<ProductSearchDoc> hits(String pitId, long total, SearchHit<ProductSearchDoc>... hits) {
+        return hits(pitId, TotalHitsRelation.EQUAL_TO, total, hits);
+    }
+
+    @SafeVarargs
+    private static SearchHits<ProductSearchDoc> hits(String pitId, TotalHitsRelation relation, long total,
+                                                     SearchHit<ProductSearchDoc>... hits) {
+        return new SearchHitsImpl<>(total, relation, 1.0f, Duration.ZERO, null, pitId, List.of(hits), null, null, null);
+    }
+
+    private static SearchHits<ProductSearchDoc> hitsWithFacets() {
+        Aggregate categories = Aggregate.of(a -> a.sterms(t -> t
+                .buckets(b -> b.array(List.of(StringTermsBucket.of(bucket -> bucket.key("Electronics").docCount(4)))))
+                .sumOtherDocCount(0L)));
+        Aggregate prices = Aggregate.of(a -> a.range(r -> r
+                .buckets(b -> b.array(List.of(RangeBucket.of(bucket -> bucket.to(25.0).docCount(3)))))));
+        ElasticsearchAggregations aggregations = new ElasticsearchAggregations(Map.of(
+                ProductSearchService.CATEGORY_FACET, categories,
+                ProductSearchService.PRICE_FACET, prices));
+        return new SearchHitsImpl<>(4, TotalHitsRelation.EQUAL_TO, 1.0f, Duration.ZERO, null, null,
+                List.of(hit("a", 1.0f, 1L)), aggregations, null, null);
+    }
+}
@@ -0,0 +1,139 @@
+package com.marketplace.product.service;
+
+import com.marketplace.product.config.ProductConfigProperties;
+import com.marketplace.product.document.ProductSearchDoc;
+import com.marketplace.product.dto.response.ProductSuggestionResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.SearchHitsImpl;
+import org.springframework.data.elasticsearch.core.TotalHitsRelation;
+import org.springframework.data.elasticsearch.core.suggest.response.CompletionSuggestion;
+import org.springframework.data.elasticsearch.core.suggest.response.Suggest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSuggestServiceTest {
+
+    @Mock
+    private ElasticsearchOperations elasticsearchOperations;
+
+    private ProductSuggestService productSuggestService;
+
+    @BeforeEach
+    void setUp() {
+        productSuggestService = new ProductSuggestService(
+                elasticsearchOperations, new ProductConfigProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void suggest_ShortPrefix_ServedFromCacheOnRepeat() {
+        // Arrange
+        when(elasticsearchOperations.search(any(NativeQuery.class), eq(ProductSearchDoc.class)))
+                .thenReturn(suggestions(doc("p1", "Gaming Laptop"), doc("p2", "Laptop Stand")));
+
+        // Act
+        List<ProductSuggestionResponse> first = productSuggestService.suggest("La", 5);
+        List<ProductSuggestionResponse> second = productSuggestService.suggest(" la ", 5);
+
+        // Assert
+        assertEquals(List.of("Gaming Laptop", "Laptop Stand"), first.stream().map(ProductSuggestionResponse::getName).toList());
+        assertEquals(first, second);
+        verify(elasticsearchOperations, times(1)).search(any(NativeQuery.class), eq(ProductSearchDoc.class));
+    }
+
+    @Test
+    void suggest_LongPrefix_BypassesCache() {
+        // Arrange
+        when(elasticsearchOperations.search(any(NativeQuery.class), eq(ProductSearchDoc.class)))
+                .thenReturn(suggestions(doc("p1", "Gaming Laptop")));
+
+        // Act
+        productSuggestService.suggest("lapt", 5);
+        productSuggestService.suggest("lapt", 5);
+
+        // Assert
+        verify(elasticsearchOperations, times(2)).search(any(NativeQuery.class), eq(ProductSearchDoc.class));
+    }
+
+    @Test
+    void suggest_SameProductMatchedTwice_ListedOnce() {
+        // Arrange
+        when(elasticsearchOperations.search(any(NativeQuery.class), eq(ProductSearchDoc.class)))
+                .thenReturn(suggestions(doc("p1", "Laptop Laptop Sleeve"), doc("p1", "Laptop Laptop Sleeve")));
+
+        // Act
+        List<ProductSuggestionResponse> result = productSuggestService.suggest("lap", 5);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals("p1", result.get(0).getId());
+    }
+
+    @Test
+    void suggest_SizeAboveMaximum_IsCapped() {
+        // Arrange
+        ArgumentCaptor<NativeQuery> captor = ArgumentCaptor.forClass(NativeQuery.class);
+        when(elasticsearchOperations.search(captor.capture(), eq(ProductSearchDoc.class)))
+                .thenReturn(suggestions());
+
+        // Act
+        productSuggestService.suggest("laptop", 500);
+
+        // Assert
+        assertEquals(10, captor.getValue().getSuggester()
+                .suggesters().get(ProductSuggestService.SUGGESTION_NAME).completion().size());
+        assertEquals(0, captor.getValue().getMaxResults());
+    }
+
+    @Test
+    void suggest_BlankPrefix_ReturnsEmptyWithoutQuery() {
+        // Act
+        List<ProductSuggestionResponse> result = productSuggestService.suggest("  ", 5);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(elasticsearchOperations);
+    }
+
+    private static ProductSearchDoc doc(String id, String name) {
+        return ProductSearchDoc.builder().id(id).name(name).build();
+    }
+
+    private static SearchHits<ProductSearchDoc> suggestions(ProductSearchDoc... docs) {
+        List<CompletionSuggestion.Entry.Option<ProductSearchDoc>> options = new ArrayList<>();
+        for (ProductSearchDoc doc : docs) {
+            CompletionSuggestion.Entry.Option<ProductSearchDoc> option = new CompletionSuggestion.Entry.Option<>(
+                    doc.getName(), null, 1.0, null, null, null, null, doc);
+            option.updateSearchHit((document, entity) -> new SearchHit<>(
+                    "products", doc.getId(), null, 1.0f, null, null, null, null, null, null, entity));
+            options.add(option);
+        }
+        CompletionSuggestion<ProductSearchDoc> suggestion = new CompletionSuggestion<>(
+                ProductSuggestService.SUGGESTION_NAME, options.size(),
+                List.of(new CompletionSuggestion.Entry<>("lap", 0, 3, options)));
+        Suggest suggest = new Suggest(List.of(suggestion), false);
+        return new SearchHitsImpl<>(0, TotalHitsRelation.EQUAL_TO, 0.0f, Duration.ZERO, null, null,
+                List.of(), null, suggest, null);
+    }
+}